@@ -1,12 +1,62 @@
 CREATE EXTENSION IF NOT EXISTS vector;
 CREATE EXTENSION IF NOT EXISTS hstore;
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
 
 CREATE TABLE IF NOT EXISTS vector_store (
 	id uuid DEFAULT uuid_generate_v4() PRIMARY KEY,
 	content text,
-	metadata json,
-	embedding vector(1536)
+	metadata jsonb,
+	embedding vector(1536),
+	-- 필터 검색/삭제용 인덱스 컬럼 (메타데이터에서 자동 생성)
+	document_id bigint GENERATED ALWAYS AS ((metadata->>'document_id')::bigint) STORED,
+	user_id text GENERATED ALWAYS AS (metadata->>'user_id') STORED,
+	-- 키워드 검색용 (하이브리드 검색, 저장 시 자동 계산)
+	content_tsv tsvector GENERATED ALWAYS AS (to_tsvector('simple', coalesce(content, ''))) STORED
 );
 
-CREATE INDEX ON vector_store USING HNSW (embedding vector_cosine_ops);
\ No newline at end of file
+-- m, ef_construction 은 rag.vector-store.hnsw 설정과 맞춥니다.
+CREATE INDEX IF NOT EXISTS spring_ai_vector_index ON vector_store USING hnsw (embedding vector_cosine_ops) WITH (m = 16, ef_construction = 64);
+CREATE INDEX IF NOT EXISTS vector_store_document_id_idx ON vector_store (document_id);
+CREATE INDEX IF NOT EXISTS vector_store_user_id_idx ON vector_store (user_id);
+CREATE INDEX IF NOT EXISTS vector_store_metadata_idx ON vector_store USING gin (metadata jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS vector_store_content_tsv_idx ON vector_store USING gin (content_tsv);
+CREATE INDEX IF NOT EXISTS vector_store_content_trgm_idx ON vector_store USING gin (content gin_trgm_ops);
+
+-- 기존 테이블(metadata json) 마이그레이션
+-- json -> jsonb 변환과 생성 컬럼 추가는 테이블을 다시 쓰며 그동안 ACCESS EXCLUSIVE 잠금을 잡으므로 점검 시간에 실행합니다.
+-- (rag.vector-store.initialize-schema=true 이면 애플리케이션 시작 시 같은 작업을 수행하지만, 대용량 테이블은 미리 실행 권장)
+-- 인덱스는 CONCURRENTLY 로 만들어 쓰기를 막지 않습니다. (트랜잭션 밖에서 실행)
+--
+-- ALTER TABLE vector_store ALTER COLUMN metadata TYPE jsonb USING metadata::jsonb;
+-- ALTER TABLE vector_store
+-- 	ADD COLUMN IF NOT EXISTS document_id bigint GENERATED ALWAYS AS ((metadata->>'document_id')::bigint) STORED,
+-- 	ADD COLUMN IF NOT EXISTS user_id text GENERATED ALWAYS AS (metadata->>'user_id') STORED;
+-- CREATE INDEX CONCURRENTLY IF NOT EXISTS vector_store_document_id_idx ON vector_store (document_id);
+-- CREATE INDEX CONCURRENTLY IF NOT EXISTS vector_store_user_id_idx ON vector_store (user_id);
+-- CREATE INDEX CONCURRENTLY IF NOT EXISTS vector_store_metadata_idx ON vector_store USING gin (metadata jsonb_path_ops);
+-- ALTER TABLE vector_store ADD COLUMN IF NOT EXISTS content_tsv tsvector
+-- 	GENERATED ALWAYS AS (to_tsvector('simple', coalesce(content, ''))) STORED;
+-- CREATE INDEX CONCURRENTLY IF NOT EXISTS vector_store_content_tsv_idx ON vector_store USING gin (content_tsv);
+-- CREATE INDEX CONCURRENTLY IF NOT EXISTS vector_store_content_trgm_idx ON vector_store USING gin (content gin_trgm_ops);
+-- ANALYZE vector_store;
+--
+-- HNSW 빌드 설정 변경 (재생성 동안 CONCURRENTLY 로 쓰기를 막지 않음)
+-- ALTER INDEX spring_ai_vector_index SET (m = 16, ef_construction = 64);
+-- REINDEX INDEX CONCURRENTLY spring_ai_vector_index;
+--
+-- 사용자 파티션 인덱스 (rag.vector-store.partition, 청크 수가 rag.vector-store.hnsw.exact-search-max-rows 를 넘는 사용자만 애플리케이션이 자동 생성)
+-- CREATE INDEX CONCURRENTLY vector_store_user_<sha256(user_id) 앞 16자>_hnsw ON vector_store
+-- 	USING hnsw (embedding vector_cosine_ops) WITH (m = 16, ef_construction = 64) WHERE user_id = '<user_id>';
+--
+-- 양자화 인덱스 (rag.vector-store.quantization.mode, pgvector 0.7.0 이상)
+-- 표현식 인덱스라 기존 행을 다시 쓰지 않으며 테이블의 float32 원본은 재정렬에 그대로 사용합니다.
+-- 애플리케이션은 float32 인덱스가 있으면 양자화 인덱스를 백그라운드로 만들고 완료 후 전환합니다.
+-- halfvec (인덱스 약 1/2):
+-- CREATE INDEX CONCURRENTLY IF NOT EXISTS vector_store_embedding_halfvec_idx ON vector_store
+-- 	USING hnsw ((embedding::halfvec(1536)) halfvec_cosine_ops) WITH (m = 16, ef_construction = 64);
+-- binary (인덱스 약 1/32, 평균이 0 근처인 임베딩에서 재현율이 유지되며 재정렬 배수를 크게 잡습니다):
+-- CREATE INDEX CONCURRENTLY IF NOT EXISTS vector_store_embedding_bit_idx ON vector_store
+-- 	USING hnsw ((binary_quantize(embedding)::bit(1536)) bit_hamming_ops) WITH (m = 16, ef_construction = 64);
+-- 전환을 확인한 뒤 float32 인덱스 제거:
+-- DROP INDEX CONCURRENTLY IF EXISTS spring_ai_vector_index;
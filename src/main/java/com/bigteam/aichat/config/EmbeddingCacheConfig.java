@@ -0,0 +1,57 @@
+package com.bigteam.aichat.config;
+
+import java.time.Duration;
+
+import org.springframework.ai.ollama.OllamaEmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bigteam.aichat.rag.embedding.CachingEmbeddingModel;
+import com.bigteam.aichat.rag.embedding.PersistentEmbeddingCache;
+import com.bigteam.aichat.rag.embedding.QueryEmbeddingCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class EmbeddingCacheConfig {
+
+	/**
+	 * 청크 임베딩 Postgres 영속 캐시
+	 * 빈으로 등록하여 보관 기간이 지난 항목의 주기적 삭제(@Scheduled)가 동작하도록 합니다.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "rag.embedding-cache.persistent-enabled", havingValue = "true", matchIfMissing = true)
+	PersistentEmbeddingCache persistentEmbeddingCache(
+			JdbcTemplate jdbcTemplate,
+			@Value("${rag.embedding-cache.initialize-schema:true}") boolean initializeSchema,
+			@Value("${rag.embedding-cache.retention:30d}") Duration retention) {
+		return new PersistentEmbeddingCache(jdbcTemplate, initializeSchema, retention);
+	}
+
+	/**
+	 * pgvector VectorStore 가 주입받는 임베딩 모델
+	 * Ollama 임베딩 모델 앞에 청크용 메모리 LRU + Postgres 캐시와 질의용 TTL 캐시를 둡니다.
+	 */
+	@Bean
+	@Primary
+	CachingEmbeddingModel cachingEmbeddingModel(
+			OllamaEmbeddingModel ollamaEmbeddingModel,
+			ObjectProvider<PersistentEmbeddingCache> persistentCache,
+			MeterRegistry meterRegistry,
+			@Value("${spring.ai.ollama.embedding.options.model}") String embeddingModel,
+			@Value("${rag.embedding-cache.memory-max-entries:5000}") int memoryMaxEntries,
+			@Value("${rag.embedding-cache.query.enabled:true}") boolean queryCacheEnabled,
+			@Value("${rag.embedding-cache.query.max-entries:1000}") int queryMaxEntries,
+			@Value("${rag.embedding-cache.query.ttl:30m}") Duration queryTtl) {
+		QueryEmbeddingCache queryCache = queryCacheEnabled
+				? new QueryEmbeddingCache(queryMaxEntries, queryTtl, meterRegistry)
+				: null;
+		return new CachingEmbeddingModel(ollamaEmbeddingModel, persistentCache.getIfAvailable(), queryCache, embeddingModel,
+				memoryMaxEntries, meterRegistry);
+	}
+}
@@ -0,0 +1,110 @@
+package com.bigteam.aichat.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.StringUtils;
+
+import com.bigteam.aichat.service.AdaptiveEmbeddingWriter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.MultipartConfigElement;
+
+@Configuration
+@EnableScheduling
+public class IngestionConfig {
+
+	/** 적재 보관 디렉토리 아래의 멀티파트 임시 파일 디렉토리명 */
+	public static final String MULTIPART_DIR = "multipart";
+
+	/**
+	 * 멀티파트 업로드 설정
+	 * file-size-threshold 를 넘는 업로드는 힙에 버퍼링하지 않고 임시 파일로 스트리밍하며,
+	 * 임시 파일 위치를 적재 보관 디렉토리와 같은 파일 시스템에 두어 transferTo 가 복사 대신 이동으로 처리되게 합니다.
+	 * (spring.servlet.multipart.location 을 지정하면 그 위치를 사용)
+	 */
+	@Bean
+	MultipartConfigElement multipartConfigElement(MultipartProperties properties,
+			@Value("${rag.ingestion.storage-dir:${java.io.tmpdir}/aichat-ingestion}") String storageDir) throws IOException {
+		if (!StringUtils.hasText(properties.getLocation())) {
+			properties.setLocation(Paths.get(storageDir, MULTIPART_DIR).toString());
+		}
+		Files.createDirectories(Path.of(properties.getLocation()));
+		return properties.createMultipartConfig();
+	}
+
+	/**
+	 * 문서 적재 작업 전용 워커 풀
+	 * 큐가 가득 차면 TaskRejectedException 으로 거절하여 업로드 폭주 시에도 스레드 수를 제한합니다.
+	 */
+	@Bean(name = "ingestionExecutor")
+	ThreadPoolTaskExecutor ingestionExecutor(
+			@Value("${rag.ingestion.worker-threads:2}") int workerThreads,
+			@Value("${rag.ingestion.queue-capacity:100}") int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("ingestion-");
+		executor.setCorePoolSize(workerThreads);
+		executor.setMaxPoolSize(workerThreads);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setWaitForTasksToCompleteOnShutdown(false); // 미완료 작업은 재시작 시 복구
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * 대용량 PDF 페이지 범위 병렬 추출용 풀
+	 * 추출 작업은 다른 작업을 기다리지 않는 단말 작업이므로 풀 내부 대기로 인한 교착이 없으며,
+	 * 큐가 가득 차면 호출한 적재 워커 스레드에서 직접 추출합니다.
+	 */
+	@Bean(name = "documentParseExecutor")
+	ThreadPoolTaskExecutor documentParseExecutor(
+			@Value("${rag.ingestion.parse-parallelism:1}") int parseParallelism) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("pdf-parse-");
+		executor.setCorePoolSize(Math.max(1, parseParallelism));
+		executor.setMaxPoolSize(Math.max(1, parseParallelism));
+		executor.setQueueCapacity(Math.max(1, parseParallelism) * 4);
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * 임베딩/저장 배치 writer (JVM 전체 공유)
+	 * 모든 업로드의 청크 저장이 이 writer 를 거치므로 동시 임베딩 배치 수가 max-in-flight 로 제한됩니다.
+	 */
+	@Bean(destroyMethod = "close")
+	AdaptiveEmbeddingWriter adaptiveEmbeddingWriter(VectorStore vectorStore, MeterRegistry meterRegistry,
+			@Value("${rag.ingestion.embedding.initial-batch-size:32}") int initialBatchSize,
+			@Value("${rag.ingestion.embedding.min-batch-size:4}") int minBatchSize,
+			@Value("${rag.ingestion.embedding.max-batch-size:512}") int maxBatchSize,
+			@Value("${rag.ingestion.embedding.max-batch-chars:200000}") int maxBatchChars,
+			@Value("${rag.ingestion.embedding.target-latency:2s}") Duration targetLatency,
+			@Value("${rag.ingestion.embedding.max-in-flight:4}") int maxInFlight,
+			@Value("${rag.ingestion.embedding.max-attempts:3}") int maxAttempts,
+			@Value("${rag.ingestion.embedding.retry-backoff:500ms}") Duration retryBackoff) {
+		return AdaptiveEmbeddingWriter.builder()
+				.store(vectorStore::add)
+				.meterRegistry(meterRegistry)
+				.initialBatchSize(initialBatchSize)
+				.minBatchSize(minBatchSize)
+				.maxBatchSize(maxBatchSize)
+				.maxBatchChars(maxBatchChars)
+				.targetLatency(targetLatency)
+				.maxInFlight(maxInFlight)
+				.maxAttempts(maxAttempts)
+				.retryBackoff(retryBackoff)
+				.build();
+	}
+}
@@ -1,26 +1,35 @@
-// package com.bigteam.aichat.config;
+package com.bigteam.aichat.config;
 
-// import org.springframework.ai.embedding.EmbeddingModel;
-// import org.springframework.ai.vectorstore.VectorStore;
-// import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
-// import org.springframework.context.annotation.Bean;
-// import org.springframework.context.annotation.Configuration;
-// import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
-// @Configuration
-// public class VectorStoreConfig {
+import com.bigteam.aichat.rag.vectorstore.IndexedPgVectorStore;
+import com.bigteam.aichat.rag.vectorstore.VectorStoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
-// 	@Bean
-// 	public VectorStore vectorStore(JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel) {
-// 		return PgVectorStore.builder(jdbcTemplate,embeddingModel)
-// //							.dimensions(1024)                    // Optional: defaults to model dimensions or 1536
-// 							.distanceType(PgVectorStore.PgDistanceType.COSINE_DISTANCE)       // Optional: defaults to COSINE_DISTANCE
-// 							.indexType(PgVectorStore.PgIndexType.HNSW)                     // Optional: defaults to HNSW
-// 							.initializeSchema(true)              // Optional: defaults to false
-// 							.schemaName("public")                // Optional: defaults to "public"
-// 							.vectorTableName("vector_store")     // Optional: defaults to "vector_store"
-// 							.maxDocumentBatchSize(10000)         // Optional: defaults to 10000
-// 							.removeExistingVectorStoreTable(false)
-// 							.build();
-// 	}
-// }
+@Configuration
+@EnableConfigurationProperties(VectorStoreProperties.class)
+public class VectorStoreConfig {
+
+	/**
+	 * 애플리케이션이 사용하는 VectorStore
+	 * 자동 구성된 PgVectorStore(spring.ai.vectorstore.pgvector.*)로 저장하고,
+	 * 필터 검색/삭제는 document_id, user_id 인덱스 컬럼을 사용하도록 변환합니다.
+	 * HNSW 인덱스 빌드 설정(m, ef_construction)과 검색 설정(ef_search, 반복 스캔)은 rag.vector-store.hnsw 에서 조정합니다.
+	 */
+	@Bean
+	@Primary
+	IndexedPgVectorStore indexedVectorStore(PgVectorStore pgVectorStore, JdbcTemplate jdbcTemplate,
+			EmbeddingModel embeddingModel, ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+			VectorStoreProperties properties) {
+		properties.validate();
+		return new IndexedPgVectorStore(pgVectorStore, jdbcTemplate, embeddingModel, objectMapper, transactionManager,
+				properties);
+	}
+}
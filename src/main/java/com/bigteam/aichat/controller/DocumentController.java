@@ -1,6 +1,8 @@
 package com.bigteam.aichat.controller;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -9,9 +11,12 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.bigteam.aichat.dto.BulkUploadResponse;
+import com.bigteam.aichat.dto.IngestionJobResponse;
 import com.bigteam.aichat.entity.DocumentInfo;
-import com.bigteam.aichat.service.DataLoaderService;
+import com.bigteam.aichat.entity.IngestionJob;
 import com.bigteam.aichat.service.DocumentService;
+import com.bigteam.aichat.service.IngestionJobService;
 import com.bigteam.aichat.service.VectorStoreService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,7 +27,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
@@ -34,19 +42,97 @@ import lombok.RequiredArgsConstructor;
 @Tag(name = "DocumentController", description = "Document 관리 API")
 public class DocumentController {
 
-    private final DataLoaderService loaderService;
+    private final IngestionJobService ingestionJobService;
     private final DocumentService documentService;
     private final VectorStoreService vectorStoreService;
 
-    @Operation(summary = "RAG 파일 업로드", description = "파일 업로드", tags = {"DocumentController"})
-	@ApiResponses(value = {@ApiResponse(responseCode = "200", description = "응답 생성 완료")})
+    @Operation(summary = "RAG 파일 업로드", description = "파일 업로드 후 적재 작업 ID 반환, 적재는 비동기로 진행", tags = {"DocumentController"})
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "202", description = "적재 작업 등록 완료"),
+			@ApiResponse(responseCode = "400", description = "지원되지 않는 파일 형식"),
+			@ApiResponse(responseCode = "503", description = "적재 작업 큐가 가득 참 (문서는 등록되지 않음)")})
 	@PostMapping(produces = MediaType.APPLICATION_JSON_VALUE,consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-	public ResponseEntity<DocumentInfo> uploadRag(
+	public ResponseEntity<IngestionJobResponse> uploadRag(
 			@RequestPart(value = "file", required = true) MultipartFile file,
 			@RequestParam(value = "userId", required = true) String userId
 		) throws IOException {
-		DocumentInfo doc = loaderService.processAndStoreDocument(file, userId);
-		return ResponseEntity.ok(doc);
+		try {
+			IngestionJob job = ingestionJobService.submit(file, userId);
+			return ResponseEntity.accepted().body(IngestionJobResponse.from(job));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		} catch (TaskRejectedException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+	}
+
+	@Operation(summary = "RAG 파일 일괄 업로드", description = "여러 파일 또는 ZIP 업로드 후 파일별 적재 작업 ID 반환, 청크는 파일 간에 모아 일괄 저장", tags = {"DocumentController"})
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "202", description = "적재 작업 등록 완료 (파일별 등록/거절 결과 포함)"),
+			@ApiResponse(responseCode = "400", description = "업로드된 파일 없음"),
+			@ApiResponse(responseCode = "503", description = "적재 작업 큐가 가득 참 (문서는 등록되지 않음)")})
+	@PostMapping(path = "bulk", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	public ResponseEntity<BulkUploadResponse> uploadRagBulk(
+			@RequestPart(value = "files", required = true) List<MultipartFile> files,
+			@RequestParam(value = "userId", required = true) String userId
+		) throws IOException {
+		if (files == null || files.isEmpty()) {
+			return ResponseEntity.badRequest().build();
+		}
+		try {
+			return ResponseEntity.accepted().body(ingestionJobService.submitBulk(files, userId));
+		} catch (TaskRejectedException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+	}
+
+	@Operation(summary = "문서 새 버전 업로드", description = "기존 문서를 새 버전 파일로 갱신, 바뀐 청크만 임베딩하여 저장하고 사라진 청크는 완료 시 삭제 (비동기, 작업 중에는 이전/새 버전 청크가 함께 검색됨)", tags = {"DocumentController"})
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "202", description = "갱신 작업 등록 완료"),
+			@ApiResponse(responseCode = "400", description = "지원되지 않는 파일 형식"),
+			@ApiResponse(responseCode = "404", description = "문서 없음"),
+			@ApiResponse(responseCode = "409", description = "문서에 진행 중인 적재 작업이 있음"),
+			@ApiResponse(responseCode = "503", description = "적재 작업 큐가 가득 참")})
+	@PostMapping(path = "documents/{documentId}/versions", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	public ResponseEntity<IngestionJobResponse> updateDocument(
+			@PathVariable Long documentId,
+			@RequestPart(value = "file", required = true) MultipartFile file,
+			@RequestParam(value = "userId", required = true) String userId
+		) throws IOException {
+		try {
+			IngestionJob job = ingestionJobService.submitUpdate(documentId, file, userId);
+			return ResponseEntity.accepted().body(IngestionJobResponse.from(job));
+		} catch (NoSuchElementException e) {
+			return ResponseEntity.notFound().build();
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		} catch (TaskRejectedException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		}
+	}
+
+	@Operation(summary = "적재 작업 상태 조회", description = "적재 작업의 상태 및 단계별 진행 상황 조회", tags = {"DocumentController"})
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "조회 완료"),
+			@ApiResponse(responseCode = "404", description = "작업 없음")})
+	@GetMapping(path = "jobs/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<IngestionJobResponse> getIngestionJob(@PathVariable Long jobId) {
+		return ingestionJobService.getJob(jobId)
+				.map(IngestionJobResponse::from)
+				.map(ResponseEntity::ok)
+				.orElse(ResponseEntity.notFound().build());
+	}
+
+	@Operation(summary = "사용자 적재 작업 목록 조회", description = "사용자의 적재 작업 목록 조회 (최신순)", tags = {"DocumentController"})
+	@ApiResponses(value = {@ApiResponse(responseCode = "200", description = "조회 완료")})
+	@GetMapping(path = "jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<List<IngestionJobResponse>> getIngestionJobs(
+			@RequestParam(value = "userId", required = true) String userId) {
+		return ResponseEntity.ok(ingestionJobService.getUserJobs(userId).stream()
+				.map(IngestionJobResponse::from)
+				.toList());
 	}
 
 	@Operation(summary = "단일, 여러 문서 삭제", description = "문서 ID 목록으로 문서 일괄 삭제", tags = {"DocumentController"})
@@ -0,0 +1,48 @@
+package com.bigteam.aichat.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.bigteam.aichat.dto.RagRetrievalSettings;
+import com.bigteam.aichat.rag.EnhancedDocumentRagService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/rag/settings")
+@Tag(name = "RagSettingsController", description = "RAG 검색 설정 API")
+public class RagSettingsController {
+
+	private final EnhancedDocumentRagService enhancedDocumentRagService;
+
+	@Operation(summary = "RAG 검색 설정 조회", description = "현재 적용 중인 RAG 검색 설정 조회", tags = {"RagSettingsController"})
+	@ApiResponses(value = {@ApiResponse(responseCode = "200", description = "조회 완료")})
+	@GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<RagRetrievalSettings> getSettings() {
+		return ResponseEntity.ok(RagRetrievalSettings.from(enhancedDocumentRagService.getRetrievalSettings()));
+	}
+
+	@Operation(summary = "RAG 검색 설정 변경", description = "재시작 없이 RAG 검색 설정 변경, 이후 요청부터 적용", tags = {"RagSettingsController"})
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "변경 완료"),
+			@ApiResponse(responseCode = "400", description = "유효하지 않은 설정값")})
+	@PutMapping(produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<RagRetrievalSettings> updateSettings(@RequestBody RagRetrievalSettings request) {
+		try {
+			return ResponseEntity.ok(RagRetrievalSettings.from(enhancedDocumentRagService.updateRetrievalSettings(
+					request.mergeInto(enhancedDocumentRagService.getRetrievalSettings()))));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
+	}
+}
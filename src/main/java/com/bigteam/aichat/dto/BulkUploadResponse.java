@@ -0,0 +1,68 @@
+package com.bigteam.aichat.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(description = "일괄 업로드 결과")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class BulkUploadResponse {
+	@Schema(description = "적재 작업으로 등록된 파일 수", example = "12")
+	private int acceptedCount;
+	@Schema(description = "거절된 파일 수", example = "1")
+	private int rejectedCount;
+	@Schema(description = "파일별 결과 (ZIP 은 포함된 파일별로 나열)")
+	private List<FileResult> files;
+
+	public static BulkUploadResponse of(List<FileResult> files) {
+		int accepted = (int) files.stream().filter(FileResult::isAccepted).count();
+		return BulkUploadResponse.builder()
+				.acceptedCount(accepted)
+				.rejectedCount(files.size() - accepted)
+				.files(files)
+				.build();
+	}
+
+	@Schema(description = "파일별 업로드 결과")
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@Builder
+	@Getter
+	@Setter
+	public static class FileResult {
+		@Schema(description = "파일명 (ZIP 내부 파일은 압축 파일명!경로)", example = "manual.zip!guide/setup.pdf")
+		private String filename;
+		@Schema(description = "결과 (ACCEPTED, REJECTED)")
+		private String status;
+		@Schema(description = "적재 작업 ID (등록된 경우)", example = "1")
+		private Long jobId;
+		@Schema(description = "문서 ID (등록된 경우)", example = "1")
+		private Long documentId;
+		@Schema(description = "거절 사유")
+		private String message;
+
+		public static FileResult accepted(String filename, Long jobId, Long documentId) {
+			return FileResult.builder().filename(filename).status("ACCEPTED").jobId(jobId).documentId(documentId).build();
+		}
+
+		public static FileResult rejected(String filename, String message) {
+			return FileResult.builder().filename(filename).status("REJECTED").message(message).build();
+		}
+
+		@JsonIgnore
+		public boolean isAccepted() {
+			return "ACCEPTED".equals(status);
+		}
+	}
+}
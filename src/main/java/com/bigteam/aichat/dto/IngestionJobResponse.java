@@ -0,0 +1,68 @@
+package com.bigteam.aichat.dto;
+
+import com.bigteam.aichat.entity.IngestionJob;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "문서 적재 작업 상태")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class IngestionJobResponse {
+	@Schema(description = "적재 작업 ID", example = "1")
+	private Long jobId;
+	@Schema(description = "문서 ID", example = "1")
+	private Long documentId;
+	@Schema(description = "작업 유형 (INGEST: 신규 적재, UPDATE: 새 버전 반영)")
+	private String type;
+	@Schema(description = "작업 상태 (QUEUED, RUNNING, COMPLETED, FAILED)")
+	private String status;
+	@Schema(description = "현재 처리 단계 (PARSING, CLEANING, CHUNKING, ENRICHING, STORING, DONE)")
+	private String stage;
+	@Schema(description = "파싱된 문서(페이지/문단) 수")
+	private int parsedCount;
+	@Schema(description = "생성된 청크 수")
+	private int chunkCount;
+	@Schema(description = "요약 처리된 청크 수")
+	private int enrichedCount;
+	@Schema(description = "벡터 저장소에 저장된 청크 수")
+	private int storedCount;
+	@Schema(description = "갱신 시 재사용한 청크 수 (임베딩/요약 생략)")
+	private int retainedCount;
+	@Schema(description = "갱신 시 삭제한 청크 수")
+	private int removedCount;
+	@Schema(description = "오류 메시지 (실패 시)")
+	private String errorMessage;
+	private LocalDateTime createdAt;
+	private LocalDateTime updatedAt;
+	private LocalDateTime finishedAt;
+
+	public static IngestionJobResponse from(IngestionJob job) {
+		return IngestionJobResponse.builder()
+				.jobId(job.getId())
+				.documentId(job.getDocumentId())
+				.type(job.isUpdate() ? IngestionJob.Type.UPDATE.name() : IngestionJob.Type.INGEST.name())
+				.status(job.getStatus().name())
+				.stage(job.getStage().name())
+				.parsedCount(job.getParsedCount())
+				.chunkCount(job.getChunkCount())
+				.enrichedCount(job.getEnrichedCount())
+				.storedCount(job.getStoredCount())
+				.retainedCount(job.getRetainedCount())
+				.removedCount(job.getRemovedCount())
+				.errorMessage(job.getErrorMessage())
+				.createdAt(job.getCreatedAt())
+				.updatedAt(job.getUpdatedAt())
+				.finishedAt(job.getFinishedAt())
+				.build();
+	}
+}
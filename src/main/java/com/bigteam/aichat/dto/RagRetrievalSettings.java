@@ -0,0 +1,94 @@
+package com.bigteam.aichat.dto;
+
+import com.bigteam.aichat.rag.module.RagRetrievalProperties;
+
+import java.time.Duration;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(description = "RAG 검색 설정 (변경 요청 시 null 항목은 기존 값 유지)")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+public class RagRetrievalSettings {
+	@Schema(description = "질의당 검색 문서 수", example = "5")
+	private Integer topK;
+	@Schema(description = "유사도 임계값 (0.0 ~ 1.0)", example = "0.5")
+	private Double similarityThreshold;
+	@Schema(description = "질의 확장 사용 여부", example = "true")
+	private Boolean expansionEnabled;
+	@Schema(description = "질의 확장 시 생성할 질의 수", example = "3")
+	private Integer numberOfQueries;
+	@Schema(description = "질의 확장 시 원본 질의 포함 여부", example = "true")
+	private Boolean includeOriginal;
+	@Schema(description = "적응형 질의 확장 사용 여부 (false 면 항상 확장)", example = "true")
+	private Boolean adaptiveExpansion;
+	@Schema(description = "이 단어 수 이하의 질의는 확장 생략", example = "3")
+	private Integer shortQueryMaxWords;
+	@Schema(description = "이 단어 수 이하의 키워드형 질의는 확장 생략", example = "6")
+	private Integer keywordQueryMaxWords;
+	@Schema(description = "1차 검색 최고 점수가 이 값 이상이면 확장 생략", example = "0.75")
+	private Double confidentScore;
+	@Schema(description = "확장 질의 결과 결합(RRF) 상수", example = "60")
+	private Integer rrfK;
+	@Schema(description = "결합 후 컨텍스트에 사용할 최대 문서 수", example = "8")
+	private Integer fusedTopK;
+	@Schema(description = "질의 확장과 원본 질의 검색 동시 수행 여부", example = "true")
+	private Boolean speculative;
+	@Schema(description = "추측 실행 시 확장 결과 수용 마감 시간 (ms)", example = "1500")
+	private Long expansionDeadlineMs;
+	@Schema(description = "하이브리드(벡터 + 키워드) 검색 사용 여부", example = "true")
+	private Boolean hybridEnabled;
+	@Schema(description = "하이브리드 검색 시 키워드 검색 문서 수", example = "5")
+	private Integer keywordTopK;
+
+	public static RagRetrievalSettings from(RagRetrievalProperties properties) {
+		return RagRetrievalSettings.builder()
+				.topK(properties.getTopK())
+				.similarityThreshold(properties.getSimilarityThreshold())
+				.expansionEnabled(properties.isExpansionEnabled())
+				.numberOfQueries(properties.getNumberOfQueries())
+				.includeOriginal(properties.isIncludeOriginal())
+				.adaptiveExpansion(properties.isAdaptiveExpansion())
+				.shortQueryMaxWords(properties.getShortQueryMaxWords())
+				.keywordQueryMaxWords(properties.getKeywordQueryMaxWords())
+				.confidentScore(properties.getConfidentScore())
+				.rrfK(properties.getRrfK())
+				.fusedTopK(properties.getFusedTopK())
+				.speculative(properties.isSpeculative())
+				.expansionDeadlineMs(properties.getExpansionDeadline().toMillis())
+				.hybridEnabled(properties.isHybridEnabled())
+				.keywordTopK(properties.getKeywordTopK())
+				.build();
+	}
+
+	/**
+	 * 기존 설정에 변경 항목을 덮어쓴 새 설정을 반환합니다.
+	 */
+	public RagRetrievalProperties mergeInto(RagRetrievalProperties base) {
+		RagRetrievalProperties merged = base.copy();
+		if (topK != null) merged.setTopK(topK);
+		if (similarityThreshold != null) merged.setSimilarityThreshold(similarityThreshold);
+		if (expansionEnabled != null) merged.setExpansionEnabled(expansionEnabled);
+		if (numberOfQueries != null) merged.setNumberOfQueries(numberOfQueries);
+		if (includeOriginal != null) merged.setIncludeOriginal(includeOriginal);
+		if (adaptiveExpansion != null) merged.setAdaptiveExpansion(adaptiveExpansion);
+		if (shortQueryMaxWords != null) merged.setShortQueryMaxWords(shortQueryMaxWords);
+		if (keywordQueryMaxWords != null) merged.setKeywordQueryMaxWords(keywordQueryMaxWords);
+		if (confidentScore != null) merged.setConfidentScore(confidentScore);
+		if (rrfK != null) merged.setRrfK(rrfK);
+		if (fusedTopK != null) merged.setFusedTopK(fusedTopK);
+		if (speculative != null) merged.setSpeculative(speculative);
+		if (expansionDeadlineMs != null) merged.setExpansionDeadline(Duration.ofMillis(expansionDeadlineMs));
+		if (hybridEnabled != null) merged.setHybridEnabled(hybridEnabled);
+		if (keywordTopK != null) merged.setKeywordTopK(keywordTopK);
+		return merged;
+	}
+}
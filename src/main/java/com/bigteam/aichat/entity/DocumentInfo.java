@@ -39,8 +39,30 @@ public class DocumentInfo {
 	@Column(name = "on_chat")
 	private boolean onChat; // 대화 중 업로드한 파일 정보
 
+	@Builder.Default
+	@Column(name = "version", columnDefinition = "integer default 1")
+	private Integer version = 1; // 문서 버전 (새 버전으로 갱신할 때마다 증가)
+
+	@Column(name = "content_hash", length = 64)
+	private String contentHash; // 현재 버전 파일의 SHA-256 (같은 파일 재업로드 시 갱신 생략)
+
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt; // 마지막 버전 갱신 시각
+
 	@PrePersist
 	public void prePersist() {
 		this.createdAt = LocalDateTime.now();
 	}
+
+	/**
+	 * 새 버전으로 갱신합니다.
+	 */
+	public void nextVersion(String filename, String contentType, long fileSize, String contentHash) {
+		this.version = (this.version == null ? 1 : this.version) + 1;
+		this.filename = filename;
+		this.contentType = contentType;
+		this.fileSize = fileSize;
+		this.contentHash = contentHash;
+		this.updatedAt = LocalDateTime.now();
+	}
 }
\ No newline at end of file
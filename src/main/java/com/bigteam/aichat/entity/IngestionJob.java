@@ -0,0 +1,110 @@
+package com.bigteam.aichat.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 문서 적재(Ingestion) 작업 정보
+ * 업로드된 문서의 파싱 -> 정제 -> 청킹 -> 요약 -> 임베딩/저장 진행 상황을 기록합니다.
+ */
+@Entity
+@Table(name = "ingestion_job")
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class IngestionJob {
+
+	public enum Status {
+		QUEUED, RUNNING, COMPLETED, FAILED
+	}
+
+	public enum Type {
+		INGEST, // 신규 문서 적재
+		UPDATE // 기존 문서의 새 버전 반영 (바뀐 청크만 저장)
+	}
+
+	public enum Stage {
+		QUEUED, PARSING, CLEANING, CHUNKING, ENRICHING, STORING, DONE
+	}
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "document_id", nullable = false)
+	private Long documentId; // 대상 문서 (document_info.id)
+
+	@Column(nullable = false)
+	private String userId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "job_type")
+	private Type type; // null 이면 INGEST (작업 유형 도입 이전 작업)
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private Status status;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private Stage stage;
+
+	@Column(name = "file_path", length = 1024)
+	private String filePath; // 작업 완료 전까지 보관하는 업로드 파일 경로
+
+	@Column(name = "parsed_count")
+	private int parsedCount; // 파싱된 문서(페이지/문단) 수
+
+	@Column(name = "chunk_count")
+	private int chunkCount; // 생성된 청크 수
+
+	@Column(name = "enriched_count")
+	private int enrichedCount; // 요약 처리된 청크 수
+
+	@Column(name = "stored_count")
+	private int storedCount; // 벡터 저장소에 저장된 청크 수
+
+	@Column(name = "retained_count")
+	private int retainedCount; // 갱신 시 재사용한 청크 수
+
+	@Column(name = "removed_count")
+	private int removedCount; // 갱신 시 삭제한 청크 수
+
+	@Column(name = "attempts")
+	private int attempts; // 실행 시도 횟수 (재시작 후 재개 포함)
+
+	@Column(name = "error_message", columnDefinition = "TEXT")
+	private String errorMessage;
+
+	@Column(name = "created_at")
+	private LocalDateTime createdAt;
+
+	@Column(name = "updated_at")
+	private LocalDateTime updatedAt;
+
+	@Column(name = "finished_at")
+	private LocalDateTime finishedAt;
+
+	@PrePersist
+	public void prePersist() {
+		this.createdAt = LocalDateTime.now();
+		this.updatedAt = this.createdAt;
+	}
+
+	@PreUpdate
+	public void preUpdate() {
+		this.updatedAt = LocalDateTime.now();
+	}
+
+	public boolean isUpdate() {
+		return this.type == Type.UPDATE;
+	}
+
+	public boolean isFinished() {
+		return this.status == Status.COMPLETED || this.status == Status.FAILED;
+	}
+}
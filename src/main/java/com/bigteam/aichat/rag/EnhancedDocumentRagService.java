@@ -1,37 +1,87 @@
 package com.bigteam.aichat.rag;
 
+import com.bigteam.aichat.rag.module.AdaptiveQueryExpander;
 import com.bigteam.aichat.rag.module.CustomDocumentProcessor;
+import com.bigteam.aichat.rag.module.ExactSearchDocumentRetriever;
+import com.bigteam.aichat.rag.module.HybridDocumentRetriever;
+import com.bigteam.aichat.rag.module.RagRetrievalProperties;
+import com.bigteam.aichat.rag.module.ReciprocalRankFusionDocumentJoiner;
+import com.bigteam.aichat.rag.module.SpeculativeDocumentRetriever;
+import com.bigteam.aichat.rag.vectorstore.ActiveDocumentVectorCache;
+import com.bigteam.aichat.rag.vectorstore.KeywordSearcher;
 import com.bigteam.aichat.repository.DocumentInfoRepository;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor;
 import org.springframework.ai.rag.generation.augmentation.QueryAugmenter;
 import org.springframework.ai.rag.preretrieval.query.expansion.MultiQueryExpander;
-import org.springframework.ai.rag.preretrieval.query.transformation.QueryTransformer;
+import org.springframework.ai.rag.preretrieval.query.expansion.QueryExpander;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
 import org.springframework.ai.rag.retrieval.search.VectorStoreDocumentRetriever;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 메모리가 작은 모델을 위한 개선된 RAG 서비스
  * Spring AI의 모듈형 RAG 아키텍처를 활용하여 검색 품질 향상
+ * RAG Advisor 는 요청마다 생성하지 않고 재사용하며, 요청별로 달라지는 필터는 advisor param 으로 전달됩니다.
+ * 검색 설정 변경 시 새 Advisor 를 생성하여 원자적으로 교체합니다. (진행 중인 요청은 기존 Advisor 로 완료)
+ * 확장 질의별 검색은 공유 풀에서 병렬로 수행되고, 결과는 RRF 로 결합됩니다.
+ * 추측 실행 모드에서는 확장과 원본 질의 검색을 동시에 시작하고, 마감 시간 내 도착한 확장 결과만 결합합니다.
+ * 활성 문서의 청크가 적으면 벡터 저장소 대신 메모리의 활성 문서 임베딩으로 정확 검색합니다.
+ * 하이브리드 검색 시 질의마다 content 키워드 검색을 함께 수행하여 유사도 임계값에 걸린 식별자 청크도 찾습니다.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class EnhancedDocumentRagService {
 
     private final VectorStore vectorStore;
     private final DocumentInfoRepository documentInfoRepository;
     // private final QueryTransformer queryTransformer;
     private final QueryAugmenter queryAugmenter;
-    private final MultiQueryExpander multiQueryExpander;
     private final CustomDocumentProcessor customDocumentProcessor;
+    private final ChatClient.Builder chatClientBuilder;
+    private final TaskExecutor ragRetrievalExecutor;
+    private final MeterRegistry meterRegistry;
+    private final ActiveDocumentVectorCache activeDocumentVectorCache;
+    private final EmbeddingModel embeddingModel;
+    private final KeywordSearcher keywordSearcher;
 
+    private final AtomicReference<RagAdvisorState> current = new AtomicReference<>();
+
+    public EnhancedDocumentRagService(VectorStore vectorStore,
+                                      DocumentInfoRepository documentInfoRepository,
+                                      QueryAugmenter queryAugmenter,
+                                      CustomDocumentProcessor customDocumentProcessor,
+                                      ChatClient.Builder chatClientBuilder,
+                                      @Qualifier("ragRetrievalExecutor") TaskExecutor ragRetrievalExecutor,
+                                      RagRetrievalProperties retrievalProperties,
+                                      MeterRegistry meterRegistry,
+                                      ActiveDocumentVectorCache activeDocumentVectorCache,
+                                      EmbeddingModel embeddingModel,
+                                      KeywordSearcher keywordSearcher) {
+        this.vectorStore = vectorStore;
+        this.documentInfoRepository = documentInfoRepository;
+        this.queryAugmenter = queryAugmenter;
+        this.customDocumentProcessor = customDocumentProcessor;
+        this.chatClientBuilder = chatClientBuilder;
+        this.ragRetrievalExecutor = ragRetrievalExecutor;
+        this.meterRegistry = meterRegistry;
+        this.activeDocumentVectorCache = activeDocumentVectorCache;
+        this.embeddingModel = embeddingModel;
+        this.keywordSearcher = keywordSearcher;
+        updateRetrievalSettings(retrievalProperties);
+    }
 
     public List<Long> getActiveDocFilter(String userId) {
         List<Long> activeDocIds = documentInfoRepository.findActiveDocumentIdsByUserId(userId);
@@ -43,17 +93,90 @@ public class EnhancedDocumentRagService {
     }
 
     public Advisor getRagAdvisor() {
-        return RetrievalAugmentationAdvisor.builder()
-                .documentRetriever(VectorStoreDocumentRetriever.builder()
-                        .similarityThreshold(0.5)
-                        .topK(5)
-                        .vectorStore(vectorStore)                        
-                        .build())
+        return current.get().advisor();
+    }
+
+    /**
+     * 현재 적용 중인 검색 설정을 반환합니다.
+     *
+     * @return 검색 설정 사본
+     */
+    public RagRetrievalProperties getRetrievalSettings() {
+        return current.get().settings().copy();
+    }
+
+    /**
+     * 검색 설정을 변경하고 RAG Advisor 를 교체합니다.
+     *
+     * @param settings 새 검색 설정
+     * @return 적용된 검색 설정 사본
+     * @throws IllegalArgumentException 설정값이 유효하지 않은 경우
+     */
+    public synchronized RagRetrievalProperties updateRetrievalSettings(RagRetrievalProperties settings) {
+        RagRetrievalProperties snapshot = settings.copy();
+        snapshot.validate();
+        current.set(new RagAdvisorState(snapshot, buildRagAdvisor(snapshot)));
+        log.info("RAG Advisor 생성, topK: {}, 유사도 임계값: {}, 질의 확장: {} ({}개, 적응형: {}), 하이브리드: {}",
+                snapshot.getTopK(), snapshot.getSimilarityThreshold(),
+                snapshot.isExpansionEnabled(), snapshot.getNumberOfQueries(), snapshot.isAdaptiveExpansion(),
+                snapshot.isHybridEnabled());
+        return snapshot.copy();
+    }
+
+    private Advisor buildRagAdvisor(RagRetrievalProperties settings) {
+        DocumentRetriever retriever = VectorStoreDocumentRetriever.builder()
+                .similarityThreshold(settings.getSimilarityThreshold())
+                .topK(settings.getTopK())
+                .vectorStore(vectorStore)
+                .build();
+        if (activeDocumentVectorCache.isEnabled()) {
+            retriever = new ExactSearchDocumentRetriever(retriever, activeDocumentVectorCache, embeddingModel,
+                    settings.getTopK(), settings.getSimilarityThreshold(), meterRegistry);
+        }
+        if (settings.isHybridEnabled()) {
+            retriever = new HybridDocumentRetriever(retriever, keywordSearcher, settings.getKeywordTopK(),
+                    settings.getRrfK(), ragRetrievalExecutor, meterRegistry);
+        }
+        ReciprocalRankFusionDocumentJoiner joiner =
+                new ReciprocalRankFusionDocumentJoiner(settings.getRrfK(), settings.getFusedTopK());
+        RetrievalAugmentationAdvisor.Builder builder = RetrievalAugmentationAdvisor.builder()
                 // .queryTransformers(queryTransformer)
-                .queryExpander(multiQueryExpander)
                 .documentPostProcessors(customDocumentProcessor)
-                .queryAugmenter(queryAugmenter)
-                .build();        
+                .queryAugmenter(queryAugmenter);
+
+        if (!settings.isExpansionEnabled()) {
+            return builder.documentRetriever(retriever)
+                    .documentJoiner(joiner)
+                    .taskExecutor(ragRetrievalExecutor)
+                    .build();
+        }
+
+        MultiQueryExpander multiQueryExpander = MultiQueryExpander.builder()
+                .chatClientBuilder(chatClientBuilder)
+                .numberOfQueries(settings.getNumberOfQueries())
+                .includeOriginal(settings.isIncludeOriginal())
+                .build();
+        // Advisor 가 질의를 키로 결과를 모으므로 LLM 이 같은 질의를 반복 생성하면 실패함 -> 중복 제거
+        QueryExpander expander = query -> multiQueryExpander.expand(query).stream().distinct().toList();
+        AdaptiveQueryExpander adaptive = settings.isAdaptiveExpansion()
+                ? new AdaptiveQueryExpander(expander, retriever, settings, meterRegistry)
+                : null;
+
+        if (settings.isSpeculative()) {
+            // 확장/결합은 검색기 내부에서 수행, Advisor 는 단일 질의를 요청 스레드에서 바로 검색
+            return builder.documentRetriever(new SpeculativeDocumentRetriever(retriever, expander, adaptive, joiner,
+                            ragRetrievalExecutor, settings.getExpansionDeadline(), meterRegistry))
+                    .taskExecutor(new SyncTaskExecutor())
+                    .build();
+        }
+        // 적응형 확장 시 원본 질의 검색은 1차 검색 결과를 재사용
+        return builder.documentRetriever(adaptive != null ? adaptive.documentRetriever() : retriever)
+                .queryExpander(adaptive != null ? adaptive : expander)
+                .documentJoiner(joiner)
+                .taskExecutor(ragRetrievalExecutor)
+                .build();
     }
 
-}
\ No newline at end of file
+    private record RagAdvisorState(RagRetrievalProperties settings, Advisor advisor) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.bigteam.aichat.rag.embedding;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 내용 주소 기반 임베딩 캐시
+ * 정규화된 청크 텍스트와 임베딩 모델명의 SHA-256 해시를 키로,
+ * 메모리 LRU -> Postgres -> 실제 임베딩 모델 순으로 조회합니다.
+ * 동일 파일 재업로드나 문서 간 공통 페이지(표지, 면책 조항 등)의 재임베딩을 방지합니다.
+ * 단건 텍스트 임베딩(embed(String))은 벡터 검색 시 질의 임베딩 경로이므로
+ * 청크 캐시를 오염시키지 않도록 별도의 TTL 질의 캐시를 사용합니다.
+ */
+@Slf4j
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final EmbeddingModel delegate;
+    private final PersistentEmbeddingCache persistentCache;
+    private final QueryEmbeddingCache queryCache;
+    private final String defaultModel;
+    private final Map<String, float[]> memoryCache;
+
+    private final Counter memoryHits;
+    private final Counter memoryMisses;
+    private final Counter persistentHits;
+    private final Counter persistentMisses;
+
+    public CachingEmbeddingModel(EmbeddingModel delegate, PersistentEmbeddingCache persistentCache,
+                                 QueryEmbeddingCache queryCache, String defaultModel, int maxMemoryEntries,
+                                 MeterRegistry meterRegistry) {
+        Assert.notNull(delegate, "delegate must not be null");
+        Assert.hasText(defaultModel, "defaultModel must not be empty");
+        this.delegate = delegate;
+        this.persistentCache = persistentCache;
+        this.queryCache = queryCache;
+        this.defaultModel = defaultModel;
+        this.memoryCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > maxMemoryEntries;
+            }
+        };
+
+        this.memoryHits = lookupCounter(meterRegistry, "memory", "hit");
+        this.memoryMisses = lookupCounter(meterRegistry, "memory", "miss");
+        this.persistentHits = lookupCounter(meterRegistry, "postgres", "hit");
+        this.persistentMisses = lookupCounter(meterRegistry, "postgres", "miss");
+        Gauge.builder("rag.embedding.cache.size", memoryCache, this::memorySize)
+                .description("메모리 임베딩 캐시 항목 수")
+                .tag("tier", "memory")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("rag.embedding.cache.requests")
+                .description("임베딩 캐시 조회 수")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+        String model = resolveModel(request);
+
+        // 요청 내 중복 텍스트는 한 번만 임베딩
+        String[] keys = new String[texts.size()];
+        Map<String, float[]> resolved = new LinkedHashMap<>();
+        Map<String, String> missing = new LinkedHashMap<>(); // 캐시 키 -> 원문
+        for (int i = 0; i < texts.size(); i++) {
+            keys[i] = cacheKey(model, texts.get(i));
+            if (resolved.containsKey(keys[i]) || missing.containsKey(keys[i])) {
+                continue;
+            }
+            float[] cached = getFromMemory(keys[i]);
+            if (cached != null) {
+                memoryHits.increment();
+                resolved.put(keys[i], cached);
+            } else {
+                memoryMisses.increment();
+                missing.put(keys[i], texts.get(i));
+            }
+        }
+
+        if (!missing.isEmpty() && persistentCache != null) {
+            Map<String, float[]> stored = persistentCache.findAll(missing.keySet());
+            persistentHits.increment(stored.size());
+            persistentMisses.increment(missing.size() - stored.size());
+            stored.forEach((key, embedding) -> {
+                missing.remove(key);
+                resolved.put(key, embedding);
+                putToMemory(key, embedding);
+            });
+        }
+
+        if (!missing.isEmpty()) {
+            List<String> missingKeys = new ArrayList<>(missing.keySet());
+            EmbeddingResponse response = delegate.call(
+                    new EmbeddingRequest(new ArrayList<>(missing.values()), request.getOptions()));
+            Map<String, float[]> computed = new LinkedHashMap<>();
+            List<Embedding> results = response.getResults();
+            for (int i = 0; i < missingKeys.size(); i++) {
+                computed.put(missingKeys.get(i), results.get(i).getOutput());
+            }
+            computed.forEach(this::putToMemory);
+            resolved.putAll(computed);
+            if (persistentCache != null) {
+                persistentCache.saveAll(model, computed);
+            }
+            log.debug("임베딩 캐시 미스 {}건 임베딩, 요청 {}건", missingKeys.size(), texts.size());
+        }
+
+        List<Embedding> embeddings = new ArrayList<>(texts.size());
+        for (int i = 0; i < keys.length; i++) {
+            embeddings.add(new Embedding(resolved.get(keys[i]), i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    /**
+     * 질의 임베딩 (VectorStore 유사도 검색 경로)
+     * 질의 캐시 미스는 청크 캐시를 거치지 않고 바로 임베딩 모델을 호출합니다.
+     */
+    @Override
+    public float[] embed(String text) {
+        if (queryCache == null) {
+            return EmbeddingModel.super.embed(text);
+        }
+        String key = defaultModel + '\u0000' + normalize(text);
+        return queryCache.get(key, () -> delegate.embed(text));
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        // 문서 임베딩은 청크 캐시 경로
+        return EmbeddingModel.super.embed(document.getText());
+    }
+
+    /**
+     * 청크 텍스트를 정규화합니다. (유니코드 NFC, 공백 통합, 앞뒤 공백 제거)
+     */
+    static String normalize(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC);
+        return WHITESPACE.matcher(normalized).replaceAll(" ").strip();
+    }
+
+    /**
+     * 정규화된 텍스트와 모델명으로 캐시 키를 생성합니다.
+     */
+    static String cacheKey(String model, String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(text).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+
+    private String resolveModel(EmbeddingRequest request) {
+        if (request.getOptions() != null && StringUtils.hasText(request.getOptions().getModel())) {
+            return request.getOptions().getModel();
+        }
+        return defaultModel;
+    }
+
+    private float[] getFromMemory(String key) {
+        synchronized (memoryCache) {
+            return memoryCache.get(key);
+        }
+    }
+
+    private void putToMemory(String key, float[] embedding) {
+        synchronized (memoryCache) {
+            memoryCache.put(key, embedding);
+        }
+    }
+
+    private double memorySize(Map<String, float[]> cache) {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.bigteam.aichat.rag.embedding;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 임베딩 캐시의 Postgres 영속 계층
+ * 캐시 키(정규화 텍스트 + 모델명 해시)별 임베딩을 embedding_cache 테이블에 float4[] 로 보관합니다.
+ * DB 오류는 캐시 미스로 취급하여 임베딩 자체가 실패하지 않도록 합니다.
+ * 보관 정책: 조회 적중 시 last_used_at 을 갱신하고, retention 동안 사용되지 않은 항목은 주기적으로 삭제합니다.
+ * (문서 삭제 후 같은 내용을 다시 올리는 경우에도 재사용되도록 문서 삭제 시점이 아닌 마지막 사용 시점 기준)
+ */
+@Slf4j
+public class PersistentEmbeddingCache {
+
+    private static final String TABLE_NAME = "embedding_cache";
+
+    /**
+     * 적중할 때마다 UPDATE 하지 않도록 last_used_at 갱신 최소 간격 (retention 의 절반을 넘지 않음)
+     */
+    private static final Duration MAX_TOUCH_INTERVAL = Duration.ofDays(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+    private final Duration touchInterval;
+
+    /**
+     * @param jdbcTemplate     JdbcTemplate
+     * @param initializeSchema embedding_cache 테이블/컬럼/인덱스 자동 생성 여부
+     * @param retention        마지막 사용 후 보관 기간 (0 이하이면 삭제하지 않음)
+     */
+    public PersistentEmbeddingCache(JdbcTemplate jdbcTemplate, boolean initializeSchema, Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = retention;
+        Duration halfRetention = retention.dividedBy(2);
+        this.touchInterval = halfRetention.compareTo(MAX_TOUCH_INTERVAL) < 0 ? halfRetention : MAX_TOUCH_INTERVAL;
+        if (initializeSchema) {
+            initializeSchema();
+        }
+    }
+
+    private void initializeSchema() {
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " ("
+                    + "cache_key varchar(64) PRIMARY KEY, "
+                    + "model varchar(255) NOT NULL, "
+                    + "embedding float4[] NOT NULL, "
+                    + "created_at timestamp NOT NULL DEFAULT now(), "
+                    + "last_used_at timestamp NOT NULL DEFAULT now())");
+            // 보관 정책 도입 전 생성된 테이블
+            jdbcTemplate.execute("ALTER TABLE " + TABLE_NAME
+                    + " ADD COLUMN IF NOT EXISTS last_used_at timestamp NOT NULL DEFAULT now()");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + TABLE_NAME + "_last_used_at_idx ON "
+                    + TABLE_NAME + " (last_used_at)");
+        } catch (DataAccessException e) {
+            log.warn("임베딩 캐시 테이블 생성 실패, 영속 캐시 없이 동작합니다.", e);
+        }
+    }
+
+    /**
+     * 캐시 키에 해당하는 임베딩을 조회합니다.
+     *
+     * @param keys 캐시 키 목록
+     * @return 캐시 키 -> 임베딩 (없는 키는 포함되지 않음)
+     */
+    public Map<String, float[]> findAll(Collection<String> keys) {
+        Map<String, float[]> found = new HashMap<>();
+        if (keys.isEmpty()) {
+            return found;
+        }
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "SELECT cache_key, embedding FROM " + TABLE_NAME + " WHERE cache_key = ANY(?)");
+                ps.setArray(1, con.createArrayOf("varchar", keys.toArray()));
+                return ps;
+            }, rs -> {
+                found.put(rs.getString("cache_key"), toFloatArray(rs.getArray("embedding")));
+            });
+        } catch (DataAccessException e) {
+            log.warn("임베딩 캐시 조회 실패, 키 수: {}", keys.size(), e);
+        }
+        touch(found.keySet());
+        return found;
+    }
+
+    /**
+     * 적중한 항목의 last_used_at 을 갱신합니다. touchInterval 안에 이미 갱신된 항목은 건너뜁니다.
+     */
+    private void touch(Collection<String> keys) {
+        if (keys.isEmpty() || !isRetentionEnabled()) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement("UPDATE " + TABLE_NAME
+                        + " SET last_used_at = now() WHERE cache_key = ANY(?)"
+                        + " AND last_used_at < now() - ? * interval '1 second'");
+                ps.setArray(1, con.createArrayOf("varchar", keys.toArray()));
+                ps.setLong(2, touchInterval.toSeconds());
+                return ps;
+            });
+        } catch (DataAccessException e) {
+            log.warn("임베딩 캐시 사용 시각 갱신 실패, 키 수: {}", keys.size(), e);
+        }
+    }
+
+    /**
+     * retention 동안 사용되지 않은 항목을 삭제합니다.
+     *
+     * @return 삭제한 항목 수
+     */
+    @Scheduled(fixedDelayString = "${rag.embedding-cache.retention-sweep-interval:PT6H}",
+            initialDelayString = "${rag.embedding-cache.retention-sweep-interval:PT6H}")
+    public int purgeExpired() {
+        if (!isRetentionEnabled()) {
+            return 0;
+        }
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM " + TABLE_NAME
+                    + " WHERE last_used_at < now() - ? * interval '1 second'", retention.toSeconds());
+            if (deleted > 0) {
+                log.info("오래된 임베딩 캐시 정리, 삭제 수: {}, 보관 기간: {}", deleted, retention);
+            }
+            return deleted;
+        } catch (DataAccessException e) {
+            log.warn("임베딩 캐시 정리 실패", e);
+            return 0;
+        }
+    }
+
+    private boolean isRetentionEnabled() {
+        return !retention.isNegative() && !retention.isZero();
+    }
+
+    /**
+     * 임베딩을 저장합니다. 이미 존재하는 키는 무시합니다.
+     *
+     * @param model      임베딩 모델명
+     * @param embeddings 캐시 키 -> 임베딩
+     */
+    public void saveAll(String model, Map<String, float[]> embeddings) {
+        if (embeddings.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, float[]>> entries = List.copyOf(embeddings.entrySet());
+        try {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO " + TABLE_NAME + " (cache_key, model, embedding) VALUES (?, ?, ?) "
+                            + "ON CONFLICT (cache_key) DO NOTHING",
+                    entries, entries.size(), (ps, entry) -> {
+                        ps.setString(1, entry.getKey());
+                        ps.setString(2, model);
+                        ps.setArray(3, ps.getConnection().createArrayOf("float4", toBoxed(entry.getValue())));
+                    });
+        } catch (DataAccessException e) {
+            log.warn("임베딩 캐시 저장 실패, 항목 수: {}", entries.size(), e);
+        }
+    }
+
+    private static float[] toFloatArray(Array array) throws SQLException {
+        Object[] values = (Object[]) array.getArray();
+        float[] result = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = ((Number) values[i]).floatValue();
+        }
+        return result;
+    }
+
+    private static Float[] toBoxed(float[] values) {
+        Float[] boxed = new Float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return boxed;
+    }
+}
@@ -0,0 +1,124 @@
+package com.bigteam.aichat.rag.embedding;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 질의 임베딩 캐시
+ * RAG 검색 시 반복/유사 질의(대시보드의 고정 질문, 재질문 등)의 임베딩 왕복을 생략합니다.
+ * 최대 항목 수(LRU)와 TTL(저장 시점 기준)로 제한되며, 요청 간에 공유됩니다.
+ */
+public class QueryEmbeddingCache {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+    private long nextPurgeNanos;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    public QueryEmbeddingCache(int maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > QueryEmbeddingCache.this.maxEntries) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.nextPurgeNanos = System.nanoTime() + ttlNanos;
+
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.sizeEvictions = evictionCounter(meterRegistry, "size");
+        this.expiredEvictions = evictionCounter(meterRegistry, "expired");
+        Gauge.builder("rag.embedding.query-cache.size", this, QueryEmbeddingCache::size)
+                .description("질의 임베딩 캐시 항목 수")
+                .register(meterRegistry);
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("rag.embedding.query-cache.requests")
+                .description("질의 임베딩 캐시 조회 수")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter evictionCounter(MeterRegistry registry, String cause) {
+        return Counter.builder("rag.embedding.query-cache.evictions")
+                .description("질의 임베딩 캐시 제거 수")
+                .tag("cause", cause)
+                .register(registry);
+    }
+
+    /**
+     * 캐시된 임베딩을 반환하고, 없거나 만료된 경우 계산하여 저장합니다.
+     * 계산은 잠금 밖에서 수행되므로 같은 질의가 동시에 들어오면 중복 계산될 수 있습니다.
+     *
+     * @param key      캐시 키
+     * @param embedder 캐시 미스 시 임베딩 계산 함수
+     * @return 질의 임베딩
+     */
+    public float[] get(String key, Supplier<float[]> embedder) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (now - entry.expiresAtNanos < 0) {
+                    hits.increment();
+                    return entry.embedding;
+                }
+                entries.remove(key);
+                expiredEvictions.increment();
+            }
+        }
+        misses.increment();
+
+        float[] embedding = embedder.get();
+        synchronized (entries) {
+            purgeExpired(now);
+            entries.put(key, new Entry(embedding, now + ttlNanos));
+        }
+        return embedding;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 만료 항목을 주기적으로(TTL 간격) 일괄 제거합니다. 호출자가 잠금을 보유해야 합니다.
+     */
+    private void purgeExpired(long now) {
+        if (now - nextPurgeNanos < 0) {
+            return;
+        }
+        nextPurgeNanos = now + ttlNanos;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().expiresAtNanos >= 0) {
+                iterator.remove();
+                expiredEvictions.increment();
+            }
+        }
+    }
+
+    private record Entry(float[] embedding, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.bigteam.aichat.rag.module;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.preretrieval.query.expansion.QueryExpander;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+
+import com.bigteam.aichat.rag.vectorstore.KeywordSearcher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 적응형 질의 확장기
+ * 질의 확장은 검색 전에 LLM 왕복을 추가하므로 필요한 경우에만 수행합니다.
+ * - 짧은 질의, 키워드형 질의: 확장 생략 (변형 질의가 오히려 의도를 흐림)
+ * - 하이브리드 검색 시 식별자(코드)가 있는 질의: 확장 생략 (키워드 검색이 찾고, 변형 질의는 식별자를 바꾸기 쉬움)
+ * - 1차 검색(원본 질의) 최고 점수가 임계값 이상: 확장 생략 (이미 충분한 근거 확보)
+ * - 그 외: 위임 확장기(MultiQueryExpander)로 확장
+ * 1차 검색은 Advisor 와 같은 검색기(정확 검색, 하이브리드 검색 포함)로 수행하며,
+ * 1차 검색 결과는 반환하는 원본 질의의 context 에 담아 요청과 함께 전달하고, {@link #documentRetriever()} 가 이를 꺼내 쓰므로
+ * 같은 질의를 두 번 검색하지 않습니다. (확장기 자체는 요청별 상태를 갖지 않음)
+ */
+@Slf4j
+public class AdaptiveQueryExpander implements QueryExpander {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("\\s+");
+    private static final Pattern SENTENCE_ENDING = Pattern.compile(
+            ".*([?？]|(요|까|죠|니|나|다|해|줘|라)[.!]?)$");
+    private static final Set<String> QUESTION_WORDS = Set.of(
+            "what", "why", "how", "when", "where", "who", "which", "can", "does", "is", "are",
+            "무엇", "뭐", "왜", "어떻게", "언제", "어디", "누가", "어떤");
+    /** 원본 질의 context 에 담는 1차 검색 결과 키 */
+    private static final String FIRST_PASS_CONTEXT_KEY = AdaptiveQueryExpander.class.getName() + ".firstPass";
+
+    private final QueryExpander delegate;
+    private final DocumentRetriever retriever;
+    private final int shortQueryMaxWords;
+    private final int keywordQueryMaxWords;
+    private final double confidentScore;
+    private final boolean hybridEnabled;
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary firstPassScore;
+
+    /**
+     * @param delegate  확장이 필요할 때 사용할 확장기
+     * @param retriever Advisor 가 사용하는 검색기 (1차 검색에 그대로 사용)
+     */
+    public AdaptiveQueryExpander(QueryExpander delegate, DocumentRetriever retriever, RagRetrievalProperties settings,
+                                 MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.retriever = retriever;
+        this.shortQueryMaxWords = settings.getShortQueryMaxWords();
+        this.keywordQueryMaxWords = settings.getKeywordQueryMaxWords();
+        this.confidentScore = settings.getConfidentScore();
+        this.hybridEnabled = settings.isHybridEnabled();
+        this.meterRegistry = meterRegistry;
+        this.firstPassScore = DistributionSummary.builder("rag.query.expansion.first-pass.score")
+                .description("질의 확장 판단용 1차 검색 최고 유사도 점수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<Query> expand(Query query) {
+        Optional<String> skipReason = textSkipReason(query.text());
+        if (skipReason.isPresent()) {
+            return skip(query, skipReason.get());
+        }
+
+        List<Document> firstPass = retriever.retrieve(query);
+        if (isConfident(firstPass)) {
+            recordDecision("skip", "confident");
+            return List.of(withFirstPass(query, firstPass));
+        }
+
+        recordDecision("expand", "low_score");
+        // 확장 결과에 원본 질의가 포함되면(includeOriginal) 원본 질의 검색도 1차 검색 결과로 대신함
+        return delegate.expand(query).stream()
+                .map(expanded -> expanded.equals(query) ? withFirstPass(query, firstPass) : expanded)
+                .toList();
+    }
+
+    /**
+     * Advisor 에 설정할 검색기
+     * {@link #expand(Query)} 가 context 에 1차 검색 결과를 담은 원본 질의는 그 결과를 반환하고, 그 밖의 질의는 검색기로 검색합니다.
+     */
+    public DocumentRetriever documentRetriever() {
+        return query -> query.context().get(FIRST_PASS_CONTEXT_KEY) instanceof FirstPass firstPass
+                ? firstPass.documents()
+                : retriever.retrieve(query);
+    }
+
+    private static Query withFirstPass(Query query, List<Document> firstPass) {
+        Map<String, Object> context = new HashMap<>(query.context());
+        context.put(FIRST_PASS_CONTEXT_KEY, new FirstPass(firstPass));
+        return query.mutate().context(context).build();
+    }
+
+    /**
+     * 검색 없이 질의 텍스트만으로 확장 생략 여부를 판단합니다.
+     *
+     * @param text 질의
+     * @return 생략 사유 (short, identifier, keyword), 확장이 필요하면 empty
+     */
+    public Optional<String> textSkipReason(String text) {
+        String stripped = text.strip();
+        String[] words = WORD_SEPARATOR.split(stripped);
+        if (words.length <= shortQueryMaxWords) {
+            return Optional.of("short");
+        }
+        if (hybridEnabled && !KeywordSearcher.KeywordQuery.identifiers(stripped).isEmpty()) {
+            return Optional.of("identifier");
+        }
+        if (words.length <= keywordQueryMaxWords && isKeywordLike(stripped, words)) {
+            return Optional.of("keyword");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 원본 질의 검색 결과의 최고 점수가 확장 생략 임계값 이상인지 판단합니다.
+     *
+     * @param firstPass 원본 질의 검색 결과
+     * @return 확장 없이 충분한지 여부
+     */
+    public boolean isConfident(List<Document> firstPass) {
+        double topScore = firstPass.stream()
+                .map(Document::getScore)
+                .filter(score -> score != null)
+                .mapToDouble(Double::doubleValue)
+                .max()
+                .orElse(0.0);
+        firstPassScore.record(topScore);
+        log.debug("1차 검색 최고 점수: {}", topScore);
+        return topScore >= confidentScore;
+    }
+
+    /**
+     * 질문 형태(물음표, 의문사, 서술형 어미)가 없는 질의를 키워드형으로 판단합니다.
+     */
+    static boolean isKeywordLike(String text, String[] words) {
+        if (SENTENCE_ENDING.matcher(text).matches()) {
+            return false;
+        }
+        for (String word : words) {
+            if (QUESTION_WORDS.contains(word.toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 원본 질의 context 로 전달하는 1차 검색 결과 (로그에 문서 전체가 찍히지 않도록 건수만 표시)
+     */
+    private record FirstPass(List<Document> documents) {
+
+        @Override
+        public String toString() {
+            return "FirstPass[" + documents.size() + "]";
+        }
+    }
+
+    private List<Query> skip(Query query, String reason) {
+        recordDecision("skip", reason);
+        return List.of(query);
+    }
+
+    /**
+     * 질의 확장 판단 결과를 기록합니다.
+     *
+     * @param decision expand, skip
+     * @param reason   판단 사유
+     */
+    public void recordDecision(String decision, String reason) {
+        log.debug("질의 확장 판단: {}, 사유: {}", decision, reason);
+        Counter.builder("rag.query.expansion.decisions")
+                .description("질의 확장 판단 결과")
+                .tag("decision", decision)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,35 @@
+package com.bigteam.aichat.rag.module;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * RAG 컨텍스트 토큰 예산 설정 (rag.context)
+ * 작은 컨텍스트 모델은 프롬프트가 길수록 prefill 지연이 크게 늘어나므로 모델별로 예산을 지정합니다.
+ */
+@ConfigurationProperties(prefix = "rag.context")
+@Getter
+@Setter
+public class ContextPackingProperties {
+
+    /** 모델별 예산이 없을 때 사용할 컨텍스트 토큰 예산 */
+    private int defaultTokenBudget = 2048;
+
+    /** 모델명 -> 컨텍스트 토큰 예산 */
+    private Map<String, Integer> modelTokenBudgets = new HashMap<>();
+
+    /** 남은 예산이 이 값보다 작으면 마지막 문서를 잘라 넣지 않음 */
+    private int minTruncatedTokens = 64;
+
+    public int tokenBudget(String model) {
+        if (model == null) {
+            return defaultTokenBudget;
+        }
+        return modelTokenBudgets.getOrDefault(model, defaultTokenBudget);
+    }
+}
@@ -1,22 +1,56 @@
 package com.bigteam.aichat.rag.module;
 
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.postretrieval.document.DocumentPostProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * 검색 문서 후처리기
+ * 청크 본문의 지문(fingerprint)으로 완전 중복을, SimHash 해밍 거리로 근사 중복(겹치는 청크 등)을 제거하고
+ * 유사도 점수 상위 maxDocuments 개만 선택합니다. (전체 정렬 대신 크기 k 의 힙 사용)
+ * 중복 문서 중에서는 유사도 점수가 높은 문서를 유지합니다.
+ */
 @Slf4j
 @Component
 public class CustomDocumentProcessor implements DocumentPostProcessor {
 
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int maxDocuments;
+    private final int nearDuplicateDistance;
+    private final int shingleSize;
+
+    @Autowired
+    public CustomDocumentProcessor(
+            @Value("${rag.post-processing.max-documents:8}") int maxDocuments,
+            @Value("${rag.post-processing.near-duplicate-distance:8}") int nearDuplicateDistance,
+            @Value("${rag.post-processing.shingle-size:3}") int shingleSize) {
+        this.maxDocuments = maxDocuments;
+        this.nearDuplicateDistance = nearDuplicateDistance;
+        this.shingleSize = shingleSize;
+    }
+
+    /**
+     * 기본 설정 (최대 8개, 해밍 거리 8 이하 근사 중복, 3-단어 shingle)
+     */
+    public CustomDocumentProcessor() {
+        this(8, 8, 3);
+    }
+
     @Override
     public List<Document> process(Query query, List<Document> documents) {
 
@@ -28,21 +62,121 @@ public class CustomDocumentProcessor implements DocumentPostProcessor {
                     doc.getScore());
         });
 
-        // 중복 내용 제거 및 정렬
-        Map<String, Document> uniqueContentMap = new HashMap<>();
+        // 유사도 점수 최저 문서가 head 인 크기 maxDocuments 의 힙
+        PriorityQueue<Candidate> kept = new PriorityQueue<>(maxDocuments + 1, Candidate.BY_SCORE);
         for (Document doc : documents) {
-            String content = doc.getFormattedContent();
-            // 기존 문서보다 유사도 점수가 높은 경우만 교체
-            if (!uniqueContentMap.containsKey(content) ||
-                    doc.getScore() > uniqueContentMap.get(content).getScore()) {
-                uniqueContentMap.put(content, doc);
+            Candidate candidate = fingerprint(doc);
+            if (kept.size() == maxDocuments && Candidate.BY_SCORE.compare(candidate, kept.peek()) <= 0) {
+                continue;
+            }
+            if (!replaceDuplicates(kept, candidate)) {
+                continue;
+            }
+            kept.add(candidate);
+            if (kept.size() > maxDocuments) {
+                kept.poll();
+            }
+        }
+
+        // 유사도 점수 기준 내림차순 정렬 (k 개만 정렬)
+        List<Candidate> result = new ArrayList<>(kept);
+        result.sort(Candidate.BY_SCORE.reversed());
+        if (result.size() < documents.size()) {
+            log.debug("중복/하위 문서 제거: {} -> {}", documents.size(), result.size());
+        }
+        return result.stream().map(Candidate::document).toList();
+    }
+
+    /**
+     * 후보와 중복인 유지 문서를 찾아, 후보가 더 높은 점수면 교체합니다.
+     *
+     * @return 후보를 추가해야 하면 true
+     */
+    private boolean replaceDuplicates(PriorityQueue<Candidate> kept, Candidate candidate) {
+        List<Candidate> duplicates = new ArrayList<>();
+        for (Candidate other : kept) {
+            if (isDuplicate(candidate, other)) {
+                if (Candidate.BY_SCORE.compare(other, candidate) >= 0) {
+                    return false;
+                }
+                duplicates.add(other);
             }
         }
+        duplicates.forEach(kept::remove);
+        return true;
+    }
 
-        // 유사도 점수 기준 내림차순 정렬
-        return uniqueContentMap.values().stream()
-                .sorted(Comparator.comparing(Document::getScore).reversed())
-                .collect(Collectors.toList());
+    private boolean isDuplicate(Candidate a, Candidate b) {
+        if (a.fingerprint() == b.fingerprint()) {
+            return true;
+        }
+        return nearDuplicateDistance >= 0 && Long.bitCount(a.simHash() ^ b.simHash()) <= nearDuplicateDistance;
     }
 
+    /**
+     * 메타데이터를 제외한 본문으로 지문과 SimHash 를 계산합니다.
+     * 대소문자, 문장부호, 공백 차이는 무시합니다.
+     */
+    Candidate fingerprint(Document doc) {
+        String text = doc.getText() == null ? "" : doc.getText().toLowerCase(Locale.ROOT);
+        String[] tokens = NON_WORD.split(text.strip());
+
+        long fingerprint = FNV_OFFSET;
+        for (String token : tokens) {
+            fingerprint = fnv(fingerprint, token);
+            fingerprint = (fingerprint ^ ' ') * FNV_PRIME;
+        }
+        return new Candidate(doc, score(doc), fingerprint, simHash(tokens));
+    }
+
+    private long simHash(String[] tokens) {
+        int[] weights = new int[64];
+        int shingles = Math.max(1, tokens.length - shingleSize + 1);
+        for (int i = 0; i < shingles; i++) {
+            long hash = FNV_OFFSET;
+            for (int j = i; j < Math.min(tokens.length, i + shingleSize); j++) {
+                hash = fnv(hash, tokens[j]);
+                hash = (hash ^ ' ') * FNV_PRIME;
+            }
+            hash = mix(hash);
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((hash >>> bit) & 1L) == 1L ? 1 : -1;
+            }
+        }
+        long simHash = 0L;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                simHash |= 1L << bit;
+            }
+        }
+        return simHash;
+    }
+
+    private static long fnv(long hash, String token) {
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * FNV 하위 비트 편향 보정 (SimHash 는 모든 비트가 고르게 분포해야 함)
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static double score(Document doc) {
+        return doc.getScore() != null ? doc.getScore() : 0.0;
+    }
+
+    record Candidate(Document document, double score, long fingerprint, long simHash) {
+        static final Comparator<Candidate> BY_SCORE = Comparator.comparingDouble(Candidate::score);
+    }
 }
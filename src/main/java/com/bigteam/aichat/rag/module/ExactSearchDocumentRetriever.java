@@ -0,0 +1,126 @@
+package com.bigteam.aichat.rag.module;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import com.bigteam.aichat.rag.vectorstore.ActiveDocumentVectorCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 활성 문서 정확 검색기
+ * 필터가 "user_id == X && document_id in [...]" 형태(ChatService 의 활성 문서 필터)이고 활성 문서의 청크가 적으면
+ * {@link ActiveDocumentVectorCache} 에서 정확한 코사인 top-k 를 계산합니다.
+ * 청크가 적을 때는 근사(HNSW) 검색 + 필터보다 빠르고 재현율 손실이 없습니다.
+ * 다른 조건이 섞인 필터나 청크가 많은 경우는 벡터 저장소 검색기로 넘깁니다.
+ */
+@Slf4j
+public class ExactSearchDocumentRetriever implements DocumentRetriever {
+
+    private final DocumentRetriever delegate;
+    private final ActiveDocumentVectorCache cache;
+    private final EmbeddingModel embeddingModel;
+    private final int topK;
+    private final double similarityThreshold;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param delegate 정확 검색 대상이 아닐 때 사용할 검색기 (같은 topK, 임계값)
+     */
+    public ExactSearchDocumentRetriever(DocumentRetriever delegate, ActiveDocumentVectorCache cache,
+                                        EmbeddingModel embeddingModel, int topK, double similarityThreshold,
+                                        MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.embeddingModel = embeddingModel;
+        this.topK = topK;
+        this.similarityThreshold = similarityThreshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<Document> retrieve(Query query) {
+        Optional<ActiveDocuments> active = activeDocuments(QueryFilters.filterExpression(query));
+        if (active.isPresent()) {
+            Optional<List<Document>> exact = cache.search(active.get().userId(), active.get().documentIds(),
+                    embeddingModel.embed(query.text()), topK, similarityThreshold);
+            if (exact.isPresent()) {
+                meterRegistry.counter("rag.retrieval.search", "path", "exact").increment();
+                return exact.get();
+            }
+        }
+        meterRegistry.counter("rag.retrieval.search", "path", "vector_store").increment();
+        return delegate.retrieve(query);
+    }
+
+    /**
+     * AND 로만 연결된 user_id == X, document_id in [...] (또는 ==) 조건만 있는 필터에서 값을 꺼냅니다.
+     * 그 밖의 조건이 있으면 정확 검색 결과가 필터와 달라지므로 empty 를 반환합니다.
+     */
+    static Optional<ActiveDocuments> activeDocuments(Filter.Expression expression) {
+        if (expression == null) {
+            return Optional.empty();
+        }
+        ActiveDocuments.Collector collector = new ActiveDocuments.Collector();
+        if (!collector.collect(expression) || collector.userId == null || collector.documentIds == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new ActiveDocuments(collector.userId, collector.documentIds));
+    }
+
+    /**
+     * @param userId      사용자 ID
+     * @param documentIds 활성 문서 ID
+     */
+    record ActiveDocuments(String userId, List<Long> documentIds) {
+
+        private static class Collector {
+            private String userId;
+            private List<Long> documentIds;
+
+            boolean collect(Filter.Operand operand) {
+                if (operand instanceof Filter.Group group) {
+                    return collect(group.content());
+                }
+                if (!(operand instanceof Filter.Expression expression)) {
+                    return false;
+                }
+                if (expression.type() == Filter.ExpressionType.AND) {
+                    return collect(expression.left()) && collect(expression.right());
+                }
+                if (!(expression.left() instanceof Filter.Key key) || !(expression.right() instanceof Filter.Value value)
+                        || value.value() == null) {
+                    return false;
+                }
+                String name = key.key().replace("\"", "").replace("'", "");
+                if ("user_id".equals(name) && expression.type() == Filter.ExpressionType.EQ && userId == null) {
+                    userId = String.valueOf(value.value());
+                    return true;
+                }
+                if ("document_id".equals(name) && documentIds == null
+                        && (expression.type() == Filter.ExpressionType.IN || expression.type() == Filter.ExpressionType.EQ)) {
+                    List<?> values = value.value() instanceof List<?> list ? list : List.of(value.value());
+                    List<Long> ids = new ArrayList<>(values.size());
+                    for (Object id : values) {
+                        try {
+                            ids.add(id instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(id).trim()));
+                        } catch (NumberFormatException e) {
+                            return false;
+                        }
+                    }
+                    documentIds = ids;
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.bigteam.aichat.rag.module;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+
+import com.bigteam.aichat.rag.vectorstore.KeywordSearcher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 하이브리드(키워드 + 벡터) 문서 검색기
+ * 벡터 검색과 {@link KeywordSearcher} 키워드 검색을 동시에 수행하고 두 결과를 RRF 순위로 결합합니다.
+ * 유사도 임계값에 걸린 식별자/코드 질의도 본문 일치로 찾을 수 있습니다.
+ * 결합 순서만 정하고 score 는 원래 유사도(키워드로만 찾은 청크는 null)를 유지하므로,
+ * 확장 질의 결합기(ReciprocalRankFusionDocumentJoiner)가 순위로 다시 결합해도 vector_score 가 보존됩니다.
+ * 키워드 검색은 공유 풀에 제출하되, 벡터 검색이 끝날 때까지 시작되지 않았으면 호출 스레드에서 직접 수행합니다.
+ * (확장 질의 검색처럼 풀 스레드에서 호출되어도 풀 내부 대기로 막히지 않음)
+ */
+@Slf4j
+public class HybridDocumentRetriever implements DocumentRetriever {
+
+    private final DocumentRetriever vectorRetriever;
+    private final KeywordSearcher keywordSearcher;
+    private final int keywordTopK;
+    private final int rrfK;
+    private final Executor executor;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param vectorRetriever 벡터 검색기 (유사도 임계값 적용)
+     * @param keywordTopK     키워드 검색 최대 결과 수
+     * @param rrfK            결합(RRF) 상수
+     * @param executor        키워드 검색용 풀
+     */
+    public HybridDocumentRetriever(DocumentRetriever vectorRetriever, KeywordSearcher keywordSearcher,
+                                   int keywordTopK, int rrfK, Executor executor, MeterRegistry meterRegistry) {
+        this.vectorRetriever = vectorRetriever;
+        this.keywordSearcher = keywordSearcher;
+        this.keywordTopK = keywordTopK;
+        this.rrfK = rrfK;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<Document> retrieve(Query query) {
+        AtomicBoolean claimed = new AtomicBoolean();
+        CompletableFuture<List<Document>> keyword = CompletableFuture.supplyAsync(
+                () -> claimed.compareAndSet(false, true) ? keywordSearch(query) : null, executor);
+
+        List<Document> vectorResults = vectorRetriever.retrieve(query);
+        List<Document> keywordResults = claimed.compareAndSet(false, true) ? keywordSearch(query) : keyword.join();
+        return fuse(vectorResults, keywordResults);
+    }
+
+    private List<Document> keywordSearch(Query query) {
+        try {
+            return keywordSearcher.search(query.text(), QueryFilters.filterExpression(query), keywordTopK);
+        } catch (Exception e) {
+            // 키워드 검색 실패는 벡터 검색 결과만으로 진행
+            log.warn("키워드 검색 실패, 벡터 검색 결과만 사용합니다.", e);
+            return List.of();
+        }
+    }
+
+    /**
+     * 두 결과 목록을 RRF 점수 순으로 결합합니다. (동점 시 유사도 점수, 문서 ID 순)
+     * 두 목록에 모두 있는 청크는 유사도 점수가 있는 벡터 검색 결과를 사용합니다.
+     */
+    List<Document> fuse(List<Document> vectorResults, List<Document> keywordResults) {
+        Map<String, Document> documents = new LinkedHashMap<>();
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (int rank = 0; rank < vectorResults.size(); rank++) {
+            Document document = vectorResults.get(rank);
+            documents.putIfAbsent(document.getId(), document);
+            scores.merge(document.getId(), 1.0 / (rrfK + rank + 1), Double::sum);
+        }
+        int keywordOnly = 0;
+        for (int rank = 0; rank < keywordResults.size(); rank++) {
+            Document document = keywordResults.get(rank);
+            if (documents.putIfAbsent(document.getId(), document) == null) {
+                keywordOnly++;
+            }
+            scores.merge(document.getId(), 1.0 / (rrfK + rank + 1), Double::sum);
+        }
+        meterRegistry.counter("rag.retrieval.keyword.only").increment(keywordOnly);
+
+        List<Document> fused = new ArrayList<>(documents.values());
+        fused.sort(Comparator.comparingDouble((Document document) -> scores.get(document.getId())).reversed()
+                .thenComparing(Comparator.comparingDouble(
+                        (Document document) -> document.getScore() != null ? document.getScore() : 0.0).reversed())
+                .thenComparing(Document::getId));
+        return fused;
+    }
+}
@@ -0,0 +1,33 @@
+package com.bigteam.aichat.rag.module;
+
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.retrieval.search.VectorStoreDocumentRetriever;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
+import org.springframework.util.StringUtils;
+
+/**
+ * 검색 질의의 advisor param 필터 해석
+ * VectorStoreDocumentRetriever 를 감싸는 검색기가 같은 필터로 검색하도록 같은 방식으로 해석합니다.
+ */
+final class QueryFilters {
+
+    private QueryFilters() {
+    }
+
+    /**
+     * VectorStoreDocumentRetriever 와 동일하게 advisor param 의 필터를 사용합니다.
+     *
+     * @return 필터 (Filter.Expression 또는 필터 문자열), 없으면 null
+     */
+    static Filter.Expression filterExpression(Query query) {
+        Object filter = query.context().get(VectorStoreDocumentRetriever.FILTER_EXPRESSION);
+        if (filter instanceof Filter.Expression expression) {
+            return expression;
+        }
+        if (filter != null && StringUtils.hasText(filter.toString())) {
+            return new FilterExpressionTextParser().parse(filter.toString());
+        }
+        return null;
+    }
+}
@@ -3,23 +3,27 @@ package com.bigteam.aichat.rag.module;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.rag.generation.augmentation.ContextualQueryAugmenter;
 import org.springframework.ai.rag.generation.augmentation.QueryAugmenter;
-import org.springframework.ai.rag.preretrieval.query.expansion.MultiQueryExpander;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import lombok.extern.slf4j.Slf4j;
 
 
 @Slf4j
 @Configuration
+@EnableConfigurationProperties({RagRetrievalProperties.class, ContextPackingProperties.class})
 public class RagModuleConfig {
 
 
@@ -37,28 +41,42 @@ public class RagModuleConfig {
     //             .build();
     // }
 
-    @Bean
-    MultiQueryExpander queryExpander(ChatClient.Builder chatClientBuilder) {
-        log.info("MultiQueryExpander 생성...");
-        return MultiQueryExpander.builder()
-                .chatClientBuilder(chatClientBuilder)
-                .numberOfQueries(3)
-                .build();
+    /**
+     * 확장 질의 병렬 검색용 공유 풀
+     * RetrievalAugmentationAdvisor 는 지정하지 않으면 생성할 때마다 새 풀을 만들고 종료하지 않습니다.
+     * 큐가 가득 차면 요청 스레드에서 직접 검색하여(순차 처리) 요청이 실패하지 않도록 합니다.
+     */
+    @Bean(name = "ragRetrievalExecutor")
+    ThreadPoolTaskExecutor ragRetrievalExecutor(
+            @Value("${rag.retrieval-executor.pool-size:8}") int poolSize,
+            @Value("${rag.retrieval-executor.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("rag-retrieval-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
     }
 
     @Bean
-    QueryAugmenter queryAugmenter() {
+    QueryAugmenter queryAugmenter(ContextPackingProperties contextPackingProperties) {
         log.info("ContextualQueryAugmenter 생성...");
-        return ContextualQueryAugmenter.builder()
+        QueryAugmenter contextualQueryAugmenter = ContextualQueryAugmenter.builder()
                 .documentFormatter(this::formatDocuments)
                 .promptTemplate(new PromptTemplate(ragPrompt))
                 .allowEmptyContext(true)
                 .build();
+        // 모델별 컨텍스트 토큰 예산 적용
+        return new TokenBudgetQueryAugmenter(contextualQueryAugmenter, this::formatDocuments,
+                new JTokkitTokenCountEstimator(), contextPackingProperties);
     }
     
     /**
      * 문서 리스트를 포맷팅하여 문자열로 변환합니다.
-     * 각 문서에 대해 파일명, 페이지 번호(있는 경우), 정제된 내용을 포함합니다.
+     * 각 문서에 대해 파일명, 페이지 번호(있는 경우), 내용을 포함합니다.
+     * 내용은 적재 시 정규화된 텍스트를 그대로 사용합니다.
      * 
      * @param documents 포맷팅할 문서 리스트
      * @return 포맷팅된 문서 문자열
@@ -76,9 +94,7 @@ public class RagModuleConfig {
                     .map(Object::toString)
                     .orElse(null);
           
-           String cleanedText = Optional.ofNullable(doc.getText())
-                    .map(text -> text.replaceAll("\\s+", " ").trim())
-                    .orElse("");
+            String text = Optional.ofNullable(doc.getText()).orElse("");
             
             result.append("[file_name]: ").append(fileName).append("\n");
             
@@ -86,7 +102,7 @@ public class RagModuleConfig {
                 result.append("[page_number]: ").append(pageNumber).append("\n");
             }
             
-            result.append("[content]: ").append(cleanedText).append("\n\n");
+            result.append("[content]: ").append(text).append("\n\n");
         }
         return result.toString().trim();
     }
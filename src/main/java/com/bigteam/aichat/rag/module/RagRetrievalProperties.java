@@ -0,0 +1,104 @@
+package com.bigteam.aichat.rag.module;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * RAG 검색 설정 (rag.retrieval)
+ * 애플리케이션 설정값이 초기값이며, 실행 중 변경 시 RAG Advisor 가 재생성되어 교체됩니다.
+ */
+@ConfigurationProperties(prefix = "rag.retrieval")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class RagRetrievalProperties {
+
+    /** 질의당 검색 문서 수 */
+    private int topK = 5;
+
+    /** 유사도 임계값 (0.0 ~ 1.0) */
+    private double similarityThreshold = 0.5;
+
+    /** 질의 확장(MultiQueryExpander) 사용 여부 */
+    private boolean expansionEnabled = true;
+
+    /** 질의 확장 시 생성할 질의 수 */
+    private int numberOfQueries = 3;
+
+    /** 질의 확장 시 원본 질의 포함 여부 */
+    private boolean includeOriginal = true;
+
+    /** 적응형 질의 확장 사용 여부 (false 면 항상 확장) */
+    private boolean adaptiveExpansion = true;
+
+    /** 이 단어 수 이하의 질의는 확장하지 않음 */
+    private int shortQueryMaxWords = 3;
+
+    /** 이 단어 수 이하의 키워드형(질문 형태가 아닌) 질의는 확장하지 않음 */
+    private int keywordQueryMaxWords = 6;
+
+    /** 1차 검색 최고 점수가 이 값 이상이면 확장하지 않음 */
+    private double confidentScore = 0.75;
+
+    /** 확장 질의 결과 결합(RRF) 상수 */
+    private int rrfK = 60;
+
+    /** 결합 후 컨텍스트에 사용할 최대 문서 수 */
+    private int fusedTopK = 8;
+
+    /** 질의 확장과 원본 질의 검색을 동시에 수행하고, 마감 시간 내 확장 결과만 결합 */
+    private boolean speculative = true;
+
+    /** 추측 실행 시 확장 결과 수용 마감 시간 (검색 시작 시점 기준) */
+    private Duration expansionDeadline = Duration.ofMillis(1500);
+
+    /** 하이브리드 검색 (벡터 검색 + content 키워드 검색 결과를 RRF 로 결합) 사용 여부 */
+    private boolean hybridEnabled = true;
+
+    /** 하이브리드 검색 시 키워드 검색 문서 수 */
+    private int keywordTopK = 5;
+
+    public RagRetrievalProperties copy() {
+        return new RagRetrievalProperties(topK, similarityThreshold, expansionEnabled, numberOfQueries, includeOriginal,
+                adaptiveExpansion, shortQueryMaxWords, keywordQueryMaxWords, confidentScore, rrfK, fusedTopK,
+                speculative, expansionDeadline, hybridEnabled, keywordTopK);
+    }
+
+    /**
+     * 설정값 검증
+     * @throws IllegalArgumentException 범위를 벗어난 값이 있는 경우
+     */
+    public void validate() {
+        if (topK < 1) {
+            throw new IllegalArgumentException("topK 는 1 이상이어야 합니다.");
+        }
+        if (similarityThreshold < 0.0 || similarityThreshold > 1.0) {
+            throw new IllegalArgumentException("similarityThreshold 는 0.0 ~ 1.0 이어야 합니다.");
+        }
+        if (numberOfQueries < 1) {
+            throw new IllegalArgumentException("numberOfQueries 는 1 이상이어야 합니다.");
+        }
+        if (shortQueryMaxWords < 0 || keywordQueryMaxWords < 0) {
+            throw new IllegalArgumentException("shortQueryMaxWords, keywordQueryMaxWords 는 0 이상이어야 합니다.");
+        }
+        if (confidentScore < 0.0 || confidentScore > 1.0) {
+            throw new IllegalArgumentException("confidentScore 는 0.0 ~ 1.0 이어야 합니다.");
+        }
+        if (rrfK < 1 || fusedTopK < 1) {
+            throw new IllegalArgumentException("rrfK, fusedTopK 는 1 이상이어야 합니다.");
+        }
+        if (keywordTopK < 1) {
+            throw new IllegalArgumentException("keywordTopK 는 1 이상이어야 합니다.");
+        }
+        if (expansionDeadline == null || expansionDeadline.isNegative()) {
+            throw new IllegalArgumentException("expansionDeadline 은 0 이상이어야 합니다.");
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.bigteam.aichat.rag.module;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.retrieval.join.DocumentJoiner;
+import org.springframework.util.Assert;
+
+/**
+ * Reciprocal Rank Fusion 문서 결합기
+ * 확장 질의별 검색 결과를 단순 연결하지 않고, 각 결과 목록에서의 순위로 점수를 합산합니다.
+ * fused(d) = Σ 1 / (k + rank_q(d))
+ * 여러 질의에서 공통으로 상위에 오른 문서가 앞에 오며, 결과 순서는 질의 맵의 순회 순서와 무관합니다.
+ * (동점 시 최고 유사도 점수, 문서 ID 순)
+ * 결합된 문서의 score 는 RRF 점수이며, 원래 유사도 점수 중 최고값은 메타데이터(vector_score)에 보관합니다.
+ */
+public class ReciprocalRankFusionDocumentJoiner implements DocumentJoiner {
+
+    public static final String VECTOR_SCORE_METADATA_KEY = "vector_score";
+
+    /** 일반적으로 사용되는 RRF 상수 */
+    public static final int DEFAULT_K = 60;
+
+    private final int k;
+    private final int topK;
+
+    /**
+     * @param k    RRF 상수 (클수록 하위 순위의 기여가 상대적으로 커짐)
+     * @param topK 결합 후 반환할 최대 문서 수
+     */
+    public ReciprocalRankFusionDocumentJoiner(int k, int topK) {
+        Assert.isTrue(k > 0, "k must be positive");
+        Assert.isTrue(topK > 0, "topK must be positive");
+        this.k = k;
+        this.topK = topK;
+    }
+
+    @Override
+    public List<Document> join(Map<Query, List<List<Document>>> documentsForQuery) {
+        Assert.notNull(documentsForQuery, "documentsForQuery cannot be null");
+
+        Map<String, Fused> fused = new HashMap<>();
+        for (List<List<Document>> resultLists : documentsForQuery.values()) {
+            for (List<Document> results : resultLists) {
+                for (int rank = 0; rank < results.size(); rank++) {
+                    Document document = results.get(rank);
+                    fused.computeIfAbsent(document.getId(), id -> new Fused(document))
+                            .add(document, 1.0 / (k + rank + 1));
+                }
+            }
+        }
+
+        List<Fused> ranked = new ArrayList<>(fused.values());
+        ranked.sort(Comparator.comparingDouble(Fused::score).reversed()
+                .thenComparing(Comparator.comparingDouble(Fused::bestVectorScore).reversed())
+                .thenComparing(Fused::id));
+
+        return ranked.stream()
+                .limit(topK)
+                .map(Fused::toDocument)
+                .toList();
+    }
+
+    private static final class Fused {
+        private Document best;
+        private double score;
+        private double bestVectorScore = Double.NEGATIVE_INFINITY;
+
+        Fused(Document document) {
+            this.best = document;
+        }
+
+        void add(Document document, double contribution) {
+            score += contribution;
+            double vectorScore = document.getScore() != null ? document.getScore() : 0.0;
+            if (vectorScore > bestVectorScore) {
+                bestVectorScore = vectorScore;
+                best = document;
+            }
+        }
+
+        double score() {
+            return score;
+        }
+
+        double bestVectorScore() {
+            return bestVectorScore;
+        }
+
+        String id() {
+            return best.getId();
+        }
+
+        Document toDocument() {
+            Map<String, Object> metadata = new HashMap<>(best.getMetadata());
+            metadata.put(VECTOR_SCORE_METADATA_KEY, bestVectorScore);
+            return best.mutate().metadata(metadata).score(score).build();
+        }
+    }
+}
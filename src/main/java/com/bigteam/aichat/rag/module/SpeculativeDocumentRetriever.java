@@ -0,0 +1,164 @@
+package com.bigteam.aichat.rag.module;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.preretrieval.query.expansion.QueryExpander;
+import org.springframework.ai.rag.retrieval.join.DocumentJoiner;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 추측 실행(speculative) 문서 검색기
+ * 질의 확장(LLM 호출)과 원본 질의 검색을 동시에 시작하여, 확장이 끝날 때까지 검색을 미루지 않습니다.
+ * - 원본 질의 검색은 요청 스레드에서 수행하고, 확장 및 확장 질의 검색은 공유 풀에서 수행합니다. (풀 내부 대기 없음)
+ * - 확장 질의 결과는 시작 시점 기준 마감 시간 안에 도착한 것만 원본 결과와 결합합니다.
+ * - 확장이 느리거나 실패하면 원본 질의 결과만으로 응답을 진행합니다.
+ * - 적응형 판단 시 텍스트만으로 생략할 질의(짧은/키워드형/식별자)는 확장을 시작하지 않고,
+ *   그 밖의 질의는 확장과 원본 검색을 동시에 시작한 뒤 원본 결과를 1차 검색으로 사용합니다.
+ *   점수가 충분하면 확장을 취소하고 결과를 기다리지 않습니다. 풀에서 아직 시작되지 않은 확장은 실행되지 않지만,
+ *   이미 시작된 LLM 생성은 중단되지 않고 끝난 뒤 버려집니다. (점수가 충분한 질의의 생성 비용 대신 확장 대기 시간을 줄임)
+ * 마감 시간을 넘긴 확장 요청은 중단되지 않고 백그라운드에서 완료된 뒤 버려집니다.
+ */
+@Slf4j
+public class SpeculativeDocumentRetriever implements DocumentRetriever {
+
+    private final DocumentRetriever retriever;
+    private final QueryExpander expander;
+    private final AdaptiveQueryExpander adaptive;
+    private final DocumentJoiner joiner;
+    private final Executor executor;
+    private final long deadlineNanos;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param retriever 질의별 검색기
+     * @param expander  질의 확장기 (원본 질의 포함 여부와 관계없이 원본 결과는 항상 포함)
+     * @param adaptive  확장 생략 판단기, null 이면 항상 확장
+     * @param joiner    원본 + 확장 질의 결과 결합기
+     * @param executor  확장 및 확장 질의 검색용 풀
+     * @param deadline  시작 시점 기준 확장 결과 수용 마감 시간
+     */
+    public SpeculativeDocumentRetriever(DocumentRetriever retriever, QueryExpander expander,
+                                        AdaptiveQueryExpander adaptive, DocumentJoiner joiner,
+                                        Executor executor, Duration deadline, MeterRegistry meterRegistry) {
+        this.retriever = retriever;
+        this.expander = expander;
+        this.adaptive = adaptive;
+        this.joiner = joiner;
+        this.executor = executor;
+        this.deadlineNanos = deadline.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<Document> retrieve(Query query) {
+        long deadline = System.nanoTime() + deadlineNanos;
+
+        if (adaptive != null) {
+            Optional<String> skipReason = adaptive.textSkipReason(query.text());
+            if (skipReason.isPresent()) {
+                adaptive.recordDecision("skip", skipReason.get());
+                return join(query, retriever.retrieve(query), Map.of());
+            }
+        }
+
+        // 확장과 원본 질의 검색을 동시에 시작
+        CompletableFuture<List<Query>> expansion = CompletableFuture.supplyAsync(() -> expander.expand(query), executor);
+        List<Document> rawResults = retriever.retrieve(query);
+
+        if (adaptive != null) {
+            if (adaptive.isConfident(rawResults)) {
+                // 풀에서 아직 시작되지 않았으면 확장(LLM 호출)을 실행하지 않음
+                expansion.cancel(false);
+                adaptive.recordDecision("skip", "confident");
+                recordOutcome("raw_only_confident");
+                return join(query, rawResults, Map.of());
+            }
+            adaptive.recordDecision("expand", "low_score");
+        }
+        return expandAndJoin(query, rawResults, expansion, deadline);
+    }
+
+    /**
+     * 마감 시간 안에 도착한 확장 질의 결과를 원본 결과와 결합합니다.
+     */
+    private List<Document> expandAndJoin(Query query, List<Document> rawResults,
+                                         CompletableFuture<List<Query>> expansion, long deadline) {
+        List<Query> expandedQueries;
+        try {
+            expandedQueries = expansion.get(remaining(deadline), TimeUnit.NANOSECONDS).stream()
+                    .filter(expanded -> !expanded.text().equals(query.text()))
+                    .distinct()
+                    .toList();
+        } catch (TimeoutException e) {
+            log.debug("질의 확장 마감 시간 초과, 원본 질의 결과로 진행");
+            recordOutcome("raw_only_timeout");
+            return join(query, rawResults, Map.of());
+        } catch (ExecutionException e) {
+            log.warn("질의 확장 실패, 원본 질의 결과로 진행", e.getCause());
+            recordOutcome("raw_only_failed");
+            return join(query, rawResults, Map.of());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recordOutcome("raw_only_failed");
+            return join(query, rawResults, Map.of());
+        }
+
+        Map<Query, CompletableFuture<List<Document>>> pending = new LinkedHashMap<>();
+        for (Query expanded : expandedQueries) {
+            pending.put(expanded, CompletableFuture.supplyAsync(() -> retriever.retrieve(expanded), executor));
+        }
+
+        Map<Query, List<Document>> arrived = new LinkedHashMap<>();
+        for (Map.Entry<Query, CompletableFuture<List<Document>>> entry : pending.entrySet()) {
+            try {
+                arrived.put(entry.getKey(), entry.getValue().get(remaining(deadline), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // 마감 이후 도착하는 결과는 버림
+            } catch (ExecutionException e) {
+                log.warn("확장 질의 검색 실패: {}", entry.getKey().text(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        recordOutcome(arrived.size() == pending.size() ? "merged" : "merged_partial");
+        log.debug("확장 질의 결과 결합, 도착: {}/{}", arrived.size(), pending.size());
+        return join(query, rawResults, arrived);
+    }
+
+    private List<Document> join(Query query, List<Document> rawResults, Map<Query, List<Document>> expandedResults) {
+        Map<Query, List<List<Document>>> documentsForQuery = new LinkedHashMap<>();
+        documentsForQuery.put(query, List.of(rawResults));
+        expandedResults.forEach((expanded, documents) -> documentsForQuery.put(expanded, List.of(documents)));
+        return new ArrayList<>(joiner.join(documentsForQuery));
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    private void recordOutcome(String outcome) {
+        Counter.builder("rag.retrieval.speculative")
+                .description("추측 실행 검색 결과 (원본 질의 결과만 사용 / 확장 결과 결합)")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
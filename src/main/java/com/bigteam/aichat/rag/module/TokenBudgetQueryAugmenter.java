@@ -0,0 +1,124 @@
+package com.bigteam.aichat.rag.module;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.generation.augmentation.QueryAugmenter;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 토큰 예산 기반 컨텍스트 패킹 QueryAugmenter
+ * 검색 문서를 유사도 점수 순으로 채우다가, 예산을 넘는 마지막 문서는 문장 경계에서 잘라 넣고 나머지는 버립니다.
+ * 예산은 advisor param(CHAT_MODEL_PARAM)으로 전달된 채팅 모델별로 적용되며,
+ * 문서 본문은 적재 시 정규화된 텍스트를 그대로 사용합니다.
+ */
+@Slf4j
+public class TokenBudgetQueryAugmenter implements QueryAugmenter {
+
+    /** 채팅 모델명 advisor param 키 */
+    public static final String CHAT_MODEL_PARAM = "rag_chat_model";
+
+    private final QueryAugmenter delegate;
+    private final Function<List<Document>, String> documentFormatter;
+    private final TokenCountEstimator tokenCountEstimator;
+    private final ContextPackingProperties properties;
+
+    /**
+     * @param delegate          패킹된 문서로 프롬프트를 구성할 augmenter
+     * @param documentFormatter delegate 가 사용하는 문서 포맷터 (문서별 헤더 포함 토큰 수 계산용)
+     */
+    public TokenBudgetQueryAugmenter(QueryAugmenter delegate, Function<List<Document>, String> documentFormatter,
+                                     TokenCountEstimator tokenCountEstimator, ContextPackingProperties properties) {
+        this.delegate = delegate;
+        this.documentFormatter = documentFormatter;
+        this.tokenCountEstimator = tokenCountEstimator;
+        this.properties = properties;
+    }
+
+    @Override
+    public Query augment(Query query, List<Document> documents) {
+        Object model = query.context().get(CHAT_MODEL_PARAM);
+        int budget = properties.tokenBudget(model != null ? model.toString() : null);
+        return delegate.augment(query, pack(documents, budget));
+    }
+
+    /**
+     * 예산 안에서 문서를 점수 순으로 채웁니다.
+     *
+     * @param documents 검색 문서
+     * @param budget    컨텍스트 토큰 예산
+     * @return 패킹된 문서
+     */
+    List<Document> pack(List<Document> documents, int budget) {
+        List<Document> ranked = new ArrayList<>(documents);
+        ranked.sort(Comparator.comparing((Document doc) -> doc.getScore() != null ? doc.getScore() : 0.0).reversed());
+
+        List<Document> packed = new ArrayList<>();
+        int used = 0;
+        for (Document doc : ranked) {
+            int tokens = tokenCountEstimator.estimate(documentFormatter.apply(List.of(doc)));
+            if (used + tokens <= budget) {
+                packed.add(doc);
+                used += tokens;
+                continue;
+            }
+            int remaining = budget - used;
+            if (remaining >= properties.getMinTruncatedTokens()) {
+                Document truncated = truncate(doc, remaining);
+                if (truncated != null) {
+                    packed.add(truncated);
+                    used += tokenCountEstimator.estimate(documentFormatter.apply(List.of(truncated)));
+                }
+            }
+            break;
+        }
+
+        if (packed.size() < documents.size()) {
+            log.debug("컨텍스트 토큰 예산 {} 초과, 문서 {} -> {} (사용 토큰: {})",
+                    budget, documents.size(), packed.size(), used);
+        }
+        return packed;
+    }
+
+    /**
+     * 헤더 포함 토큰 수가 예산 이내가 되도록 문서 본문을 문장 경계에서 자릅니다.
+     * 토큰 수는 경계마다 합산하지 않고 잘린 문서 전체로 다시 계산합니다. (경계 이분 탐색)
+     *
+     * @return 잘린 문서, 첫 문장도 들어가지 않으면 null
+     */
+    private Document truncate(Document doc, int budget) {
+        String text = doc.getText();
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        BreakIterator sentences = BreakIterator.getSentenceInstance(Locale.KOREAN);
+        sentences.setText(text);
+        List<Integer> boundaries = new ArrayList<>();
+        for (int end = sentences.next(); end != BreakIterator.DONE; end = sentences.next()) {
+            boundaries.add(end);
+        }
+
+        Document fitted = null;
+        int low = 0;
+        int high = boundaries.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            Document candidate = doc.mutate().text(text.substring(0, boundaries.get(mid)).strip()).build();
+            if (tokenCountEstimator.estimate(documentFormatter.apply(List.of(candidate))) <= budget) {
+                fitted = candidate;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return fitted;
+    }
+}
@@ -0,0 +1,263 @@
+package com.bigteam.aichat.rag.processor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 청크 요약 메타데이터 보강기
+ * SummaryMetadataEnricher 의 청크당 순차 LLM 호출을 대체합니다.
+ * 짧은 청크 여러 개를 하나의 프롬프트로 묶고, 제한된 병렬도로 요약을 실행하며,
+ * 문서당 시간 예산을 넘긴 요약은 건너뛰거나(skip) 저장 이후로 미룹니다(defer).
+ * 청크는 요약 완료 여부와 관계없이 즉시 반환되어 벡터 저장소에 저장됩니다.
+ */
+@Slf4j
+@Component
+public class ChunkSummaryEnricher implements DisposableBean {
+
+    /** SummaryMetadataEnricher 와 동일한 요약 메타데이터 키 */
+    public static final String SUMMARY_METADATA_KEY = "section_summary";
+    public static final String SUMMARY_STATUS_METADATA_KEY = "summary_status";
+
+    public static final String STATUS_DONE = "done";
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_SKIPPED = "skipped";
+    public static final String STATUS_FAILED = "failed";
+
+    private static final Pattern SUMMARY_LINE = Pattern.compile("^\\s*\\[(\\d+)]\\s*(.+)$");
+
+    private final ChatModel chatModel;
+    private final PromptTemplate promptTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final String model;
+    private final int batchMaxChars;
+    private final int batchMaxChunks;
+    private final Duration documentTimeBudget;
+    private final boolean deferOnTimeout;
+
+    public ChunkSummaryEnricher(ChatModel chatModel,
+                                @Value("classpath:prompts/chunk-summary.txt") Resource summaryPrompt,
+                                @Value("${rag.summary.model:gemma2:2b}") String model,
+                                @Value("${rag.summary.parallelism:4}") int parallelism,
+                                @Value("${rag.summary.batch-max-chars:3000}") int batchMaxChars,
+                                @Value("${rag.summary.batch-max-chunks:4}") int batchMaxChunks,
+                                @Value("${rag.summary.document-time-budget:120s}") Duration documentTimeBudget,
+                                @Value("${rag.summary.defer-on-timeout:true}") boolean deferOnTimeout) {
+        this.chatModel = chatModel;
+        this.promptTemplate = new PromptTemplate(summaryPrompt);
+        this.model = model;
+        this.batchMaxChars = batchMaxChars;
+        this.batchMaxChunks = Math.max(1, batchMaxChunks);
+        this.documentTimeBudget = documentTimeBudget;
+        this.deferOnTimeout = deferOnTimeout;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setThreadNamePrefix("chunk-summary-");
+        this.executor.setCorePoolSize(Math.max(1, parallelism));
+        this.executor.setMaxPoolSize(Math.max(1, parallelism));
+        this.executor.initialize();
+    }
+
+    /**
+     * 문서 하나에 대한 요약 시간 예산을 시작합니다.
+     * @return 문서 요약 예산
+     */
+    public Budget startBudget() {
+        return new Budget(System.nanoTime() + documentTimeBudget.toNanos());
+    }
+
+    /**
+     * 청크에 요약 메타데이터를 추가합니다.
+     * 예산 안에 끝난 요약은 바로 메타데이터에 반영하고, 끝나지 않은 요약은 설정에 따라
+     * pending(저장 후 반영) 또는 skipped 로 표시합니다.
+     *
+     * @param chunks 요약할 청크 목록 (메타데이터가 직접 갱신됨)
+     * @param budget 문서 요약 예산
+     * @return 보강 결과
+     */
+    public Result enrich(List<Document> chunks, Budget budget) {
+        List<List<Document>> batches = pack(chunks);
+        List<CompletableFuture<List<String>>> futures = new ArrayList<>(batches.size());
+        for (List<Document> batch : batches) {
+            futures.add(CompletableFuture.supplyAsync(() -> summarizeWithinBudget(batch, budget), executor));
+        }
+
+        int summarized = 0;
+        Map<String, CompletableFuture<String>> deferred = new LinkedHashMap<>();
+        for (int i = 0; i < batches.size(); i++) {
+            List<Document> batch = batches.get(i);
+            CompletableFuture<List<String>> future = futures.get(i);
+            try {
+                List<String> summaries = future.get(budget.remainingNanos(), TimeUnit.NANOSECONDS);
+                if (summaries == null) {
+                    batch.forEach(chunk -> chunk.getMetadata().put(SUMMARY_STATUS_METADATA_KEY, STATUS_SKIPPED));
+                } else {
+                    summarized += apply(batch, summaries);
+                }
+            } catch (TimeoutException e) {
+                if (deferOnTimeout) {
+                    for (int j = 0; j < batch.size(); j++) {
+                        int index = j;
+                        Document chunk = batch.get(j);
+                        chunk.getMetadata().put(SUMMARY_STATUS_METADATA_KEY, STATUS_PENDING);
+                        deferred.put(chunk.getId(), future.thenApply(summaries -> summaries.get(index)));
+                    }
+                } else {
+                    batch.forEach(chunk -> chunk.getMetadata().put(SUMMARY_STATUS_METADATA_KEY, STATUS_SKIPPED));
+                }
+            } catch (ExecutionException e) {
+                log.warn("청크 요약 실패, 청크 수: {}, 원인: {}", batch.size(), e.getCause().getMessage());
+                batch.forEach(chunk -> chunk.getMetadata().put(SUMMARY_STATUS_METADATA_KEY, STATUS_FAILED));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(chunk -> chunk.getMetadata().put(SUMMARY_STATUS_METADATA_KEY, STATUS_SKIPPED));
+            }
+        }
+        log.debug("청크 요약 완료: {}/{}, 지연 처리: {}", summarized, chunks.size(), deferred.size());
+        return new Result(chunks, summarized, deferred);
+    }
+
+    /**
+     * 인접한 청크를 문자 수 / 청크 수 한도 안에서 하나의 요약 요청으로 묶습니다.
+     */
+    List<List<Document>> pack(List<Document> chunks) {
+        List<List<Document>> batches = new ArrayList<>();
+        List<Document> current = new ArrayList<>();
+        int currentChars = 0;
+        for (Document chunk : chunks) {
+            int length = chunk.getText() == null ? 0 : chunk.getText().length();
+            if (!current.isEmpty() && (current.size() >= batchMaxChunks || currentChars + length > batchMaxChars)) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentChars = 0;
+            }
+            current.add(chunk);
+            currentChars += length;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    private int apply(List<Document> batch, List<String> summaries) {
+        int applied = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Map<String, Object> metadata = batch.get(i).getMetadata();
+            String summary = summaries.get(i);
+            if (summary != null) {
+                metadata.put(SUMMARY_METADATA_KEY, summary);
+                metadata.put(SUMMARY_STATUS_METADATA_KEY, STATUS_DONE);
+                applied++;
+            } else {
+                metadata.put(SUMMARY_STATUS_METADATA_KEY, STATUS_FAILED);
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * skip 모드에서는 대기열에서 꺼낸 시점에 예산이 소진되었으면 LLM 을 호출하지 않고 null 을 반환합니다.
+     */
+    private List<String> summarizeWithinBudget(List<Document> batch, Budget budget) {
+        if (!deferOnTimeout && budget.isExhausted()) {
+            return null;
+        }
+        return summarize(batch);
+    }
+
+    /**
+     * 묶인 청크들을 한 번의 LLM 호출로 요약합니다.
+     * @return 청크 순서대로의 요약 (응답에서 찾지 못한 항목은 null)
+     */
+    List<String> summarize(List<Document> batch) {
+        StringBuilder passages = new StringBuilder();
+        for (int i = 0; i < batch.size(); i++) {
+            passages.append('[').append(i + 1).append("] ").append(batch.get(i).getText()).append("\n\n");
+        }
+        ChatResponse response = chatModel.call(new Prompt(
+                promptTemplate.render(Map.of("passages", passages.toString().trim())),
+                ChatOptions.builder().model(model).temperature(0.0).build()));
+        String text = response.getResult() == null ? null : response.getResult().getOutput().getText();
+        return parse(text, batch.size());
+    }
+
+    static List<String> parse(String text, int expected) {
+        String[] summaries = new String[expected];
+        if (text == null || text.isBlank()) {
+            return Arrays.asList(summaries);
+        }
+        for (String line : text.split("\n")) {
+            Matcher matcher = SUMMARY_LINE.matcher(line);
+            if (matcher.matches()) {
+                int index = Integer.parseInt(matcher.group(1)) - 1;
+                if (index >= 0 && index < expected && summaries[index] == null) {
+                    summaries[index] = matcher.group(2).trim();
+                }
+            }
+        }
+        // 단일 청크 요청에서 번호 없이 응답한 경우 전체 응답을 요약으로 사용
+        if (expected == 1 && summaries[0] == null) {
+            summaries[0] = text.trim();
+        }
+        return Arrays.asList(summaries);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 문서 단위 요약 시간 예산
+     */
+    public static final class Budget {
+
+        private final long deadlineNanos;
+
+        Budget(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public long remainingNanos() {
+            return Math.max(0, deadlineNanos - System.nanoTime());
+        }
+
+        public boolean isExhausted() {
+            return remainingNanos() == 0;
+        }
+    }
+
+    /**
+     * 보강 결과
+     * @param documents 보강된 청크 목록 (요약 완료 여부와 무관하게 저장 대상)
+     * @param summarizedCount 예산 안에 요약된 청크 수
+     * @param deferred 저장 이후 반영할 요약 (청크 ID -> 요약)
+     */
+    public record Result(List<Document> documents, int summarizedCount,
+                         Map<String, CompletableFuture<String>> deferred) {
+    }
+}
@@ -3,6 +3,7 @@ package com.bigteam.aichat.rag.processor;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.springframework.ai.document.Document;
 import org.springframework.core.io.Resource;
@@ -15,6 +16,20 @@ public interface DocumentProcessingStrategy {
      * @throws IOException I/O 예외 발생 시
      */
     List<Document> parse(Resource resource) throws IOException;
+
+    /**
+     * 문서를 윈도우 단위로 나누어 순차적으로 파싱합니다. (스트리밍 적재용)
+     * 각 윈도우는 정제 -> 청킹 -> 저장까지 처리된 뒤 버려지므로, 최대 메모리 사용량은 문서 크기가 아닌 윈도우 크기에 비례합니다.
+     * 기본 구현은 윈도우 분할을 지원하지 않는 형식을 위해 전체 파싱 결과를 하나의 윈도우로 반환합니다.
+     * 반환된 스트림은 사용 후 반드시 close 해야 합니다.
+     * @param resource 처리할 문서 리소스
+     * @param windowSize 윈도우당 최대 페이지 수
+     * @return 윈도우별 도큐먼트 목록 스트림
+     * @throws IOException I/O 예외 발생 시
+     */
+    default Stream<List<Document>> parseInWindows(Resource resource, int windowSize) throws IOException {
+        return Stream.of(parse(resource));
+    }
     
     /**
      * 문서 텍스트를 정제합니다.
@@ -26,8 +41,8 @@ public interface DocumentProcessingStrategy {
     /**
      * 문서를 적절한 크기로 분할합니다.
      * @param documents 분할할 도큐먼트 목록
-     * @param chunkSize 청크 크기
-     * @param chunkOverlap 청크 간 중복 크기
+     * @param chunkSize 청크 크기 (토큰)
+     * @param chunkOverlap 청크 간 중복 크기 (토큰)
      * @return 분할된 도큐먼트 목록
      */
     List<Document> chunk(List<Document> documents, int chunkSize, int chunkOverlap);
@@ -2,7 +2,11 @@ package com.bigteam.aichat.rag.processor;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
@@ -19,9 +23,21 @@ public class DocumentProcessingStrategyFactory {
     private final List<DocumentProcessingStrategy> strategies;
     
     public DocumentProcessingStrategyFactory() {
+        this(null, 1);
+    }
+
+    /**
+     * @param parseExecutor    PDF 페이지 범위 병렬 추출용 풀
+     * @param parseParallelism 윈도우당 동시에 추출할 페이지 범위 수 (1 이면 순차 추출)
+     */
+    @Autowired
+    public DocumentProcessingStrategyFactory(
+            @Qualifier("documentParseExecutor") Executor parseExecutor,
+            @Value("${rag.ingestion.parse-parallelism:1}") int parseParallelism) {
         this.strategies = new ArrayList<>();
         // 전략 등록
-        this.strategies.add(new PdfDocumentProcessingStrategy());
+        this.strategies.add(new PdfDocumentProcessingStrategy(
+                TextNormalizer.builder().sentenceBreaks(false).build(), parseExecutor, parseParallelism));
         this.strategies.add(new TikaDocumentProcessingStrategy());
         this.strategies.add(new TextDocumentProcessingStrategy());
         this.strategies.add(new JsonDocumentProcessingStrategy());
@@ -1,20 +1,45 @@
 package com.bigteam.aichat.rag.processor;
 
+import java.awt.Rectangle;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.reader.ExtractedTextFormatter;
 import org.springframework.ai.reader.pdf.PagePdfDocumentReader;
-import org.springframework.ai.reader.pdf.ParagraphPdfDocumentReader;
+import org.springframework.ai.reader.pdf.config.ParagraphManager;
 import org.springframework.ai.reader.pdf.config.PdfDocumentReaderConfig;
-import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+import org.springframework.ai.reader.pdf.layout.PDFLayoutTextStripperByArea;
 import org.springframework.core.io.Resource;
+import org.springframework.util.StringUtils;
 
 
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -24,9 +49,37 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PdfDocumentProcessingStrategy implements DocumentProcessingStrategy {
     
+    private static final String PDF_PAGE_REGION = "pdfPageRegion";
+    private static final String METADATA_TITLE = "title";
+    private static final String METADATA_END_PAGE_NUMBER = "end_page_number";
+    private static final String METADATA_LEVEL = "level";
+
     private final PdfDocumentReaderConfig config;
-    
+    private final TextNormalizer normalizer;
+    private final Executor parseExecutor;
+    private final int parseParallelism;
+
     public PdfDocumentProcessingStrategy() {
+        // 기존 PDF 정제와 동일하게 문장 분리 없이 공백과 쉼표만 정리
+        this(TextNormalizer.builder().sentenceBreaks(false).build());
+    }
+
+    /**
+     * @param normalizer 정제 단계에서 사용할 텍스트 정규화기
+     */
+    public PdfDocumentProcessingStrategy(TextNormalizer normalizer) {
+        this(normalizer, null, 1);
+    }
+
+    /**
+     * @param normalizer       정제 단계에서 사용할 텍스트 정규화기
+     * @param parseExecutor    페이지 범위 병렬 추출용 풀, null 이면 순차 추출
+     * @param parseParallelism 윈도우당 동시에 추출할 페이지 범위 수 (1 이하면 순차 추출)
+     */
+    public PdfDocumentProcessingStrategy(TextNormalizer normalizer, Executor parseExecutor, int parseParallelism) {
+        this.normalizer = normalizer;
+        this.parseExecutor = parseExecutor;
+        this.parseParallelism = parseExecutor == null ? 1 : Math.max(1, parseParallelism);
         this.config = PdfDocumentReaderConfig.builder()
                 .withPageTopMargin(0)
                 .withPageExtractedTextFormatter(ExtractedTextFormatter.builder()
@@ -37,41 +90,202 @@ public class PdfDocumentProcessingStrategy implements DocumentProcessingStrategy
         
     }
     
+    /**
+     * PDF 전체를 파싱합니다.
+     * {@link #parseInWindows(Resource, int)} 의 결과를 한 번에 모으므로 리더 선택과 메타데이터가 적재 경로와 같습니다.
+     */
     @Override
     public List<Document> parse(Resource resource) throws IOException {
         log.info("PDF 데이터 로드 시작: {}", resource.getFilename());
+        try (Stream<List<Document>> windows = parseInWindows(resource, Integer.MAX_VALUE)) {
+            return windows.flatMap(List::stream).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * TOC 기반 문단 분할이 가능한지 문서 카탈로그만으로 확인합니다. (페이지 내용은 읽지 않음)
+     */
+    static boolean hasOutline(PDDocument document) {
+        PDDocumentOutline outline = document.getDocumentCatalog().getDocumentOutline();
+        return outline != null && outline.hasChildren();
+    }
+
+    private void recordFallback(String reason) {
+        Metrics.counter("rag.pdf.layout.fallbacks", "reason", reason).increment();
+    }
+
+    /**
+     * 윈도우 단위로 PDF를 파싱합니다.
+     * 파일 기반 리소스는 전체를 힙에 올리지 않고 메모리 맵으로 읽으며, PDFBox 스트림 캐시는 임시 파일을 사용합니다.
+     * - 목차 있음: 목차 항목(섹션) 단위로 추출하며, 한 윈도우에는 windowSize 페이지 안에 들어가는 섹션을 모읍니다. (최소 1개)
+     *   메타데이터는 ParagraphPdfDocumentReader 와 같고(title, page_number, end_page_number, level), 마지막 섹션은 문서 끝까지 포함합니다.
+     * - 목차 없음 또는 목차 해석 실패: 페이지 단위로 추출합니다. (page_number 는 1부터 시작)
+     *   목차 확인은 이미 로드한 문서의 카탈로그만 읽으며, 페이지 단위로 추출한 이유는 rag.pdf.layout.fallbacks 로 집계합니다.
+     * 병렬 추출이 설정되어 있고 파일 기반 리소스이면 페이지 윈도우를 페이지 범위로 나누어 풀에서 동시에 추출한 뒤 페이지 순서대로 합칩니다.
+     * (PDDocument 는 스레드 안전하지 않으므로 워커마다 별도로 로드, 섹션 추출은 순차)
+     */
+    @Override
+    public Stream<List<Document>> parseInWindows(Resource resource, int windowSize) throws IOException {
+        log.info("PDF 데이터 스트리밍 로드 시작: {}, 윈도우 크기: {}", resource.getFilename(), windowSize);
+        PDDocument document = load(resource);
+        String fileName = resource.getFilename();
+
+        boolean outlined = hasOutline(document);
+        List<ParagraphManager.Paragraph> sections = outlined ? outlineSections(document, fileName) : List.of();
+        if (!sections.isEmpty()) {
+            SectionWindowSpliterator spliterator = new SectionWindowSpliterator(document, sections, fileName,
+                    Math.max(1, windowSize));
+            return StreamSupport.stream(spliterator, false)
+                    .onClose(() -> closeQuietly(document, fileName));
+        }
+
+        recordFallback(outlined ? "paragraph_failed" : "no_outline");
+        PageExtractor extractor = parseParallelism > 1 && resource.isFile()
+                ? new ParallelPageExtractor(resource, document, fileName)
+                : (start, end) -> extractPages(document, fileName, start, end);
+        PageWindowSpliterator spliterator = new PageWindowSpliterator(extractor, document.getNumberOfPages(),
+                fileName, Math.max(1, windowSize));
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> {
+                    if (extractor instanceof ParallelPageExtractor parallel) {
+                        parallel.close();
+                    }
+                    closeQuietly(document, fileName);
+                });
+    }
+
+    /**
+     * 이미 로드한 문서의 목차를 섹션 목록으로 펼칩니다. (페이지를 찾을 수 없는 항목 제외)
+     * 해석에 실패하면 빈 목록을 반환하여 페이지 단위로 추출하게 합니다.
+     */
+    private List<ParagraphManager.Paragraph> outlineSections(PDDocument document, String fileName) {
         try {
-            ParagraphPdfDocumentReader pdfReader = new ParagraphPdfDocumentReader(resource, this.config);
-            return pdfReader.get();
+            return new ParagraphManager(document).flatten().stream()
+                    .filter(section -> section.startPageNumber() >= 1)
+                    .toList();
         } catch (Exception e) {
-            log.error("Paragraph 기반 Pdf 데이터 로드 실패...{}\n===Page 기반 Pdf 데이터 로드 시도===", e.getMessage());
-            PagePdfDocumentReader pdfReader = new PagePdfDocumentReader(resource, this.config);
-            return pdfReader.get();
+            log.warn("Paragraph 기반 Pdf 데이터 로드 실패, Page 기반으로 추출: {} ({})", fileName, e.getMessage());
+            return List.of();
         }
     }
+
+    private static void closeQuietly(PDDocument document, String fileName) {
+        if (document == null) {
+            return;
+        }
+        try {
+            document.close();
+        } catch (IOException e) {
+            log.warn("PDF 문서 닫기 실패: {}", fileName, e);
+        }
+    }
+
+    /**
+     * 파일 기반 리소스는 메모리 맵으로 읽어 파일 크기만큼 힙을 사용하지 않습니다. (병렬 추출 워커 간 페이지 캐시 공유)
+     */
+    private PDDocument load(Resource resource) throws IOException {
+        RandomAccessRead source = resource.isFile()
+                ? new RandomAccessReadMemoryMappedFile(resource.getFile())
+                : new RandomAccessReadBuffer(resource.getInputStream());
+        return Loader.loadPDF(source, IOUtils.createTempFileOnlyStreamCache());
+    }
+
+    /**
+     * 페이지 범위 [start, end) 의 텍스트를 페이지별 Document 로 추출합니다.
+     */
+    private List<Document> extractPages(PDDocument document, String fileName, int start, int end) throws IOException {
+        List<Document> pages = new ArrayList<>(end - start);
+        PDFLayoutTextStripperByArea stripper = new PDFLayoutTextStripperByArea();
+        for (int pageIndex = start; pageIndex < end; pageIndex++) {
+            PDPage page = document.getPage(pageIndex);
+            int x0 = (int) page.getMediaBox().getLowerLeftX();
+            int xW = (int) page.getMediaBox().getWidth();
+            int y0 = (int) page.getMediaBox().getLowerLeftY() + this.config.pageTopMargin;
+            int yW = (int) page.getMediaBox().getHeight() - (this.config.pageTopMargin + this.config.pageBottomMargin);
+            stripper.addRegion(PDF_PAGE_REGION, new Rectangle(x0, y0, xW, yW));
+            stripper.extractRegions(page);
+            String pageText = stripper.getTextForRegion(PDF_PAGE_REGION);
+            stripper.removeRegion(PDF_PAGE_REGION);
+
+            if (StringUtils.hasText(pageText)) {
+                Document doc = new Document(this.config.pageExtractedTextFormatter.format(pageText, pageIndex));
+                doc.getMetadata().put(PagePdfDocumentReader.METADATA_START_PAGE_NUMBER, pageIndex + 1);
+                doc.getMetadata().put(PagePdfDocumentReader.METADATA_FILE_NAME, fileName);
+                pages.add(doc);
+            }
+        }
+        return pages;
+    }
     
+    /**
+     * 섹션 시작 위치부터 다음 섹션 시작 위치까지(다음 섹션이 없으면 문서 끝까지)의 텍스트를 추출합니다.
+     * ParagraphPdfDocumentReader 와 같은 영역 계산을 이미 로드한 문서에 적용합니다.
+     * 텍스트가 없는 섹션은 null 을 반환합니다.
+     */
+    private Document extractSection(PDDocument document, String fileName,
+                                    ParagraphManager.Paragraph from, ParagraphManager.Paragraph to) throws IOException {
+        int startPage = from.startPageNumber() - 1;
+        int endPage = to != null ? Math.max(startPage, to.startPageNumber() - 1) : document.getNumberOfPages() - 1;
+        PDFLayoutTextStripperByArea stripper = new PDFLayoutTextStripperByArea();
+        stripper.setSortByPosition(true);
+        StringBuilder text = new StringBuilder();
+        for (int pageIndex = startPage; pageIndex <= endPage; pageIndex++) {
+            PDPage page = document.getPage(pageIndex);
+            int height = (int) page.getMediaBox().getHeight();
+            int fromPosition = this.config.reversedParagraphPosition ? height - from.position() : from.position();
+            int x0 = (int) page.getMediaBox().getLowerLeftX();
+            int xW = (int) page.getMediaBox().getWidth();
+            int y0 = (int) page.getMediaBox().getLowerLeftY();
+            int yW = height;
+            if (pageIndex == startPage) {
+                y0 = fromPosition;
+                yW = height - y0;
+            }
+            if (to != null && pageIndex == endPage) {
+                int toPosition = this.config.reversedParagraphPosition ? height - to.position() : to.position();
+                yW = toPosition - y0;
+            }
+            if (y0 + yW == height) {
+                yW -= this.config.pageBottomMargin;
+            }
+            if (y0 == 0) {
+                y0 += this.config.pageTopMargin;
+                yW -= this.config.pageTopMargin;
+            }
+            stripper.addRegion(PDF_PAGE_REGION, new Rectangle(x0, y0, xW, yW));
+            stripper.extractRegions(page);
+            text.append(stripper.getTextForRegion(PDF_PAGE_REGION));
+            stripper.removeRegion(PDF_PAGE_REGION);
+        }
+
+        if (!StringUtils.hasText(text)) {
+            return null;
+        }
+        Document doc = new Document(this.config.pageExtractedTextFormatter.format(text.toString(), startPage));
+        doc.getMetadata().put(METADATA_TITLE, from.title());
+        doc.getMetadata().put(PagePdfDocumentReader.METADATA_START_PAGE_NUMBER, from.startPageNumber());
+        doc.getMetadata().put(METADATA_END_PAGE_NUMBER, endPage + 1);
+        doc.getMetadata().put(METADATA_LEVEL, from.level());
+        doc.getMetadata().put(PagePdfDocumentReader.METADATA_FILE_NAME, fileName);
+        return doc;
+    }
+
     @Override
     public List<Document> clean(List<Document> documents) {
         return documents.stream()
                 .map(doc -> 
-                    new Document(Objects.requireNonNull(doc.getText())
-                        .replaceAll("\\s+", " ")  // 여러 개의 공백을 하나로 축소
-                        .replaceAll(",\\s*", ", ")  // 쉼표 뒤에 한 칸 공백 추가
-                        .trim(), doc.getMetadata())
+                    new Document(normalizer.normalize(Objects.requireNonNull(doc.getText())), doc.getMetadata())
                 )
                 .collect(Collectors.toList());
     }
     
     @Override
     public List<Document> chunk(List<Document> documents, int chunkSize, int chunkOverlap) {
-        TokenTextSplitter splitter = new TokenTextSplitter(
-            chunkSize,
-            350,  // minChunkSizeChars
-            5,    // minChunkLengthToEmbed
-            10000, // maxNumChunks
-            true   // keepSeparator
-        );
-        return splitter.apply(documents);
+        return TokenChunker.builder()
+                .chunkSize(chunkSize)
+                .overlap(chunkOverlap)
+                .build()
+                .split(documents);
     }
     
     @Override
@@ -90,5 +304,193 @@ public class PdfDocumentProcessingStrategy implements DocumentProcessingStrategy
         String filename = resource.getFilename();
         return filename != null && filename.toLowerCase().endsWith(".pdf");
     }
+
+    /**
+     * 페이지 범위 [start, end) 추출기
+     */
+    @FunctionalInterface
+    private interface PageExtractor {
+        List<Document> extract(int start, int end) throws IOException;
+    }
+
+    /**
+     * 페이지 범위를 parseParallelism 개로 나누어 풀에서 동시에 추출하는 추출기
+     * 워커는 최대 parseParallelism 개의 PDDocument 를 빌려 쓰고 반납하며, 문서는 스트림 종료 시 닫습니다.
+     */
+    private class ParallelPageExtractor implements PageExtractor {
+
+        private final Resource resource;
+        private final String fileName;
+        private final BlockingQueue<PDDocument> idle = new LinkedBlockingQueue<>();
+        private final List<PDDocument> loaded = new CopyOnWriteArrayList<>();
+        private final AtomicInteger created = new AtomicInteger(1);
+
+        ParallelPageExtractor(Resource resource, PDDocument primary, String fileName) {
+            this.resource = resource;
+            this.fileName = fileName;
+            this.idle.add(primary);
+        }
+
+        @Override
+        public List<Document> extract(int start, int end) throws IOException {
+            int ranges = Math.min(parseParallelism, end - start);
+            int rangeSize = (end - start + ranges - 1) / ranges;
+            List<CompletableFuture<List<Document>>> futures = new ArrayList<>(ranges);
+            for (int rangeStart = start; rangeStart < end; rangeStart += rangeSize) {
+                int from = rangeStart;
+                int to = Math.min(rangeStart + rangeSize, end);
+                futures.add(CompletableFuture.supplyAsync(() -> extractRange(from, to), parseExecutor));
+            }
+
+            // 페이지 범위 순서대로 합침
+            List<Document> pages = new ArrayList<>(end - start);
+            try {
+                for (CompletableFuture<List<Document>> future : futures) {
+                    pages.addAll(future.join());
+                }
+            } catch (CompletionException e) {
+                futures.forEach(future -> future.cancel(false));
+                if (e.getCause() instanceof UncheckedIOException io) {
+                    throw io.getCause();
+                }
+                throw e;
+            }
+            return pages;
+        }
+
+        private List<Document> extractRange(int start, int end) {
+            PDDocument document = borrow();
+            try {
+                return extractPages(document, fileName, start, end);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                idle.add(document);
+            }
+        }
+
+        private PDDocument borrow() {
+            PDDocument document = idle.poll();
+            if (document != null) {
+                return document;
+            }
+            if (created.getAndIncrement() < parseParallelism) {
+                try {
+                    document = load(resource);
+                    loaded.add(document);
+                    return document;
+                } catch (IOException e) {
+                    created.decrementAndGet();
+                    throw new UncheckedIOException(e);
+                }
+            }
+            created.decrementAndGet();
+            try {
+                return idle.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("PDF 페이지 추출 대기 중 인터럽트: " + fileName, e);
+            }
+        }
+
+        /**
+         * 워커용으로 추가 로드한 문서를 닫습니다. (최초 문서는 호출자가 닫음)
+         */
+        void close() {
+            loaded.forEach(document -> closeQuietly(document, fileName));
+        }
+    }
+
+    /**
+     * 요청 시점에 다음 섹션 윈도우를 추출하는 Spliterator
+     * 윈도우의 첫 섹션 시작 페이지부터 windowSize 페이지 안에서 끝나는 섹션까지 모읍니다. (최소 1개)
+     */
+    private class SectionWindowSpliterator extends Spliterators.AbstractSpliterator<List<Document>> {
+
+        private final PDDocument document;
+        private final List<ParagraphManager.Paragraph> sections;
+        private final String fileName;
+        private final int windowSize;
+        private int nextSection;
+
+        SectionWindowSpliterator(PDDocument document, List<ParagraphManager.Paragraph> sections, String fileName,
+                                 int windowSize) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.document = document;
+            this.sections = sections;
+            this.fileName = fileName;
+            this.windowSize = windowSize;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<Document>> action) {
+            if (nextSection >= sections.size()) {
+                return false;
+            }
+            int windowStartPage = sections.get(nextSection).startPageNumber();
+            List<Document> window = new ArrayList<>();
+            int index = nextSection;
+            do {
+                ParagraphManager.Paragraph from = sections.get(index);
+                ParagraphManager.Paragraph to = index + 1 < sections.size() ? sections.get(index + 1) : null;
+                try {
+                    Document section = extractSection(document, fileName, from, to);
+                    if (section != null) {
+                        window.add(section);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("PDF 섹션 추출 실패: " + fileName + " (" + from.title() + ")", e);
+                }
+                index++;
+            } while (index < sections.size() && endPage(index) - windowStartPage < windowSize);
+            nextSection = index;
+            action.accept(window);
+            return true;
+        }
+
+        /**
+         * index 번째 섹션이 끝나는 페이지 (1부터 시작)
+         */
+        private int endPage(int index) {
+            return index + 1 < sections.size()
+                    ? sections.get(index + 1).startPageNumber()
+                    : document.getNumberOfPages();
+        }
+    }
+
+    /**
+     * 요청 시점에 다음 페이지 윈도우를 추출하는 Spliterator
+     */
+    private static class PageWindowSpliterator extends Spliterators.AbstractSpliterator<List<Document>> {
+
+        private final PageExtractor extractor;
+        private final String fileName;
+        private final int windowSize;
+        private final int pageCount;
+        private int nextPage;
+
+        PageWindowSpliterator(PageExtractor extractor, int pageCount, String fileName, int windowSize) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.extractor = extractor;
+            this.fileName = fileName;
+            this.windowSize = windowSize;
+            this.pageCount = pageCount;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<Document>> action) {
+            if (nextPage >= pageCount) {
+                return false;
+            }
+            int end = (int) Math.min((long) nextPage + windowSize, pageCount);
+            try {
+                action.accept(extractor.extract(nextPage, end));
+            } catch (IOException e) {
+                throw new UncheckedIOException("PDF 페이지 추출 실패: " + fileName + " (" + (nextPage + 1) + "-" + end + ")", e);
+            }
+            nextPage = end;
+            return true;
+        }
+    }
 }
 
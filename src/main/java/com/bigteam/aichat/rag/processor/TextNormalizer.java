@@ -0,0 +1,170 @@
+package com.bigteam.aichat.rag.processor;
+
+import java.util.Arrays;
+
+/**
+ * 단일 패스 텍스트 정규화기
+ * 기존 정제 단계의 정규식 체인과 동일한 결과를 텍스트 한 번 순회로 만듭니다.
+ * (정규식 재컴파일 및 단계별 전체 문자열 복사 없음, 출력 버퍼는 스레드별로 재사용)
+ * <pre>
+ * replaceAll("\\s+", " ")                         // collapseWhitespace
+ * replaceAll("(?<=[a-zA-Z가-힣])\\.\\s*", ".\n")   // sentenceBreaks
+ * replaceAll(",\\s*", ", ")                       // commaSpacing
+ * trim()
+ * </pre>
+ * 인스턴스는 불변이며 여러 스레드에서 공유할 수 있습니다.
+ */
+public final class TextNormalizer {
+
+    /** 재사용할 출력 버퍼의 최대 크기 (이보다 큰 버퍼는 사용 후 버림) */
+    private static final int MAX_RETAINED_BUFFER = 1 << 20;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[8192]);
+
+    private final boolean collapseWhitespace;
+    private final boolean sentenceBreaks;
+    private final boolean commaSpacing;
+
+    private TextNormalizer(Builder builder) {
+        this.collapseWhitespace = builder.collapseWhitespace;
+        this.sentenceBreaks = builder.sentenceBreaks;
+        this.commaSpacing = builder.commaSpacing;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 텍스트를 정규화합니다.
+     *
+     * @param text 원본 텍스트
+     * @return 정규화된 텍스트 (앞뒤 공백 및 제어 문자 제거)
+     */
+    public String normalize(String text) {
+        int length = text.length();
+        char[] out = BUFFER.get();
+        int pos = 0;
+        // 정규식 lookbehind 와 같이 공백 축소 결과 기준의 직전 문자
+        char previous = '\0';
+
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (out.length - pos < 2) {
+                out = grow(out, pos, length - i);
+            }
+
+            if (isWhitespace(c)) {
+                int end = skipWhitespace(text, i);
+                if (collapseWhitespace) {
+                    out[pos++] = ' ';
+                    previous = ' ';
+                } else {
+                    out = ensure(out, pos, end - i);
+                    text.getChars(i, end, out, pos);
+                    pos += end - i;
+                    previous = text.charAt(end - 1);
+                }
+                i = end;
+                continue;
+            }
+
+            if (c == '.' && sentenceBreaks && isSentenceLetter(previous)) {
+                out[pos++] = '.';
+                out[pos++] = '\n';
+                i = skipWhitespace(text, i + 1);
+                previous = i > 0 && isWhitespace(text.charAt(i - 1)) ? ' ' : '.';
+                continue;
+            }
+
+            if (c == ',' && commaSpacing) {
+                out[pos++] = ',';
+                out[pos++] = ' ';
+                int end = skipWhitespace(text, i + 1);
+                previous = end > i + 1 ? ' ' : ',';
+                i = end;
+                continue;
+            }
+
+            out[pos++] = c;
+            previous = c;
+            i++;
+        }
+
+        // String.trim() 과 동일하게 앞뒤의 ' ' 이하 문자 제거
+        int start = 0;
+        while (start < pos && out[start] <= ' ') {
+            start++;
+        }
+        while (pos > start && out[pos - 1] <= ' ') {
+            pos--;
+        }
+        String result = new String(out, start, pos - start);
+        if (out.length <= MAX_RETAINED_BUFFER) {
+            BUFFER.set(out);
+        } else {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    /**
+     * java.util.regex 의 \s 와 동일한 공백 문자 ([ \t\n\x0B\f\r])
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    private static boolean isSentenceLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '가' && c <= '힣');
+    }
+
+    private static int skipWhitespace(String text, int from) {
+        int i = from;
+        while (i < text.length() && isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static char[] ensure(char[] out, int pos, int needed) {
+        return out.length - pos < needed ? grow(out, pos, needed) : out;
+    }
+
+    private static char[] grow(char[] out, int pos, int remaining) {
+        int required = pos + Math.max(remaining, 2) + 2;
+        return Arrays.copyOf(out, Math.max(required, out.length * 2));
+    }
+
+    public static final class Builder {
+        private boolean collapseWhitespace = true;
+        private boolean sentenceBreaks = true;
+        private boolean commaSpacing = true;
+
+        private Builder() {
+        }
+
+        /** 연속 공백을 한 칸으로 축소 */
+        public Builder collapseWhitespace(boolean collapseWhitespace) {
+            this.collapseWhitespace = collapseWhitespace;
+            return this;
+        }
+
+        /** 영문/한글 뒤의 마침표 다음에 줄바꿈 삽입 */
+        public Builder sentenceBreaks(boolean sentenceBreaks) {
+            this.sentenceBreaks = sentenceBreaks;
+            return this;
+        }
+
+        /** 쉼표 뒤 공백을 한 칸으로 통일 */
+        public Builder commaSpacing(boolean commaSpacing) {
+            this.commaSpacing = commaSpacing;
+            return this;
+        }
+
+        public TextNormalizer build() {
+            return new TextNormalizer(this);
+        }
+    }
+}
@@ -8,7 +8,6 @@ import java.util.stream.Collectors;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.reader.tika.TikaDocumentReader;
-import org.springframework.ai.transformer.splitter.TokenTextSplitter;
 import org.springframework.core.io.Resource;
 
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +18,19 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class TikaDocumentProcessingStrategy implements DocumentProcessingStrategy {
+
+    private final TextNormalizer normalizer;
+
+    public TikaDocumentProcessingStrategy() {
+        this(TextNormalizer.builder().build());
+    }
+
+    /**
+     * @param normalizer 정제 단계에서 사용할 텍스트 정규화기
+     */
+    public TikaDocumentProcessingStrategy(TextNormalizer normalizer) {
+        this.normalizer = normalizer;
+    }
     
     @Override
     public List<Document> parse(Resource resource) throws IOException {
@@ -31,25 +43,18 @@ public class TikaDocumentProcessingStrategy implements DocumentProcessingStrateg
     public List<Document> clean(List<Document> documents) {
         return documents.stream()
                 .map(doc -> 
-                    new Document(Objects.requireNonNull(doc.getText())
-                        .replaceAll("\\s+", " ")
-                        .replaceAll("(?<=[a-zA-Z가-힣])\\.\\s*", ".\n")
-                        .replaceAll(",\\s*", ", ")
-                        .trim(), doc.getMetadata())
+                    new Document(normalizer.normalize(Objects.requireNonNull(doc.getText())), doc.getMetadata())
                 )
                 .collect(Collectors.toList());
     }
     
     @Override
     public List<Document> chunk(List<Document> documents, int chunkSize, int chunkOverlap) {
-        TokenTextSplitter splitter = new TokenTextSplitter(
-            chunkSize,
-            350,
-            5,
-            10000,
-            true
-        );
-        return splitter.apply(documents);
+        return TokenChunker.builder()
+                .chunkSize(chunkSize)
+                .overlap(chunkOverlap)
+                .build()
+                .split(documents);
     }
     
     @Override
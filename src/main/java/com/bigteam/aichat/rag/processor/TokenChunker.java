@@ -0,0 +1,259 @@
+package com.bigteam.aichat.rag.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.springframework.ai.document.Document;
+import org.springframework.util.Assert;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import com.knuddels.jtokkit.api.IntArrayList;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 토큰 기반 청킹 엔진
+ * TokenTextSplitter 와 같은 CL100K_BASE 토큰 기준으로 자르되, 다음을 지원합니다.
+ * - 토큰 인코딩(BPE 사전)은 프로세스 전체에서 하나만 로드하여 공유 (Encoding 은 스레드 안전)
+ * - 청크 간 토큰 단위 중복(overlap)
+ * - 청크 끝을 문단/문장 경계에 맞춤 (경계가 minChunkSizeChars 보다 앞이면 토큰 크기 그대로 자름)
+ * - 멀티바이트 문자(한글 등) 중간에서 청크가 시작하거나 끝나지 않도록 토큰 경계 보정
+ * 인스턴스는 불변이며 여러 스레드에서 공유할 수 있습니다.
+ */
+@Slf4j
+public final class TokenChunker {
+
+    /** 청크 끝 경계 */
+    public enum Boundary {
+        /** 토큰 크기에서 그대로 자름 */
+        NONE,
+        /** 마지막 문장 끝(. ? ! 줄바꿈)에서 자름 */
+        SENTENCE,
+        /** 마지막 문단 끝(빈 줄)에서 자르고, 없으면 문장 끝에서 자름 */
+        PARAGRAPH
+    }
+
+    private static final Encoding ENCODING = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
+    private final int chunkSize;
+    private final int overlap;
+    private final int minChunkSizeChars;
+    private final int minChunkLengthToEmbed;
+    private final int maxNumChunks;
+    private final Boundary boundary;
+
+    private TokenChunker(Builder builder) {
+        Assert.isTrue(builder.chunkSize > 0, "chunkSize must be positive");
+        Assert.isTrue(builder.overlap >= 0 && builder.overlap < builder.chunkSize,
+                "overlap must be between 0 and chunkSize");
+        this.chunkSize = builder.chunkSize;
+        this.overlap = builder.overlap;
+        this.minChunkSizeChars = builder.minChunkSizeChars;
+        this.minChunkLengthToEmbed = builder.minChunkLengthToEmbed;
+        this.maxNumChunks = builder.maxNumChunks;
+        this.boundary = builder.boundary;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 도큐먼트를 청크로 분할합니다. 각 청크는 원본 메타데이터의 복사본을 가집니다.
+     *
+     * @param documents 분할할 도큐먼트 목록
+     * @return 청크 도큐먼트 목록
+     */
+    public List<Document> split(List<Document> documents) {
+        List<Document> chunks = new ArrayList<>();
+        for (Document document : documents) {
+            List<String> texts = split(Objects.requireNonNull(document.getText()));
+            if (texts.size() > 1) {
+                log.debug("도큐먼트 청크 분할: {} 개", texts.size());
+            }
+            for (String text : texts) {
+                Map<String, Object> metadata = document.getMetadata().entrySet().stream()
+                        .filter(e -> e.getKey() != null && e.getValue() != null)
+                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                Document chunk = new Document(text, metadata);
+                chunk.setContentFormatter(document.getContentFormatter());
+                chunks.add(chunk);
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * 텍스트를 청크로 분할합니다.
+     *
+     * @param text 분할할 텍스트
+     * @return 청크 텍스트 목록
+     */
+    public List<String> split(String text) {
+        List<String> chunks = new ArrayList<>();
+        if (text.isBlank()) {
+            return chunks;
+        }
+        IntArrayList tokens = ENCODING.encode(text);
+        int total = tokens.size();
+        int start = 0;
+        int numChunks = 0;
+        while (start < total && numChunks < maxNumChunks) {
+            int end = alignEnd(tokens, start, Math.min(start + chunkSize, total));
+            String chunkText = decode(tokens, start, end);
+            if (chunkText.isBlank()) {
+                start = end;
+                continue;
+            }
+
+            int consumed = end - start;
+            if (end < total) {
+                int cut = boundaryIndex(chunkText);
+                if (cut > minChunkSizeChars && cut < chunkText.length()) {
+                    chunkText = chunkText.substring(0, cut);
+                    consumed = Math.min(consumed, Math.max(1, ENCODING.countTokens(chunkText)));
+                }
+            }
+            addChunk(chunks, chunkText);
+            numChunks++;
+
+            if (start + consumed >= total) {
+                start = total;
+                break;
+            }
+            // 다음 청크는 소비한 토큰의 끝에서 overlap 만큼 앞에서 시작 (항상 앞으로 진행)
+            start = alignStart(tokens, start + consumed - Math.min(overlap, consumed / 2));
+        }
+        if (start < total) {
+            addChunk(chunks, decode(tokens, start, total));
+        }
+        return chunks;
+    }
+
+    private void addChunk(List<String> chunks, String chunkText) {
+        String trimmed = chunkText.trim();
+        if (trimmed.length() > minChunkLengthToEmbed) {
+            chunks.add(trimmed);
+        }
+    }
+
+    /**
+     * 경계 이후 위치를 반환합니다. 경계가 없으면 -1
+     */
+    private int boundaryIndex(String chunkText) {
+        if (boundary == Boundary.NONE) {
+            return -1;
+        }
+        if (boundary == Boundary.PARAGRAPH) {
+            int paragraph = chunkText.lastIndexOf("\n\n");
+            if (paragraph > minChunkSizeChars) {
+                return paragraph + 2;
+            }
+        }
+        int sentence = -1;
+        for (int i = chunkText.length() - 1; i >= 0; i--) {
+            char c = chunkText.charAt(i);
+            if (c == '.' || c == '?' || c == '!' || c == '\n' || c == '。' || c == '？' || c == '！') {
+                sentence = i;
+                break;
+            }
+        }
+        return sentence < 0 ? -1 : sentence + 1;
+    }
+
+    /**
+     * 청크 끝이 멀티바이트 문자 중간이면 문자 시작 토큰까지 당깁니다.
+     */
+    private static int alignEnd(IntArrayList tokens, int start, int end) {
+        int aligned = end;
+        while (aligned < tokens.size() && aligned > start + 1 && isContinuation(tokens.get(aligned))) {
+            aligned--;
+        }
+        return aligned;
+    }
+
+    /**
+     * 청크 시작이 멀티바이트 문자 중간이면 문자 시작 토큰까지 밉니다.
+     */
+    private static int alignStart(IntArrayList tokens, int start) {
+        int aligned = start;
+        while (aligned < tokens.size() && isContinuation(tokens.get(aligned))) {
+            aligned++;
+        }
+        return aligned;
+    }
+
+    /**
+     * 토큰의 첫 바이트가 UTF-8 연속 바이트(10xxxxxx)인지 확인합니다.
+     */
+    private static boolean isContinuation(int token) {
+        IntArrayList single = new IntArrayList(1);
+        single.add(token);
+        byte[] bytes = ENCODING.decodeBytes(single);
+        return bytes.length > 0 && (bytes[0] & 0xC0) == 0x80;
+    }
+
+    private static String decode(IntArrayList tokens, int start, int end) {
+        IntArrayList window = new IntArrayList(end - start);
+        for (int i = start; i < end; i++) {
+            window.add(tokens.get(i));
+        }
+        return ENCODING.decode(window);
+    }
+
+    public static final class Builder {
+        private int chunkSize = 800;
+        private int overlap = 0;
+        private int minChunkSizeChars = 350;
+        private int minChunkLengthToEmbed = 5;
+        private int maxNumChunks = 10000;
+        private Boundary boundary = Boundary.PARAGRAPH;
+
+        private Builder() {
+        }
+
+        /** 청크당 최대 토큰 수 */
+        public Builder chunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /** 인접 청크 간 중복 토큰 수 (경계로 짧아진 청크는 길이의 절반까지만 중복) */
+        public Builder overlap(int overlap) {
+            this.overlap = overlap;
+            return this;
+        }
+
+        /** 이 글자 수 이후의 경계에서만 자름 */
+        public Builder minChunkSizeChars(int minChunkSizeChars) {
+            this.minChunkSizeChars = minChunkSizeChars;
+            return this;
+        }
+
+        /** 이 글자 수 이하의 청크는 버림 */
+        public Builder minChunkLengthToEmbed(int minChunkLengthToEmbed) {
+            this.minChunkLengthToEmbed = minChunkLengthToEmbed;
+            return this;
+        }
+
+        /** 도큐먼트당 최대 청크 수 (초과분은 하나의 청크로 합침) */
+        public Builder maxNumChunks(int maxNumChunks) {
+            this.maxNumChunks = maxNumChunks;
+            return this;
+        }
+
+        public Builder boundary(Boundary boundary) {
+            this.boundary = boundary;
+            return this;
+        }
+
+        public TokenChunker build() {
+            return new TokenChunker(this);
+        }
+    }
+}
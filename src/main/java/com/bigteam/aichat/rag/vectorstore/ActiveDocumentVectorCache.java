@@ -0,0 +1,241 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.postgresql.util.PGobject;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentMetadata;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgvector.PGvector;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 사용자별 활성 문서 임베딩 캐시 (정확 검색용)
+ * 활성 문서의 청크가 rag.vector-store.hnsw.exact-search-max-rows 이하이면 임베딩을 힙 밖 행렬({@link OffHeapVectorMatrix})로 올려 두고
+ * JVM 안에서 정확한 코사인 top-k 를 계산합니다. 본문/메타데이터는 top-k 행만 ID 로 다시 조회하여 힙 사용을 줄입니다.
+ * 활성 문서 구성이 바뀌면 자동으로 다시 적재하며, 활성화 변경/삭제/새 버전 반영 시 명시적으로 무효화합니다.
+ * 전체 행렬 크기가 max-cache-size 를 넘으면 가장 오래 사용하지 않은 사용자부터 제거합니다.
+ */
+@Slf4j
+@Component
+public class ActiveDocumentVectorCache {
+
+    private static final String TABLE_NAME = "vector_store";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxRows;
+    private final long maxCacheBytes;
+
+    /** userId -> 적재 결과 (접근 순서) */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    /** 무효화마다 증가, 적재 중 무효화되면 결과를 버림 */
+    private final AtomicLong generation = new AtomicLong();
+
+    public ActiveDocumentVectorCache(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                     @Value("${rag.exact-search.enabled:true}") boolean enabled,
+                                     @Value("${rag.vector-store.hnsw.exact-search-max-rows:10000}") int maxRows,
+                                     @Value("${rag.exact-search.max-cache-size:256MB}") DataSize maxCacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxRows = maxRows;
+        this.maxCacheBytes = maxCacheSize.toBytes();
+        Gauge.builder("rag.exact_search.cache.bytes", this, cache -> cache.cachedBytes())
+                .description("정확 검색 캐시의 힙 밖 행렬 크기")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 활성 문서 안에서 정확한 코사인 top-k 를 찾습니다.
+     *
+     * @param userId      사용자 ID
+     * @param documentIds 활성 문서 ID
+     * @param query       질의 임베딩
+     * @return 검색 결과, 청크가 많거나 적재에 실패하면 empty (벡터 저장소 검색으로 대체)
+     */
+    public Optional<List<Document>> search(String userId, Collection<Long> documentIds, float[] query,
+                                           int topK, double similarityThreshold) {
+        Set<Long> key = new TreeSet<>(documentIds);
+        Entry cached = get(userId, key);
+        Entry entry;
+        try {
+            entry = cached != null ? cached : load(userId, key);
+        } catch (Exception e) {
+            log.warn("정확 검색 캐시 적재 실패, 벡터 저장소 검색으로 대체합니다. 문서: {}", key, e);
+            return Optional.empty();
+        }
+        if (entry.matrix() == null) {
+            return Optional.empty();
+        }
+        if (entry.matrix().rows() == 0) {
+            return Optional.of(List.of());
+        }
+
+        List<OffHeapVectorMatrix.ScoredRow> rows = entry.matrix().topK(query, topK, similarityThreshold);
+        if (rows.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        String[] ids = rows.stream().map(row -> entry.ids()[row.row()]).toArray(String[]::new);
+        Map<String, Document.Builder> documents = new HashMap<>();
+        Map<String, Map<String, Object>> metadata = new HashMap<>();
+        jdbcTemplate.query("SELECT id, content, metadata FROM " + TABLE_NAME + " WHERE id = ANY(?::uuid[])", rs -> {
+            String id = rs.getString("id");
+            metadata.put(id, readMetadata(rs.getObject("metadata", PGobject.class)));
+            documents.put(id, Document.builder().id(id).text(rs.getString("content")));
+        }, (Object) ids);
+
+        List<Document> result = new ArrayList<>(rows.size());
+        for (OffHeapVectorMatrix.ScoredRow row : rows) {
+            String id = entry.ids()[row.row()];
+            Document.Builder document = documents.get(id);
+            if (document == null) {
+                // 적재 이후 삭제된 청크
+                continue;
+            }
+            Map<String, Object> rowMetadata = metadata.get(id);
+            rowMetadata.put(DocumentMetadata.DISTANCE.value(), 1.0f - row.score());
+            result.add(document.metadata(rowMetadata).score((double) row.score()).build());
+        }
+        return Optional.of(result);
+    }
+
+    private synchronized Entry get(String userId, Set<Long> documentIds) {
+        Entry entry = entries.get(userId);
+        return entry != null && entry.documentIds().equals(documentIds) ? entry : null;
+    }
+
+    private Entry load(String userId, Set<Long> documentIds) {
+        long loadGeneration = generation.get();
+        Long[] ids = documentIds.toArray(Long[]::new);
+        // LIMIT 으로 세는 범위를 제한해 큰 문서 묶음도 maxRows 건까지만 읽습니다.
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM (SELECT 1 FROM " + TABLE_NAME + " WHERE document_id = ANY(?) LIMIT ?) t",
+                Long.class, ids, maxRows + 1);
+        Entry entry;
+        if (count == null || count > maxRows) {
+            entry = new Entry(documentIds, null, null);
+        } else {
+            entry = read(documentIds, ids, count.intValue());
+        }
+        put(userId, entry, loadGeneration);
+        return entry;
+    }
+
+    private Entry read(Set<Long> documentIds, Long[] ids, int expectedRows) {
+        long start = System.currentTimeMillis();
+        List<String> chunkIds = new ArrayList<>(expectedRows);
+        List<float[]> vectors = new ArrayList<>(expectedRows);
+        jdbcTemplate.query("SELECT id, embedding::text AS embedding FROM " + TABLE_NAME + " WHERE document_id = ANY(?)",
+                rs -> {
+                    String embedding = rs.getString("embedding");
+                    if (embedding == null) {
+                        return;
+                    }
+                    vectors.add(new PGvector(embedding).toArray());
+                    chunkIds.add(rs.getString("id"));
+                }, (Object) ids);
+        if (vectors.isEmpty()) {
+            return new Entry(documentIds, new String[0], new OffHeapVectorMatrix(1, 0));
+        }
+
+        OffHeapVectorMatrix matrix = new OffHeapVectorMatrix(vectors.get(0).length, vectors.size());
+        vectors.forEach(matrix::add);
+        log.debug("정확 검색 캐시 적재, 문서: {}, 청크: {}, {}ms", documentIds, vectors.size(),
+                System.currentTimeMillis() - start);
+        return new Entry(documentIds, chunkIds.toArray(String[]::new), matrix);
+    }
+
+    private synchronized void put(String userId, Entry entry, long loadGeneration) {
+        if (generation.get() != loadGeneration) {
+            return;
+        }
+        Entry previous = entries.put(userId, entry);
+        cachedBytes += entry.bytes() - (previous == null ? 0 : previous.bytes());
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> evicted = eldest.next();
+            if (evicted.getKey().equals(userId)) {
+                continue;
+            }
+            cachedBytes -= evicted.getValue().bytes();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * 사용자의 캐시를 무효화합니다. (활성 문서 변경 시)
+     */
+    public synchronized void invalidateUser(String userId) {
+        generation.incrementAndGet();
+        Entry removed = entries.remove(userId);
+        if (removed != null) {
+            cachedBytes -= removed.bytes();
+        }
+    }
+
+    /**
+     * 문서를 포함한 캐시를 무효화합니다. (문서 삭제, 새 버전 반영 시)
+     */
+    public synchronized void invalidateDocuments(Collection<Long> documentIds) {
+        generation.incrementAndGet();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (documentIds.stream().anyMatch(entry.documentIds()::contains)) {
+                cachedBytes -= entry.bytes();
+                iterator.remove();
+            }
+        }
+    }
+
+    private synchronized long cachedBytes() {
+        return cachedBytes;
+    }
+
+    private Map<String, Object> readMetadata(PGobject pgObject) {
+        try {
+            return objectMapper.readValue(pgObject.getValue(), new TypeReference<Map<String, Object>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("메타데이터 역직렬화 실패", e);
+        }
+    }
+
+    /**
+     * @param documentIds 적재한 활성 문서 ID
+     * @param ids         행 번호 -> 청크 ID
+     * @param matrix      임베딩 행렬, 청크가 많아 적재하지 않았으면 null
+     */
+    private record Entry(Set<Long> documentIds, String[] ids, OffHeapVectorMatrix matrix) {
+
+        long bytes() {
+            return matrix == null ? 0 : matrix.bytes();
+        }
+    }
+}
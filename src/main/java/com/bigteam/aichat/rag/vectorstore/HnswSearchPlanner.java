@@ -0,0 +1,100 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import com.bigteam.aichat.rag.vectorstore.VectorStoreProperties.IterativeScan;
+
+/**
+ * 필터 선택도에 따라 유사도 검색 방식을 정합니다.
+ * HNSW 인덱스 스캔은 ef_search 개의 후보를 찾은 뒤 필터를 적용하므로, 필터에 맞는 비율(선택도)이 낮으면
+ * topK 보다 적은 결과가 돌아옵니다. 이를 막기 위해 선택도에 반비례하게 ef_search 를 키우고,
+ * 상한을 넘으면 반복 인덱스 스캔을 켜며, 맞는 행이 적으면 인덱스 없이 B-tree 로 거른 행만 정확히 정렬합니다.
+ */
+public class HnswSearchPlanner {
+
+    /** pgvector 가 허용하는 ef_search 최댓값 */
+    static final int EF_SEARCH_LIMIT = 1000;
+
+    private final VectorStoreProperties.Hnsw hnsw;
+    private final boolean iterativeScanSupported;
+
+    /**
+     * @param hnsw                   HNSW 검색 설정
+     * @param iterativeScanSupported hnsw.iterative_scan 지원 여부 (pgvector 0.8.0 이상)
+     */
+    public HnswSearchPlanner(VectorStoreProperties.Hnsw hnsw, boolean iterativeScanSupported) {
+        this.hnsw = hnsw;
+        this.iterativeScanSupported = iterativeScanSupported;
+    }
+
+    /**
+     * 필터 없는 검색
+     */
+    public SearchPlan unfiltered(int topK) {
+        return SearchPlan.index(efSearch(Math.max(hnsw.getEfSearch(), topK)), IterativeScan.OFF);
+    }
+
+    /**
+     * 필터 검색
+     *
+     * @param topK             검색 문서 수
+     * @param estimatedMatches 필터에 맞는 예상 행 수 (음수: 알 수 없음)
+     * @param totalRows        전체 예상 행 수 (음수: 알 수 없음)
+     */
+    public SearchPlan filtered(int topK, long estimatedMatches, long totalRows) {
+        if (estimatedMatches < 0) {
+            // 추정 실패 시 재현율을 우선합니다.
+            return SearchPlan.index(efSearch(Math.max(hnsw.getMaxEfSearch(), topK)), iterativeScan());
+        }
+        if (estimatedMatches <= hnsw.getExactSearchMaxRows()) {
+            return SearchPlan.exact();
+        }
+        if (totalRows <= 0 || estimatedMatches >= totalRows) {
+            return unfiltered(topK);
+        }
+
+        double selectivity = (double) estimatedMatches / totalRows;
+        long required = (long) Math.ceil(topK * hnsw.getOverfetch() / selectivity);
+        int efSearch = (int) Math.min(Math.max(required, Math.max(hnsw.getEfSearch(), topK)), Math.max(hnsw.getMaxEfSearch(), topK));
+        IterativeScan iterativeScan = required > efSearch ? iterativeScan() : IterativeScan.OFF;
+        return SearchPlan.index(efSearch(efSearch), iterativeScan);
+    }
+
+    /**
+     * ef_search 를 직접 지정한 검색 (재현율/지연 측정, 요청별 조정용)
+     */
+    public SearchPlan fixed(int efSearch, int topK) {
+        return SearchPlan.index(efSearch(Math.max(efSearch, topK)), IterativeScan.OFF);
+    }
+
+    private IterativeScan iterativeScan() {
+        return iterativeScanSupported ? hnsw.getIterativeScan() : IterativeScan.OFF;
+    }
+
+    private static int efSearch(long value) {
+        return (int) Math.max(1, Math.min(value, EF_SEARCH_LIMIT));
+    }
+
+    public enum Strategy {
+        /** HNSW 인덱스 스캔 (ef_search, 반복 스캔 설정 적용) */
+        INDEX,
+        /** 필터로 거른 행만 정확히 정렬 */
+        EXACT
+    }
+
+    /**
+     * 검색 방식
+     *
+     * @param strategy      인덱스 스캔 또는 정확 검색
+     * @param efSearch      hnsw.ef_search (INDEX 일 때)
+     * @param iterativeScan hnsw.iterative_scan (INDEX 일 때)
+     */
+    public record SearchPlan(Strategy strategy, int efSearch, IterativeScan iterativeScan) {
+
+        static SearchPlan index(int efSearch, IterativeScan iterativeScan) {
+            return new SearchPlan(Strategy.INDEX, efSearch, iterativeScan);
+        }
+
+        static SearchPlan exact() {
+            return new SearchPlan(Strategy.EXACT, 0, IterativeScan.OFF);
+        }
+    }
+}
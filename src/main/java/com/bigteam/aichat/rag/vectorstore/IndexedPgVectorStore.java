@@ -0,0 +1,506 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.postgresql.util.PGobject;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentMetadata;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.bigteam.aichat.rag.vectorstore.HnswSearchPlanner.SearchPlan;
+import com.bigteam.aichat.rag.vectorstore.VectorStoreProperties.IterativeScan;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgvector.PGvector;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 인덱스 컬럼 필터를 사용하는 pgvector 저장소
+ * 저장과 ID 삭제는 PgVectorStore 에 위임하고, 필터가 있는 유사도 검색과 필터 삭제는
+ * {@link MetadataColumnFilterConverter} 로 변환한 조건으로 직접 실행합니다.
+ * PgVectorStore 는 필터를 행마다 JSON 을 해석하는 jsonpath 조건으로만 실행하므로 인덱스를 쓰지 못하지만,
+ * 이 저장소는 document_id, user_id 생성 컬럼의 B-tree 인덱스를 사용하여 플래너가 필터 선택도에 따라
+ * 인덱스로 후보를 좁힌 뒤 정렬할지, HNSW 순서로 훑으며 거를지 고를 수 있습니다.
+ * 시작 시 vector_store 를 jsonb 메타데이터와 인덱스 컬럼 구조로 맞추고, 설정한 m, ef_construction 으로 HNSW 인덱스를 만듭니다. (schema.sql 참고)
+ * 필터 검색은 플래너 추정 행 수로 선택도를 계산해 {@link HnswSearchPlanner} 가 고른 ef_search/반복 스캔을
+ * 트랜잭션 범위(SET LOCAL)로 적용하거나, 맞는 행이 적으면 인덱스 없이 정확 검색합니다.
+ * 필터에 user_id == 조건이 있으면 {@link UserPartitionManager} 로 그 사용자의 파티션만 검색합니다.
+ * 양자화 모드에서는 halfvec/bit 표현식 HNSW 인덱스({@link QuantizedIndex})로 topK 의 배수만큼 후보를 찾고
+ * 테이블의 float32 원본 벡터로 재정렬합니다.
+ */
+@Slf4j
+public class IndexedPgVectorStore implements VectorStore, AutoCloseable {
+
+    private static final String TABLE_NAME = "vector_store";
+
+    private final PgVectorStore delegate;
+    private final JdbcTemplate jdbcTemplate;
+    private final EmbeddingModel embeddingModel;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final VectorStoreProperties.Hnsw hnsw;
+    private final MetadataColumnFilterConverter filterConverter = new MetadataColumnFilterConverter();
+    private final HnswSearchPlanner searchPlanner;
+    private final UserPartitionManager partitionManager;
+    private final int rerankMultiplier;
+    /** 검색에 사용하는 HNSW 인덱스 (양자화 인덱스를 백그라운드로 만드는 동안은 float32 인덱스) */
+    private volatile QuantizedIndex activeIndex;
+
+    public IndexedPgVectorStore(PgVectorStore delegate, JdbcTemplate jdbcTemplate, EmbeddingModel embeddingModel,
+                                ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                VectorStoreProperties properties) {
+        this.delegate = delegate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.embeddingModel = embeddingModel;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.hnsw = properties.getHnsw();
+        this.rerankMultiplier = properties.getQuantization().getRerankMultiplier();
+        int[] version = pgvectorVersion();
+        QuantizedIndex configured = new QuantizedIndex(quantizationMode(properties.getQuantization().getMode(), version),
+                embeddingDimensions(), delegate.getDistanceType());
+        this.activeIndex = configured;
+        if (properties.isInitializeSchema()) {
+            initializeSchema(configured);
+        }
+        this.searchPlanner = new HnswSearchPlanner(hnsw, atLeast(version, 0, 8));
+        this.partitionManager = properties.getPartition().isEnabled()
+                ? new UserPartitionManager(jdbcTemplate, TABLE_NAME, hnsw, properties.getPartition().getDecisionTtl())
+                : null;
+    }
+
+    /**
+     * 메타데이터를 jsonb 로 바꾸고 document_id, user_id, content_tsv 생성 컬럼과 인덱스를 만듭니다. (이미 적용되어 있으면 생략)
+     * json -> jsonb 변환과 생성 컬럼 추가는 테이블을 다시 쓰므로, 대용량 테이블은 schema.sql 의 마이그레이션을 점검 시간에 먼저 실행합니다.
+     */
+    private void initializeSchema(QuantizedIndex configured) {
+        try {
+            String metadataType = jdbcTemplate.queryForObject(
+                    "SELECT data_type FROM information_schema.columns WHERE table_name = ? AND column_name = 'metadata'",
+                    String.class, TABLE_NAME);
+            if ("json".equals(metadataType)) {
+                log.info("vector_store.metadata 를 jsonb 로 변환합니다.");
+                jdbcTemplate.execute("ALTER TABLE " + TABLE_NAME + " ALTER COLUMN metadata TYPE jsonb USING metadata::jsonb");
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE_NAME + " ADD COLUMN IF NOT EXISTS document_id bigint "
+                    + "GENERATED ALWAYS AS ((metadata->>'document_id')::bigint) STORED");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE_NAME + " ADD COLUMN IF NOT EXISTS user_id text "
+                    + "GENERATED ALWAYS AS (metadata->>'user_id') STORED");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS vector_store_document_id_idx ON " + TABLE_NAME + " (document_id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS vector_store_user_id_idx ON " + TABLE_NAME + " (user_id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS vector_store_metadata_idx ON " + TABLE_NAME
+                    + " USING gin (metadata jsonb_path_ops)");
+        } catch (Exception e) {
+            log.warn("vector_store 인덱스 컬럼 초기화 실패", e);
+        }
+        try {
+            initializeKeywordIndex();
+        } catch (Exception e) {
+            log.warn("vector_store 키워드 검색 인덱스 초기화 실패", e);
+        }
+        try {
+            initializeHnswIndex(configured);
+        } catch (Exception e) {
+            log.warn("vector_store HNSW 인덱스 초기화 실패", e);
+        }
+    }
+
+    /**
+     * 키워드 검색({@link KeywordSearcher})용 content_tsv 생성 컬럼과 GIN 인덱스, pg_trgm 인덱스를 만듭니다.
+     * 생성 컬럼이라 청크를 저장(INSERT, ON CONFLICT UPDATE)할 때 함께 계산되어 별도 갱신이 필요 없습니다.
+     */
+    private void initializeKeywordIndex() {
+        jdbcTemplate.execute("ALTER TABLE " + TABLE_NAME + " ADD COLUMN IF NOT EXISTS content_tsv tsvector "
+                + "GENERATED ALWAYS AS (to_tsvector('simple', coalesce(content, ''))) STORED");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS vector_store_content_tsv_idx ON " + TABLE_NAME
+                + " USING gin (content_tsv)");
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS vector_store_content_trgm_idx ON " + TABLE_NAME
+                + " USING gin (content gin_trgm_ops)");
+    }
+
+    /**
+     * 설정한 양자화 방식의 HNSW 인덱스가 없으면 설정한 m, ef_construction 으로 만듭니다.
+     * 기존 float32 인덱스가 있는 상태에서 양자화 모드로 바꾸면(기존 행 마이그레이션) 양자화 인덱스를 백그라운드에서
+     * CREATE INDEX CONCURRENTLY 로 만들고, 완료될 때까지는 float32 인덱스로 검색합니다.
+     * 이미 있는 인덱스의 빌드 설정이 다르면 다시 만드는 비용이 크므로 자동으로 바꾸지 않고 안내만 남깁니다.
+     */
+    private void initializeHnswIndex(QuantizedIndex configured) {
+        Map<String, Map<String, Object>> indexes = new HashMap<>();
+        jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, array_to_string(c.reloptions, ',') AS options, i.indisvalid AS valid "
+                        + "FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid JOIN pg_am a ON a.oid = c.relam "
+                        + "WHERE i.indrelid = ?::regclass AND a.amname = 'hnsw' AND c.relname NOT LIKE ?",
+                TABLE_NAME, UserPartitionManager.INDEX_PREFIX + "%")
+                .forEach(index -> indexes.put((String) index.get("name"), index));
+
+        Map<String, Object> current = indexes.get(configured.indexName());
+        if (current != null && !Boolean.TRUE.equals(current.get("valid"))) {
+            // 중단된 CONCURRENTLY 생성이 남긴 INVALID 인덱스
+            log.warn("INVALID HNSW 인덱스 {} 를 다시 만듭니다.", configured.indexName());
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + configured.indexName());
+            current = null;
+        }
+        if (current != null) {
+            checkBuildOptions(current);
+        } else {
+            QuantizedIndex full = new QuantizedIndex(VectorStoreProperties.QuantizationMode.NONE,
+                    configured.dimensions(), delegate.getDistanceType());
+            if (configured.reranks() && indexes.containsKey(full.indexName())) {
+                activeIndex = full;
+                buildInBackground(configured, full);
+                return;
+            }
+            log.info("HNSW 인덱스를 생성합니다. ({}, m={}, ef_construction={})", configured, hnsw.getM(), hnsw.getEfConstruction());
+            jdbcTemplate.execute(createIndexSql(configured, false));
+        }
+        indexes.keySet().stream()
+                .filter(name -> !name.equals(configured.indexName()))
+                .forEach(name -> log.warn("사용하지 않는 HNSW 인덱스 {} 가 메모리를 차지합니다. DROP INDEX CONCURRENTLY {}; 로 정리하세요.",
+                        name, name));
+    }
+
+    private void buildInBackground(QuantizedIndex configured, QuantizedIndex full) {
+        Thread builder = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            log.info("양자화 HNSW 인덱스를 백그라운드에서 생성합니다. ({}), 완료 전까지 {} 로 검색합니다.",
+                    configured, full.indexName());
+            try {
+                jdbcTemplate.execute(createIndexSql(configured, true));
+                activeIndex = configured;
+                log.info("양자화 HNSW 인덱스 {} 생성 완료 ({}ms). 메모리를 줄이려면 DROP INDEX CONCURRENTLY {}; 를 실행하세요.",
+                        configured.indexName(), System.currentTimeMillis() - start, full.indexName());
+            } catch (Exception e) {
+                log.warn("양자화 HNSW 인덱스 생성 실패, {} 로 계속 검색합니다.", full.indexName(), e);
+            }
+        }, "vector-quantized-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private String createIndexSql(QuantizedIndex index, boolean concurrently) {
+        return "CREATE INDEX " + (concurrently ? "CONCURRENTLY " : "") + "IF NOT EXISTS " + index.indexName()
+                + " ON " + TABLE_NAME + " USING hnsw (" + index.indexTarget() + ") WITH (m = " + hnsw.getM()
+                + ", ef_construction = " + hnsw.getEfConstruction() + ")";
+    }
+
+    private void checkBuildOptions(Map<String, Object> index) {
+        // 지정하지 않은 옵션은 pgvector 기본값(m=16, ef_construction=64)
+        Map<String, String> actual = new HashMap<>(Map.of("m", "16", "ef_construction", "64"));
+        String options = (String) index.get("options");
+        if (StringUtils.hasText(options)) {
+            for (String option : options.split(",")) {
+                String[] pair = option.split("=", 2);
+                actual.put(pair[0], pair.length > 1 ? pair[1] : "");
+            }
+        }
+        if (!String.valueOf(hnsw.getM()).equals(actual.get("m"))
+                || !String.valueOf(hnsw.getEfConstruction()).equals(actual.get("ef_construction"))) {
+            log.warn("HNSW 인덱스 {} 의 빌드 설정(m={}, ef_construction={})이 설정값(m={}, ef_construction={})과 다릅니다. 점검 시간에 "
+                            + "ALTER INDEX {} SET (m = {}, ef_construction = {}); REINDEX INDEX CONCURRENTLY {}; 로 다시 만드세요.",
+                    index.get("name"), actual.get("m"), actual.get("ef_construction"), hnsw.getM(), hnsw.getEfConstruction(),
+                    index.get("name"), hnsw.getM(), hnsw.getEfConstruction(), index.get("name"));
+        }
+    }
+
+    /**
+     * halfvec, binary_quantize 는 pgvector 0.7.0 부터 지원합니다.
+     */
+    private static VectorStoreProperties.QuantizationMode quantizationMode(VectorStoreProperties.QuantizationMode mode,
+                                                                           int[] version) {
+        if (mode != VectorStoreProperties.QuantizationMode.NONE && !atLeast(version, 0, 7)) {
+            log.warn("pgvector 0.7.0 미만이거나 버전을 알 수 없어 {} 양자화 대신 float32 인덱스를 사용합니다.", mode);
+            return VectorStoreProperties.QuantizationMode.NONE;
+        }
+        return mode;
+    }
+
+    /**
+     * embedding 컬럼 차원 (vector(n) 의 n), 알 수 없으면 임베딩 모델 차원
+     */
+    private int embeddingDimensions() {
+        try {
+            Integer dimensions = jdbcTemplate.queryForObject(
+                    "SELECT atttypmod FROM pg_attribute WHERE attrelid = ?::regclass AND attname = 'embedding'",
+                    Integer.class, TABLE_NAME);
+            if (dimensions != null && dimensions > 0) {
+                return dimensions;
+            }
+        } catch (Exception e) {
+            log.debug("embedding 컬럼 차원 조회 실패", e);
+        }
+        return embeddingModel.dimensions();
+    }
+
+    /**
+     * @return {major, minor}, 확인 실패 시 null
+     */
+    private int[] pgvectorVersion() {
+        try {
+            String version = jdbcTemplate.queryForObject(
+                    "SELECT extversion FROM pg_extension WHERE extname = 'vector'", String.class);
+            String[] parts = version.split("\\.");
+            int[] parsed = {Integer.parseInt(parts[0]), parts.length > 1 ? Integer.parseInt(parts[1]) : 0};
+            // hnsw.iterative_scan 은 pgvector 0.8.0 부터 지원합니다.
+            log.info("pgvector {}, 반복 인덱스 스캔 {}", version, atLeast(parsed, 0, 8) ? "사용 가능" : "미지원");
+            return parsed;
+        } catch (Exception e) {
+            log.warn("pgvector 버전 확인 실패, 반복 인덱스 스캔과 양자화 인덱스를 사용하지 않습니다.", e);
+            return null;
+        }
+    }
+
+    private static boolean atLeast(int[] version, int major, int minor) {
+        return version != null && (version[0] > major || version[0] == major && version[1] >= minor);
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        delegate.add(documents);
+        if (partitionManager != null) {
+            documents.stream()
+                    .map(document -> document.getMetadata().get("user_id"))
+                    .filter(Objects::nonNull)
+                    .map(String::valueOf)
+                    .distinct()
+                    .forEach(partitionManager::invalidate);
+        }
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+        delegate.delete(idList);
+        if (partitionManager != null) {
+            partitionManager.invalidateAll();
+        }
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+        MetadataColumnFilterConverter.SqlFilter filter = filterConverter.convert(filterExpression);
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM " + TABLE_NAME + " WHERE " + filter.sql(),
+                    filter.params().toArray());
+            log.debug("필터 삭제 완료, 삭제 수: {}", deleted);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to delete documents by filter", e);
+        }
+        if (partitionManager != null) {
+            String userId = filterConverter.requiredEquality(filterExpression, "user_id");
+            if (userId != null) {
+                partitionManager.invalidate(userId);
+            } else {
+                partitionManager.invalidateAll();
+            }
+        }
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        QuantizedIndex index = activeIndex;
+        MetadataColumnFilterConverter.SqlFilter filter = convertFilter(request);
+        if (filter == null) {
+            return similaritySearch(request, null, searchPlanner.unfiltered(request.getTopK()), index);
+        }
+        String userId = partitionManager == null ? null
+                : filterConverter.requiredEquality(request.getFilterExpression(), "user_id");
+        if (userId != null) {
+            // 파티션 조건을 리터럴로 붙여 플래너가 사용자 부분 인덱스를 고르게 합니다.
+            MetadataColumnFilterConverter.SqlFilter partitioned = new MetadataColumnFilterConverter.SqlFilter(
+                    UserPartitionManager.predicate(userId) + " AND " + filter.sql(), filter.params());
+            switch (partitionManager.resolve(userId, index)) {
+                case EXACT:
+                    return similaritySearch(request, partitioned, SearchPlan.exact(), index);
+                case INDEXED: {
+                    // 선택도는 사용자 파티션 행 수 기준
+                    long partitionRows = estimateMatches(new MetadataColumnFilterConverter.SqlFilter(
+                            UserPartitionManager.predicate(userId), List.of()));
+                    return similaritySearch(request, partitioned,
+                            searchPlanner.filtered(request.getTopK(), estimateMatches(partitioned), partitionRows), index);
+                }
+                default:
+                    break;
+            }
+        }
+        return similaritySearch(request, filter,
+                searchPlanner.filtered(request.getTopK(), estimateMatches(filter), estimateTotalRows()), index);
+    }
+
+    /**
+     * ef_search 를 직접 지정한 유사도 검색 (선택도 추정 없이 HNSW 인덱스 스캔)
+     *
+     * @param request  검색 요청
+     * @param efSearch hnsw.ef_search (topK 보다 작으면 topK)
+     */
+    public List<Document> similaritySearch(SearchRequest request, int efSearch) {
+        return similaritySearch(request, convertFilter(request), searchPlanner.fixed(efSearch, request.getTopK()),
+                activeIndex);
+    }
+
+    private List<Document> similaritySearch(SearchRequest request, MetadataColumnFilterConverter.SqlFilter filter,
+                                            SearchPlan plan, QuantizedIndex index) {
+        PGvector queryEmbedding = new PGvector(embeddingModel.embed(request.getQuery()));
+        String operator = delegate.getDistanceType().operator;
+        double maxDistance = 1.0 - request.getSimilarityThreshold();
+        String filterSql = filter == null ? null : filter.sql();
+        List<Object> filterParams = filter == null ? List.of() : filter.params();
+
+        List<Object> params = new ArrayList<>();
+        String sql;
+        if (plan.strategy() == HnswSearchPlanner.Strategy.EXACT) {
+            // MATERIALIZED 로 후보를 먼저 거르면 HNSW 인덱스 순서 스캔을 쓰지 않고 거른 행만 정확히 정렬합니다.
+            sql = "WITH candidates AS MATERIALIZED (SELECT id, content, metadata, embedding FROM " + TABLE_NAME
+                    + " WHERE " + filterSql + ") SELECT id, content, metadata, embedding " + operator
+                    + " ? AS distance FROM candidates WHERE embedding " + operator + " ? < ? ORDER BY distance LIMIT ?";
+            params.addAll(filterParams);
+            params.add(queryEmbedding);
+            params.add(queryEmbedding);
+            params.add(maxDistance);
+            params.add(request.getTopK());
+            return jdbcTemplate.query(sql, documentRowMapper(), params.toArray());
+        }
+
+        int efSearch = plan.efSearch();
+        if (index.reranks()) {
+            // 양자화 인덱스 순서로 후보를 찾고 원본 벡터 거리로 재정렬 (임계값도 원본 거리로 적용)
+            int candidates = Math.min(HnswSearchPlanner.EF_SEARCH_LIMIT, request.getTopK() * rerankMultiplier);
+            efSearch = Math.min(HnswSearchPlanner.EF_SEARCH_LIMIT, Math.max(efSearch, candidates));
+            sql = "WITH candidates AS MATERIALIZED (SELECT id, content, metadata, embedding FROM " + TABLE_NAME
+                    + (filterSql == null ? "" : " WHERE " + filterSql)
+                    + " ORDER BY " + index.orderBy() + " LIMIT ?) SELECT id, content, metadata, embedding " + operator
+                    + " ? AS distance FROM candidates WHERE embedding " + operator + " ? < ? ORDER BY distance LIMIT ?";
+            params.addAll(filterParams);
+            params.add(queryEmbedding);
+            params.add(candidates);
+            params.add(queryEmbedding);
+            params.add(queryEmbedding);
+            params.add(maxDistance);
+            params.add(request.getTopK());
+        } else {
+            sql = "SELECT id, content, metadata, embedding " + operator + " ? AS distance FROM " + TABLE_NAME
+                    + " WHERE embedding " + operator + " ? < ?"
+                    + (filterSql == null ? "" : " AND " + filterSql)
+                    + " ORDER BY distance LIMIT ?";
+            if (plan.iterativeScan() == IterativeScan.RELAXED_ORDER) {
+                // relaxed_order 는 결과 순서가 조금 어긋날 수 있어 다시 정렬합니다.
+                sql = "WITH results AS MATERIALIZED (" + sql + ") SELECT * FROM results ORDER BY distance";
+            }
+            params.add(queryEmbedding);
+            params.add(queryEmbedding);
+            params.add(maxDistance);
+            params.addAll(filterParams);
+            params.add(request.getTopK());
+        }
+        String query = sql;
+        int scanEfSearch = efSearch;
+        return transactionTemplate.execute(status -> {
+            // set_config(..., true) 는 SET LOCAL 과 같아 트랜잭션이 끝나면 원래 값으로 돌아갑니다.
+            setLocal("hnsw.ef_search", String.valueOf(scanEfSearch));
+            if (plan.iterativeScan() != IterativeScan.OFF) {
+                setLocal("hnsw.iterative_scan", plan.iterativeScan().settingValue());
+                setLocal("hnsw.max_scan_tuples", String.valueOf(hnsw.getMaxScanTuples()));
+            }
+            return jdbcTemplate.query(query, documentRowMapper(), params.toArray());
+        });
+    }
+
+    private MetadataColumnFilterConverter.SqlFilter convertFilter(SearchRequest request) {
+        if (request.getFilterExpression() == null) {
+            return null;
+        }
+        MetadataColumnFilterConverter.SqlFilter filter = filterConverter.convert(request.getFilterExpression());
+        return StringUtils.hasText(filter.sql()) ? filter : null;
+    }
+
+    private void setLocal(String name, String value) {
+        jdbcTemplate.queryForObject("SELECT set_config(?, ?, true)", String.class, name, value);
+    }
+
+    /**
+     * 필터에 맞는 행 수의 플래너 추정값 (document_id, user_id 인덱스 통계 사용, 실패 시 -1)
+     */
+    private long estimateMatches(MetadataColumnFilterConverter.SqlFilter filter) {
+        try {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) SELECT 1 FROM " + TABLE_NAME
+                    + " WHERE " + filter.sql(), String.class, filter.params().toArray());
+            JsonNode rows = objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            return rows.isNumber() ? rows.asLong() : -1;
+        } catch (Exception e) {
+            log.debug("필터 선택도 추정 실패", e);
+            return -1;
+        }
+    }
+
+    /**
+     * 전체 행 수의 통계 추정값 (ANALYZE 전이면 -1)
+     */
+    private long estimateTotalRows() {
+        try {
+            Long rows = jdbcTemplate.queryForObject(
+                    "SELECT reltuples::bigint FROM pg_class WHERE oid = ?::regclass", Long.class, TABLE_NAME);
+            return rows == null ? -1 : rows;
+        } catch (Exception e) {
+            log.debug("전체 행 수 추정 실패", e);
+            return -1;
+        }
+    }
+
+    private RowMapper<Document> documentRowMapper() {
+        return (rs, rowNum) -> {
+            float distance = rs.getFloat("distance");
+            Map<String, Object> metadata = readMetadata(rs.getObject("metadata", PGobject.class));
+            metadata.put(DocumentMetadata.DISTANCE.value(), distance);
+            return Document.builder()
+                    .id(rs.getString("id"))
+                    .text(rs.getString("content"))
+                    .metadata(metadata)
+                    .score(1.0 - distance)
+                    .build();
+        };
+    }
+
+    private Map<String, Object> readMetadata(PGobject pgObject) {
+        try {
+            return objectMapper.readValue(pgObject.getValue(), new TypeReference<Map<String, Object>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("메타데이터 역직렬화 실패", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (partitionManager != null) {
+            partitionManager.close();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> getNativeClient() {
+        return Optional.of((T) jdbcTemplate);
+    }
+}
@@ -0,0 +1,163 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.postgresql.util.PGobject;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * vector_store.content 키워드 검색 (하이브리드 검색의 어휘 검색)
+ * 제품 코드, 오류 코드 같은 식별자는 임베딩 유사도가 낮게 나와 임계값에 걸리기 쉬우므로 본문 일치로 따로 찾습니다.
+ * - content_tsv (to_tsvector('simple', content) 생성 컬럼, GIN): 질의 단어의 접두어 일치 OR 검색
+ *   한국어는 형태소 분석 없이 어절 단위로 저장되므로 접두어 일치로 조사가 붙은 어절("오류가")도 찾습니다.
+ * - content (pg_trgm GIN): 숫자가 섞인 식별자는 tsvector 파서가 쪼갤 수 있어 부분 문자열(ILIKE)로 찾고 점수를 더 줍니다.
+ * 결과 score 는 유사도가 아니므로 비우고, 순위 점수는 메타데이터(keyword_score)에 보관합니다.
+ */
+@Slf4j
+@Component
+public class KeywordSearcher {
+
+    public static final String KEYWORD_SCORE_METADATA_KEY = "keyword_score";
+
+    private static final String TABLE_NAME = "vector_store";
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z0-9]+(?:[-_.:/][A-Za-z0-9]+)*");
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERMS = 16;
+    private static final int MAX_IDENTIFIERS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MetadataColumnFilterConverter filterConverter = new MetadataColumnFilterConverter();
+
+    public KeywordSearcher(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param text   질의
+     * @param filter 벡터 검색과 같은 필터 (null 이면 전체)
+     * @param topK   최대 결과 수
+     * @return 키워드 순위 점수 내림차순 청크
+     */
+    public List<Document> search(String text, Filter.Expression filter, int topK) {
+        KeywordQuery query = KeywordQuery.parse(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> matches = new ArrayList<>();
+        List<Object> scoreParams = new ArrayList<>();
+        List<Object> matchParams = new ArrayList<>();
+        StringBuilder score = new StringBuilder();
+        if (query.tsQuery() != null) {
+            score.append("ts_rank_cd(content_tsv, to_tsquery('simple', ?))");
+            scoreParams.add(query.tsQuery());
+            matches.add("content_tsv @@ to_tsquery('simple', ?)");
+            matchParams.add(query.tsQuery());
+        }
+        for (String identifier : query.identifiers()) {
+            // 식별자 일치는 단어 순위보다 우선
+            score.append(score.isEmpty() ? "" : " + ").append("CASE WHEN content ILIKE ? THEN 1 ELSE 0 END");
+            scoreParams.add(likePattern(identifier));
+            matches.add("content ILIKE ?");
+            matchParams.add(likePattern(identifier));
+        }
+
+        List<Object> params = new ArrayList<>(scoreParams);
+        params.addAll(matchParams);
+        String where = "(" + String.join(" OR ", matches) + ")";
+        if (filter != null) {
+            MetadataColumnFilterConverter.SqlFilter sqlFilter = filterConverter.convert(filter);
+            where += " AND " + sqlFilter.sql();
+            params.addAll(sqlFilter.params());
+        }
+        params.add(topK);
+
+        return jdbcTemplate.query("SELECT id, content, metadata, " + score + " AS score FROM " + TABLE_NAME
+                        + " WHERE " + where + " ORDER BY score DESC LIMIT ?",
+                (rs, rowNum) -> {
+                    Map<String, Object> metadata = readMetadata(rs.getObject("metadata", PGobject.class));
+                    metadata.put(KEYWORD_SCORE_METADATA_KEY, rs.getDouble("score"));
+                    return Document.builder()
+                            .id(rs.getString("id"))
+                            .text(rs.getString("content"))
+                            .metadata(metadata)
+                            .build();
+                },
+                params.toArray());
+    }
+
+    private static String likePattern(String identifier) {
+        return "%" + identifier.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private Map<String, Object> readMetadata(PGobject pgObject) {
+        try {
+            return objectMapper.readValue(pgObject.getValue(), new TypeReference<Map<String, Object>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("메타데이터 역직렬화 실패", e);
+        }
+    }
+
+    /**
+     * 질의에서 만든 키워드 조건
+     *
+     * @param tsQuery     to_tsquery 문자열 ("단어:* | 단어:*"), 단어가 없으면 null
+     * @param identifiers 숫자가 섞인 식별자 (부분 문자열 검색)
+     */
+    public record KeywordQuery(String tsQuery, List<String> identifiers) {
+
+        /**
+         * 단어는 문자/숫자만 남기므로 to_tsquery 연산자가 들어갈 수 없습니다.
+         */
+        public static KeywordQuery parse(String text) {
+            Set<String> terms = new LinkedHashSet<>();
+            for (String term : TERM_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (term.length() >= MIN_TERM_LENGTH && terms.size() < MAX_TERMS) {
+                    terms.add(term);
+                }
+            }
+            String tsQuery = terms.isEmpty() ? null
+                    : String.join(" | ", terms.stream().map(term -> term + ":*").toList());
+            return new KeywordQuery(tsQuery, identifiers(text));
+        }
+
+        /**
+         * 숫자와 영문자가 함께 있는 토큰 (E1023, SKU-12-AB, v2.3.1 등)
+         */
+        public static List<String> identifiers(String text) {
+            Set<String> identifiers = new LinkedHashSet<>();
+            Matcher matcher = IDENTIFIER.matcher(text);
+            while (matcher.find() && identifiers.size() < MAX_IDENTIFIERS) {
+                String token = matcher.group();
+                if (token.length() >= 3 && token.chars().anyMatch(Character::isDigit)
+                        && token.chars().anyMatch(Character::isLetter)) {
+                    identifiers.add(token);
+                }
+            }
+            return List.copyOf(identifiers);
+        }
+
+        public boolean isEmpty() {
+            return tsQuery == null && identifiers.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.pgvector.PgVectorFilterExpressionConverter;
+
+/**
+ * 필터 표현식을 vector_store 의 SQL 조건으로 변환합니다.
+ * document_id, user_id 조건은 메타데이터에서 생성된 인덱스 컬럼 비교로 바꿔 B-tree 인덱스를 사용하고,
+ * 그 밖의 키는 jsonb 경로 조건(metadata @@ jsonpath, GIN jsonb_path_ops 인덱스 사용)으로 변환합니다.
+ * 값은 모두 바인딩 파라미터로 전달합니다.
+ */
+public class MetadataColumnFilterConverter {
+
+    /** 메타데이터 키 -> 인덱스 컬럼 타입 */
+    private static final Map<String, ColumnType> INDEXED_COLUMNS = Map.of(
+            "document_id", ColumnType.BIGINT,
+            "user_id", ColumnType.TEXT);
+
+    private enum ColumnType {
+        BIGINT, TEXT
+    }
+
+    private final PgVectorFilterExpressionConverter jsonPathConverter = new PgVectorFilterExpressionConverter();
+
+    /**
+     * @param expression 필터 표현식
+     * @return SQL 조건과 바인딩 파라미터
+     */
+    public SqlFilter convert(Filter.Expression expression) {
+        List<Object> params = new ArrayList<>();
+        String sql = convert(expression, params);
+        return new SqlFilter(sql, params);
+    }
+
+    private String convert(Filter.Expression expression, List<Object> params) {
+        switch (expression.type()) {
+            case AND:
+            case OR: {
+                String left = convertOperand(expression.left(), params);
+                String right = convertOperand(expression.right(), params);
+                return "(" + left + (expression.type() == Filter.ExpressionType.AND ? " AND " : " OR ") + right + ")";
+            }
+            case NOT:
+                return "NOT (" + convertOperand(expression.left(), params) + ")";
+            default:
+                break;
+        }
+
+        if (expression.left() instanceof Filter.Key key && expression.right() instanceof Filter.Value value) {
+            ColumnType columnType = INDEXED_COLUMNS.get(unquote(key.key()));
+            if (columnType != null) {
+                return columnCondition(unquote(key.key()), columnType, expression.type(), value.value(), params);
+            }
+        }
+        params.add(jsonPathConverter.convertExpression(expression));
+        return "metadata @@ ?::jsonpath";
+    }
+
+    private String convertOperand(Filter.Operand operand, List<Object> params) {
+        if (operand instanceof Filter.Group group) {
+            return convert(group.content(), params);
+        }
+        if (operand instanceof Filter.Expression expression) {
+            return convert(expression, params);
+        }
+        throw new IllegalArgumentException("지원되지 않는 필터 피연산자: " + operand);
+    }
+
+    /**
+     * 필터 전체가 반드시 만족해야 하는(최상위 AND 로 연결된) key == value 조건의 값을 찾습니다.
+     *
+     * @return 값, 없거나 OR/NOT 아래에만 있으면 null
+     */
+    public String requiredEquality(Filter.Expression expression, String key) {
+        if (expression.type() == Filter.ExpressionType.AND) {
+            String left = requiredEquality(expression.left(), key);
+            return left != null ? left : requiredEquality(expression.right(), key);
+        }
+        if (expression.type() == Filter.ExpressionType.EQ && expression.left() instanceof Filter.Key k
+                && key.equals(unquote(k.key())) && expression.right() instanceof Filter.Value value
+                && value.value() != null) {
+            return String.valueOf(value.value());
+        }
+        return null;
+    }
+
+    private String requiredEquality(Filter.Operand operand, String key) {
+        if (operand instanceof Filter.Group group) {
+            return requiredEquality(group.content(), key);
+        }
+        return operand instanceof Filter.Expression expression ? requiredEquality(expression, key) : null;
+    }
+
+    private static String columnCondition(String column, ColumnType type, Filter.ExpressionType operator,
+                                          Object value, List<Object> params) {
+        switch (operator) {
+            case IN:
+            case NIN: {
+                List<?> values = value instanceof List<?> list ? list : List.of(value);
+                Object[] array = type == ColumnType.BIGINT
+                        ? values.stream().map(MetadataColumnFilterConverter::toLong).toArray(Long[]::new)
+                        : values.stream().map(String::valueOf).toArray(String[]::new);
+                params.add(array);
+                return operator == Filter.ExpressionType.IN
+                        ? column + " = ANY(?)"
+                        : "(" + column + " IS NULL OR " + column + " <> ALL(?))";
+            }
+            default:
+                params.add(type == ColumnType.BIGINT ? toLong(value) : String.valueOf(value));
+                return column + " " + comparison(operator) + " ?";
+        }
+    }
+
+    private static String comparison(Filter.ExpressionType operator) {
+        return switch (operator) {
+            case EQ -> "=";
+            case NE -> "<>";
+            case GT -> ">";
+            case GTE -> ">=";
+            case LT -> "<";
+            case LTE -> "<=";
+            default -> throw new IllegalArgumentException("지원되지 않는 필터 연산자: " + operator);
+        };
+    }
+
+    /**
+     * 필터 문자열은 숫자와 문자열 리터럴('1')을 모두 허용하므로 bigint 로 맞춥니다.
+     */
+    private static Long toLong(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        try {
+            return Long.valueOf(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("숫자 값이 필요합니다: " + value, e);
+        }
+    }
+
+    private static String unquote(String key) {
+        if (key.length() > 1 && (key.startsWith("\"") && key.endsWith("\"") || key.startsWith("'") && key.endsWith("'"))) {
+            return key.substring(1, key.length() - 1);
+        }
+        return key;
+    }
+
+    /**
+     * SQL 조건과 바인딩 파라미터
+     *
+     * @param sql    WHERE 절 조건
+     * @param params 바인딩 파라미터 (조건의 ? 순서)
+     */
+    public record SqlFilter(String sql, List<Object> params) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 힙 밖(direct buffer)에 저장한 정규화 벡터 행렬과 정확한 코사인 top-k 검색
+ * 행 우선 연속 배치로 저장하고 저장 시 정규화하므로 코사인 유사도는 내적 하나로 계산됩니다.
+ * 내적은 누산기 4개로 풀어 써서 JIT 가 루프 의존성 없이 파이프라인/벡터 연산으로 처리하기 쉽게 합니다.
+ * 채우기(add)는 한 스레드에서 끝낸 뒤 공유하고, 검색은 여러 스레드에서 동시에 할 수 있습니다. (절대 위치 읽기만 사용)
+ */
+public class OffHeapVectorMatrix {
+
+    private final int dimensions;
+    private final int capacity;
+    private final FloatBuffer buffer;
+    private int rows;
+
+    public OffHeapVectorMatrix(int dimensions, int capacity) {
+        this.dimensions = dimensions;
+        this.capacity = capacity;
+        this.buffer = ByteBuffer.allocateDirect(Math.multiplyExact(Math.multiplyExact(dimensions, capacity), Float.BYTES))
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+    }
+
+    /**
+     * 벡터를 정규화하여 다음 행에 저장합니다.
+     *
+     * @return 행 번호
+     */
+    public int add(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("차원이 다릅니다: " + vector.length + " != " + dimensions);
+        }
+        if (rows == capacity) {
+            throw new IllegalStateException("행렬이 가득 찼습니다: " + capacity);
+        }
+        float[] normalized = normalize(vector);
+        buffer.put(rows * dimensions, normalized);
+        return rows++;
+    }
+
+    /**
+     * 정확한 코사인 top-k
+     *
+     * @param query    질의 벡터 (정규화 전)
+     * @param topK     반환할 최대 행 수
+     * @param minScore 최소 코사인 유사도
+     * @return 유사도 내림차순 행
+     */
+    public List<ScoredRow> topK(float[] query, int topK, double minScore) {
+        if (query.length != dimensions) {
+            throw new IllegalArgumentException("차원이 다릅니다: " + query.length + " != " + dimensions);
+        }
+        float[] q = normalize(query);
+        float[] row = new float[dimensions];
+        // 최소 힙 (heapScores[0] 이 현재 k 개 중 가장 낮은 점수)
+        int k = Math.min(topK, rows);
+        int[] heapRows = new int[k];
+        float[] heapScores = new float[k];
+        int size = 0;
+        for (int r = 0; r < rows; r++) {
+            buffer.get(r * dimensions, row);
+            float score = dot(q, row);
+            if (score < minScore) {
+                continue;
+            }
+            if (size < k) {
+                heapRows[size] = r;
+                heapScores[size] = score;
+                siftUp(heapRows, heapScores, size++);
+            } else if (k > 0 && score > heapScores[0]) {
+                heapRows[0] = r;
+                heapScores[0] = score;
+                siftDown(heapRows, heapScores, size);
+            }
+        }
+
+        List<ScoredRow> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new ScoredRow(heapRows[i], heapScores[i]));
+        }
+        result.sort((a, b) -> Float.compare(b.score(), a.score()));
+        return result;
+    }
+
+    static float dot(float[] a, float[] b) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        int bound = a.length & ~3;
+        for (; i < bound; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = Math.sqrt(dot(vector, vector));
+        float[] normalized = new float[vector.length];
+        if (norm == 0) {
+            return normalized;
+        }
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = (float) (vector[i] / norm);
+        }
+        return normalized;
+    }
+
+    private static void siftUp(int[] rows, float[] scores, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= scores[i]) {
+                return;
+            }
+            swap(rows, scores, parent, i);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] rows, float[] scores, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[i] <= scores[smallest]) {
+                return;
+            }
+            swap(rows, scores, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] rows, float[] scores, int a, int b) {
+        int row = rows[a];
+        rows[a] = rows[b];
+        rows[b] = row;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    /** 힙 밖 메모리 사용량 */
+    public long bytes() {
+        return (long) dimensions * capacity * Float.BYTES;
+    }
+
+    /**
+     * @param row   행 번호
+     * @param score 코사인 유사도
+     */
+    public record ScoredRow(int row, float score) {
+    }
+}
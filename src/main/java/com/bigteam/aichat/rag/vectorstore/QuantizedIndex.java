@@ -0,0 +1,88 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgDistanceType;
+
+import com.bigteam.aichat.rag.vectorstore.VectorStoreProperties.QuantizationMode;
+
+/**
+ * 양자화 방식별 HNSW 인덱스 정의와 후보 검색 정렬식
+ * 양자화 인덱스는 embedding 컬럼의 표현식 인덱스로 만들어 테이블의 float32 원본은 그대로 두고,
+ * 검색 시 인덱스 정렬식으로 후보를 찾은 뒤 원본 벡터 거리로 재정렬합니다.
+ * 정렬식은 인덱스 표현식과 글자 그대로 같아야 플래너가 인덱스를 사용합니다.
+ */
+public class QuantizedIndex {
+
+    private final QuantizationMode mode;
+    private final int dimensions;
+    private final PgDistanceType distanceType;
+
+    public QuantizedIndex(QuantizationMode mode, int dimensions, PgDistanceType distanceType) {
+        this.mode = mode;
+        this.dimensions = dimensions;
+        this.distanceType = distanceType;
+    }
+
+    public QuantizationMode mode() {
+        return mode;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * 원본 벡터 재정렬 여부 (양자화 인덱스)
+     */
+    public boolean reranks() {
+        return mode != QuantizationMode.NONE;
+    }
+
+    /**
+     * 전체 인덱스 이름 (float32 인덱스는 Spring AI 기본 이름 유지)
+     */
+    public String indexName() {
+        return switch (mode) {
+            case NONE -> "spring_ai_vector_index";
+            case HALFVEC -> "vector_store_embedding_halfvec_idx";
+            case BINARY -> "vector_store_embedding_bit_idx";
+        };
+    }
+
+    /**
+     * 사용자 파티션 인덱스 이름 접미사 (방식이 바뀌면 새 이름으로 다시 생성)
+     */
+    public String partitionIndexSuffix() {
+        return switch (mode) {
+            case NONE -> "_hnsw";
+            case HALFVEC -> "_halfvec_hnsw";
+            case BINARY -> "_bit_hnsw";
+        };
+    }
+
+    /**
+     * CREATE INDEX ... USING hnsw (여기) 에 들어갈 표현식과 연산자 클래스
+     */
+    public String indexTarget() {
+        return switch (mode) {
+            case NONE -> "embedding " + distanceType.index;
+            case HALFVEC -> "(embedding::halfvec(" + dimensions + ")) " + distanceType.index.replace("vector_", "halfvec_");
+            case BINARY -> "(binary_quantize(embedding)::bit(" + dimensions + ")) bit_hamming_ops";
+        };
+    }
+
+    /**
+     * 인덱스 순서로 후보를 찾는 정렬식 (? 에 질의 벡터 바인딩)
+     */
+    public String orderBy() {
+        return switch (mode) {
+            case NONE -> "embedding " + distanceType.operator + " ?";
+            case HALFVEC -> "embedding::halfvec(" + dimensions + ") " + distanceType.operator + " ?::halfvec(" + dimensions + ")";
+            case BINARY -> "binary_quantize(embedding)::bit(" + dimensions + ") <~> binary_quantize(?::vector)";
+        };
+    }
+
+    @Override
+    public String toString() {
+        return mode + "(" + dimensions + ")";
+    }
+}
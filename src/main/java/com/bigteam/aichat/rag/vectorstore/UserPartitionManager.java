@@ -0,0 +1,193 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 사용자별 vector_store 파티션 관리
+ * 청크가 많은 사용자는 user_id 조건의 부분 HNSW 인덱스(사용자 파티션)를 만들어 그 사용자의 그래프만 탐색하고,
+ * 청크가 적은 사용자는 인덱스 없이 user_id B-tree 로 거른 행만 정확히 정렬합니다.
+ * 부분 인덱스는 임계값을 넘은 사용자가 처음 검색할 때 백그라운드에서 CREATE INDEX CONCURRENTLY 로 만들며,
+ * 만들어지기 전까지는 전체 인덱스로 검색합니다.
+ * 인덱스가 없는 사용자의 판단(EXACT/GLOBAL)은 decisionTtl 동안 캐시하여 검색마다 행 수를 세지 않으며,
+ * 청크를 저장하거나 삭제하면 {@link #invalidate(String)}, {@link #invalidateAll()} 로 비웁니다.
+ */
+@Slf4j
+public class UserPartitionManager implements AutoCloseable {
+
+    static final String INDEX_PREFIX = "vector_store_user_";
+    private static final int MAX_DECISIONS = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String tableName;
+    private final VectorStoreProperties.Hnsw hnsw;
+    private final long decisionTtlNanos;
+
+    /** 사용 가능한 파티션 인덱스 이름 */
+    private final Set<String> readyIndexes = ConcurrentHashMap.newKeySet();
+    /** 생성 중인 파티션 인덱스 이름 */
+    private final Set<String> pendingIndexes = ConcurrentHashMap.newKeySet();
+    /** 사용자 ID -> 파티션 인덱스가 없는 사용자의 판단 (EXACT/GLOBAL) */
+    private final Map<String, Decision> decisions = new ConcurrentHashMap<>();
+    private final ExecutorService indexBuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "vector-partition-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param hnsw        인덱스 생성 설정, exactSearchMaxRows 를 넘는 청크를 가진 사용자만 파티션 인덱스 생성 (이하이면 정확 검색)
+     * @param decisionTtl 인덱스가 없는 사용자의 판단 캐시 유효 시간 (0 이면 캐시하지 않음)
+     */
+    public UserPartitionManager(JdbcTemplate jdbcTemplate, String tableName, VectorStoreProperties.Hnsw hnsw,
+                                Duration decisionTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tableName = tableName;
+        this.hnsw = hnsw;
+        this.decisionTtlNanos = decisionTtl.toNanos();
+        loadIndexes();
+    }
+
+    private void loadIndexes() {
+        try {
+            List<String> names = jdbcTemplate.queryForList(
+                    "SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid "
+                            + "WHERE i.indrelid = ?::regclass AND i.indisvalid AND c.relname LIKE ?",
+                    String.class, tableName, INDEX_PREFIX + "%");
+            readyIndexes.addAll(names);
+            log.info("사용자 파티션 인덱스 {}개 확인", names.size());
+        } catch (Exception e) {
+            log.warn("사용자 파티션 인덱스 조회 실패", e);
+        }
+    }
+
+    /**
+     * 사용자의 검색 파티션을 확인합니다.
+     * 파티션 인덱스가 필요하지만 아직 없으면 백그라운드 생성을 예약하고 GLOBAL 을 반환합니다.
+     * 인덱스가 없는 사용자는 캐시한 판단이 유효하면 행 수를 다시 세지 않습니다.
+     *
+     * @param index 검색에 사용하는 HNSW 인덱스 방식 (파티션 인덱스도 같은 표현식으로 생성)
+     */
+    public Partition resolve(String userId, QuantizedIndex index) {
+        String indexName = indexName(userId, index.partitionIndexSuffix());
+        if (readyIndexes.contains(indexName)) {
+            return Partition.INDEXED;
+        }
+        long now = System.nanoTime();
+        Decision cached = decisions.get(userId);
+        if (cached != null && now - cached.expiresAt() < 0) {
+            return cached.partition();
+        }
+        // LIMIT 으로 세는 범위를 제한해 큰 사용자도 user_id 인덱스를 exactSearchMaxRows 건까지만 읽습니다.
+        long maxRows = hnsw.getExactSearchMaxRows();
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM (SELECT 1 FROM " + tableName + " WHERE user_id = ? LIMIT ?) t",
+                Long.class, userId, maxRows + 1);
+        if (rows != null && rows <= maxRows) {
+            return remember(userId, Partition.EXACT, now);
+        }
+        if (pendingIndexes.add(indexName)) {
+            indexBuilder.execute(() -> createIndex(userId, indexName, index));
+        }
+        return remember(userId, Partition.GLOBAL, now);
+    }
+
+    private Partition remember(String userId, Partition partition, long now) {
+        if (decisionTtlNanos > 0) {
+            if (decisions.size() >= MAX_DECISIONS) {
+                decisions.values().removeIf(decision -> now - decision.expiresAt() >= 0);
+            }
+            decisions.put(userId, new Decision(partition, now + decisionTtlNanos));
+        }
+        return partition;
+    }
+
+    /**
+     * 사용자의 청크가 추가/삭제되어 행 수가 바뀐 경우 캐시한 판단을 비웁니다.
+     */
+    public void invalidate(String userId) {
+        decisions.remove(userId);
+    }
+
+    /**
+     * 어느 사용자의 청크가 바뀌었는지 알 수 없는 경우(ID/문서 단위 삭제) 캐시한 판단을 모두 비웁니다.
+     */
+    public void invalidateAll() {
+        decisions.clear();
+    }
+
+    private void createIndex(String userId, String indexName, QuantizedIndex index) {
+        long start = System.currentTimeMillis();
+        try {
+            // CONCURRENTLY 는 트랜잭션 밖(자동 커밋)에서 실행해야 하며 쓰기를 막지 않습니다.
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + indexName + " ON " + tableName
+                    + " USING hnsw (" + index.indexTarget() + ") WITH (m = " + hnsw.getM()
+                    + ", ef_construction = " + hnsw.getEfConstruction() + ") WHERE " + predicate(userId));
+            readyIndexes.add(indexName);
+            log.info("사용자 파티션 인덱스 생성 완료: {} ({}ms)", indexName, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("사용자 파티션 인덱스 생성 실패: {}", indexName, e);
+            try {
+                // 실패한 CONCURRENTLY 생성은 INVALID 인덱스를 남깁니다.
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + indexName);
+            } catch (Exception dropFailure) {
+                log.warn("INVALID 파티션 인덱스 정리 실패: {}", indexName, dropFailure);
+            }
+        } finally {
+            pendingIndexes.remove(indexName);
+        }
+    }
+
+    /**
+     * 파티션 조건
+     * 부분 인덱스는 플래너가 계획 시점에 조건을 확인할 수 있어야 사용되므로, 바인딩 파라미터가 아닌 리터럴로 넣습니다.
+     */
+    public static String predicate(String userId) {
+        return "user_id = '" + userId.replace("'", "''") + "'";
+    }
+
+    /**
+     * 사용자 ID 를 그대로 쓰면 길이/문자 제한에 걸리므로 해시로 인덱스 이름을 만듭니다.
+     */
+    static String indexName(String userId, String suffix) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(userId.getBytes(StandardCharsets.UTF_8));
+            return INDEX_PREFIX + HexFormat.of().formatHex(digest, 0, 8) + suffix;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        indexBuilder.shutdownNow();
+    }
+
+    /**
+     * @param expiresAt 만료 시각 (System.nanoTime 기준)
+     */
+    private record Decision(Partition partition, long expiresAt) {
+    }
+
+    public enum Partition {
+        /** 사용자 파티션 인덱스로 검색 */
+        INDEXED,
+        /** 사용자 행이 적어 정확 검색 */
+        EXACT,
+        /** 파티션 인덱스 생성 전, 전체 인덱스로 검색 */
+        GLOBAL
+    }
+}
@@ -0,0 +1,131 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * vector_store 설정 (rag.vector-store)
+ */
+@ConfigurationProperties(prefix = "rag.vector-store")
+@Getter
+@Setter
+public class VectorStoreProperties {
+
+    /** 시작 시 jsonb 메타데이터, 인덱스 컬럼, HNSW 인덱스를 맞춤 */
+    private boolean initializeSchema = true;
+
+    /** HNSW 인덱스 생성/검색 설정 */
+    private Hnsw hnsw = new Hnsw();
+
+    /** 사용자 파티션 검색 설정 */
+    private Partition partition = new Partition();
+
+    /** HNSW 인덱스 양자화 설정 */
+    private Quantization quantization = new Quantization();
+
+    @Getter
+    @Setter
+    public static class Hnsw {
+
+        /** 노드당 연결 수 (클수록 재현율과 인덱스 크기 증가, 인덱스 생성 시에만 적용) */
+        private int m = 16;
+
+        /** 인덱스 생성 시 후보 목록 크기 (클수록 생성이 느리고 그래프 품질 향상, 인덱스 생성 시에만 적용) */
+        private int efConstruction = 64;
+
+        /** 필터가 없거나 넓은 검색의 ef_search */
+        private int efSearch = 40;
+
+        /** 선택도로 키운 ef_search 의 상한 */
+        private int maxEfSearch = 400;
+
+        /** 필터에 맞는 행 수가 topK 의 이 배수만큼 후보에 들어오도록 ef_search 를 정함 */
+        private double overfetch = 2.0;
+
+        /** 필요한 ef_search 가 상한을 넘을 때 사용할 반복 인덱스 스캔 (pgvector 0.8.0 이상) */
+        private IterativeScan iterativeScan = IterativeScan.RELAXED_ORDER;
+
+        /** 반복 인덱스 스캔이 방문할 최대 튜플 수 */
+        private int maxScanTuples = 20000;
+
+        /**
+         * 정확 검색 행 수 기준 (정확 검색 경로 공통)
+         * - 필터에 맞는 예상 행 수가 이 값 이하이면 인덱스 없이 정확 검색
+         * - 청크 수가 이 값 이하인 사용자는 파티션 인덱스 없이 정확 검색, 넘으면 사용자 파티션 인덱스 생성
+         * - 활성 문서 청크 수가 이 값 이하이면 JVM 메모리에서 정확 검색 (ActiveDocumentVectorCache)
+         */
+        private long exactSearchMaxRows = 10000;
+    }
+
+    @Getter
+    @Setter
+    public static class Partition {
+
+        /** user_id 조건이 있는 검색을 사용자 파티션(부분 HNSW 인덱스 또는 정확 검색)으로 수행 */
+        private boolean enabled = true;
+
+        /** 파티션 인덱스가 없는 사용자의 정확 검색/전체 인덱스 판단 캐시 시간 (청크 저장/삭제 시 비움, 0 이면 검색마다 확인) */
+        private Duration decisionTtl = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Quantization {
+
+        /** HNSW 인덱스에 넣을 벡터 형식 (테이블에는 항상 float32 원본을 보관하여 재정렬에 사용) */
+        private QuantizationMode mode = QuantizationMode.NONE;
+
+        /** 양자화 인덱스에서 topK 의 이 배수만큼 후보를 찾은 뒤 원본 벡터로 재정렬 */
+        private int rerankMultiplier = 4;
+    }
+
+    public enum QuantizationMode {
+        /** float32 vector 인덱스 (차원당 4 bytes) */
+        NONE,
+        /** float16 halfvec 인덱스 (차원당 2 bytes, pgvector 0.7.0 이상) */
+        HALFVEC,
+        /** 부호 1 bit 인덱스, 해밍 거리 (차원당 1 bit, pgvector 0.7.0 이상) */
+        BINARY
+    }
+
+    public enum IterativeScan {
+        OFF, STRICT_ORDER, RELAXED_ORDER;
+
+        /** hnsw.iterative_scan 설정값 */
+        public String settingValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * 설정값 검증
+     * @throws IllegalArgumentException 범위를 벗어난 값이 있는 경우
+     */
+    public void validate() {
+        if (hnsw.m < 2 || hnsw.m > 100) {
+            throw new IllegalArgumentException("hnsw.m 은 2 ~ 100 이어야 합니다.");
+        }
+        if (hnsw.efConstruction < 2 * hnsw.m || hnsw.efConstruction > 1000) {
+            throw new IllegalArgumentException("hnsw.ef-construction 은 2 * m ~ 1000 이어야 합니다.");
+        }
+        if (hnsw.efSearch < 1 || hnsw.maxEfSearch < hnsw.efSearch || hnsw.maxEfSearch > 1000) {
+            throw new IllegalArgumentException("hnsw.ef-search 는 1 이상, max-ef-search 는 ef-search ~ 1000 이어야 합니다.");
+        }
+        if (hnsw.overfetch < 1.0) {
+            throw new IllegalArgumentException("hnsw.overfetch 는 1.0 이상이어야 합니다.");
+        }
+        if (quantization.rerankMultiplier < 1) {
+            throw new IllegalArgumentException("quantization.rerank-multiplier 는 1 이상이어야 합니다.");
+        }
+        if (hnsw.exactSearchMaxRows < 0) {
+            throw new IllegalArgumentException("hnsw.exact-search-max-rows 는 0 이상이어야 합니다.");
+        }
+        if (partition.decisionTtl == null || partition.decisionTtl.isNegative()) {
+            throw new IllegalArgumentException("partition.decision-ttl 은 0 이상이어야 합니다.");
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.bigteam.aichat.repository;
 
 import com.bigteam.aichat.entity.DocumentInfo;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface DocumentInfoRepository extends JpaRepository<DocumentInfo, Long> {
 
@@ -17,6 +20,12 @@ public interface DocumentInfoRepository extends JpaRepository<DocumentInfo, Long
 	@Query("SELECT d.id FROM DocumentInfo d WHERE d.userId = :userId AND d.onChat = true")
 	List<Long> findActiveDocumentIdsByUserId(@Param("userId") String userId);
 
+	/**
+	 * 행 잠금 조회 (적재 완료 처리와 문서 삭제가 겹치지 않도록)
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT d FROM DocumentInfo d WHERE d.id = :id")
+	Optional<DocumentInfo> findByIdForUpdate(@Param("id") Long id);
 
 	@Modifying
 	@Transactional
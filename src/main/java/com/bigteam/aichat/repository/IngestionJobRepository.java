@@ -0,0 +1,58 @@
+package com.bigteam.aichat.repository;
+
+import com.bigteam.aichat.entity.IngestionJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface IngestionJobRepository extends JpaRepository<IngestionJob, Long> {
+
+	/**
+	 * 특정 상태의 작업 조회 (재시작 시 미완료 작업 복구용)
+	 */
+	List<IngestionJob> findByStatusIn(Collection<IngestionJob.Status> statuses);
+
+	/**
+	 * 문서에 특정 상태의 작업이 있는지 확인 (문서 갱신 중복 방지용)
+	 */
+	boolean existsByDocumentIdAndStatusIn(Long documentId, Collection<IngestionJob.Status> statuses);
+
+	/**
+	 * 특정 사용자의 작업 목록 조회
+	 */
+	List<IngestionJob> findByUserIdOrderByCreatedAtDesc(String userId);
+
+	/**
+	 * 행 잠금 조회 (작업 완료/실패 처리와 문서 삭제가 겹치지 않도록)
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT j FROM IngestionJob j WHERE j.id = :id")
+	Optional<IngestionJob> findByIdForUpdate(@Param("id") Long id);
+
+	/**
+	 * 진행 상황만 갱신 (엔티티 병합과 달리 삭제된 작업을 다시 만들지 않음)
+	 *
+	 * @return 갱신된 행 수, 작업이 삭제되었으면 0
+	 */
+	@Modifying
+	@Transactional
+	@Query("UPDATE IngestionJob j SET j.stage = :stage, j.parsedCount = :parsed, j.chunkCount = :chunks, "
+			+ "j.enrichedCount = :enriched, j.storedCount = :stored, j.updatedAt = :updatedAt WHERE j.id = :id")
+	int updateProgress(@Param("id") Long id, @Param("stage") IngestionJob.Stage stage, @Param("parsed") int parsed,
+			@Param("chunks") int chunks, @Param("enriched") int enriched, @Param("stored") int stored,
+			@Param("updatedAt") LocalDateTime updatedAt);
+
+	@Modifying
+	@Transactional
+	@Query("DELETE FROM IngestionJob j WHERE j.documentId IN :documentIds")
+	void deleteAllByDocumentIds(@Param("documentIds") List<Long> documentIds);
+}
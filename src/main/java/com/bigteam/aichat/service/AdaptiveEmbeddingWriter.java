@@ -0,0 +1,345 @@
+package com.bigteam.aichat.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.ai.document.Document;
+import org.springframework.util.Assert;
+import org.springframework.util.CustomizableThreadCreator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 적응형 임베딩/저장 배치 writer
+ * 청크를 vectorStore.add 한 번에 넘기지 않고, 관측한 배치 지연 시간과 본문 크기에 맞춘 배치로 나누어 저장합니다.
+ * - 배치 지연이 목표 이하이면 배치 크기를 조금씩 늘리고, 목표를 넘으면 지연에 비례해 줄임 (최대 절반), 실패하면 절반으로 줄임
+ * - 배치 본문 글자 수 상한으로 임베딩 요청 크기 제한
+ * - 동시에 진행 중인 배치 수를 JVM 전체(모든 업로드)에서 제한하며, 자리가 없으면 호출한 적재 스레드가 대기 (backpressure)
+ * - 실패한 배치만 재시도 (PgVectorStore 는 id 충돌 시 갱신하므로 재시도해도 중복 저장되지 않음)
+ * 배치 크기, 진행/대기 배치 수, 처리량(청크/초)은 Micrometer 게이지로 노출합니다.
+ */
+@Slf4j
+public class AdaptiveEmbeddingWriter implements AutoCloseable {
+
+    /** 처리량 계산 구간 */
+    private static final long THROUGHPUT_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final Consumer<List<Document>> store;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int maxBatchChars;
+    private final long targetLatencyNanos;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final AtomicInteger batchSize;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Timer batchLatency;
+    private final Counter storedChunks;
+    private final Counter retries;
+
+    private long windowStartNanos = System.nanoTime();
+    private long windowChunks;
+    private double throughput;
+
+    private AdaptiveEmbeddingWriter(Builder builder) {
+        Assert.notNull(builder.store, "store must not be null");
+        Assert.isTrue(builder.minBatchSize > 0 && builder.minBatchSize <= builder.maxBatchSize,
+                "minBatchSize must be between 1 and maxBatchSize");
+        Assert.isTrue(builder.maxInFlight > 0, "maxInFlight must be positive");
+        Assert.isTrue(builder.maxAttempts > 0, "maxAttempts must be positive");
+        this.store = builder.store;
+        this.minBatchSize = builder.minBatchSize;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxBatchChars = builder.maxBatchChars;
+        this.targetLatencyNanos = builder.targetLatency.toNanos();
+        this.maxAttempts = builder.maxAttempts;
+        this.retryBackoff = builder.retryBackoff;
+        this.batchSize = new AtomicInteger(
+                Math.max(minBatchSize, Math.min(maxBatchSize, builder.initialBatchSize)));
+        this.permits = new Semaphore(builder.maxInFlight, true);
+        CustomizableThreadCreator threadCreator = new CustomizableThreadCreator("embedding-batch-");
+        threadCreator.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(builder.maxInFlight, threadCreator::createThread);
+
+        MeterRegistry registry = builder.meterRegistry;
+        this.batchLatency = Timer.builder("rag.embedding.batch.latency")
+                .description("임베딩/저장 배치 지연 시간")
+                .register(registry);
+        this.storedChunks = Counter.builder("rag.embedding.chunks.stored")
+                .description("임베딩 후 저장한 청크 수")
+                .register(registry);
+        this.retries = Counter.builder("rag.embedding.batch.retries")
+                .description("실패하여 재시도한 배치 수")
+                .register(registry);
+        Gauge.builder("rag.embedding.batch.size", batchSize, AtomicInteger::get)
+                .description("현재 임베딩 배치 크기 (청크 수)")
+                .register(registry);
+        Gauge.builder("rag.embedding.batches.in_flight", inFlight, AtomicInteger::get)
+                .description("진행 중인 임베딩 배치 수")
+                .register(registry);
+        Gauge.builder("rag.embedding.batches.waiting", waiting, AtomicInteger::get)
+                .description("동시 배치 제한으로 대기 중인 배치 수 (큐 깊이)")
+                .register(registry);
+        Gauge.builder("rag.embedding.throughput", this, AdaptiveEmbeddingWriter::throughput)
+                .description("최근 임베딩/저장 처리량 (청크/초)")
+                .register(registry);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 청크를 적응형 배치로 나누어 저장합니다. 모든 배치가 저장될 때까지 대기합니다.
+     * 재시도 후에도 실패한 배치가 있으면 이후 배치는 제출하지 않고 예외를 던집니다.
+     * (이미 제출한 배치는 끝날 때까지 기다리므로, 예외 이후 호출자가 부분 저장된 청크를 안전하게 정리할 수 있음)
+     *
+     * @param chunks 저장할 청크
+     */
+    public void add(List<Document> chunks) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        int index = 0;
+        try {
+            while (index < chunks.size() && !firstFailure.isDone()) {
+                List<Document> batch = nextBatch(chunks, index);
+                index += batch.size();
+                acquire();
+                CompletableFuture<Void> future = CompletableFuture.runAsync(() -> storeWithRetry(batch), executor)
+                        .whenComplete((ignored, e) -> {
+                            inFlight.decrementAndGet();
+                            permits.release();
+                            if (e != null) {
+                                firstFailure.completeExceptionally(e);
+                            }
+                        });
+                futures.add(future);
+            }
+        } finally {
+            awaitQuietly(futures);
+        }
+        if (firstFailure.isCompletedExceptionally()) {
+            try {
+                firstFailure.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+    }
+
+    /**
+     * 현재 배치 크기와 본문 글자 수 상한에 맞춰 다음 배치를 만듭니다. (최소 한 청크)
+     */
+    private List<Document> nextBatch(List<Document> chunks, int from) {
+        int limit = batchSize.get();
+        int end = from;
+        long chars = 0;
+        while (end < chunks.size() && end - from < limit) {
+            String text = chunks.get(end).getText();
+            int length = text == null ? 0 : text.length();
+            if (end > from && chars + length > maxBatchChars) {
+                break;
+            }
+            chars += length;
+            end++;
+        }
+        return chunks.subList(from, end);
+    }
+
+    private void acquire() {
+        waiting.incrementAndGet();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        inFlight.incrementAndGet();
+    }
+
+    private void storeWithRetry(List<Document> batch) {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                store.accept(batch);
+                onSuccess(batch.size(), System.nanoTime() - start);
+                return;
+            } catch (RuntimeException e) {
+                onFailure();
+                if (attempt >= maxAttempts) {
+                    log.warn("임베딩 배치 저장 실패, 청크 수: {}, 시도 횟수: {}", batch.size(), attempt, e);
+                    throw e;
+                }
+                retries.increment();
+                log.debug("임베딩 배치 저장 재시도, 청크 수: {}, 시도 횟수: {}", batch.size(), attempt, e);
+                sleep(retryBackoff.multipliedBy(1L << (attempt - 1)));
+            }
+        }
+    }
+
+    /**
+     * 지연이 목표 이하이면 배치 크기를 늘리고(가산 증가), 목표를 넘으면 지연에 비례해 줄입니다. (최대 절반)
+     */
+    private void onSuccess(int chunkCount, long latencyNanos) {
+        batchLatency.record(latencyNanos, TimeUnit.NANOSECONDS);
+        storedChunks.increment(chunkCount);
+        recordThroughput(chunkCount);
+        batchSize.updateAndGet(size -> {
+            if (latencyNanos <= targetLatencyNanos) {
+                // 배치가 차지 않은 경우(문서 끝)는 현재 크기에 대한 관측이 아니므로 늘리지 않음
+                return chunkCount < size ? size : Math.min(maxBatchSize, size + Math.max(1, size / 8));
+            }
+            int proportional = (int) (chunkCount * (double) targetLatencyNanos / latencyNanos);
+            return Math.max(minBatchSize, Math.max(size / 2, Math.min(size, proportional)));
+        });
+    }
+
+    private void onFailure() {
+        batchSize.updateAndGet(size -> Math.max(minBatchSize, size / 2));
+    }
+
+    private synchronized void recordThroughput(int chunkCount) {
+        rollThroughputWindow(System.nanoTime());
+        windowChunks += chunkCount;
+    }
+
+    /**
+     * @return 최근 구간의 처리량 (청크/초)
+     */
+    synchronized double throughput() {
+        rollThroughputWindow(System.nanoTime());
+        return throughput;
+    }
+
+    private void rollThroughputWindow(long now) {
+        long elapsed = now - windowStartNanos;
+        if (elapsed >= THROUGHPUT_WINDOW_NANOS) {
+            throughput = windowChunks / (elapsed / 1e9);
+            windowChunks = 0;
+            windowStartNanos = now;
+        }
+    }
+
+    int currentBatchSize() {
+        return batchSize.get();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private static void awaitQuietly(List<CompletableFuture<Void>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (RuntimeException ignored) {
+            // 실패는 firstFailure 로 전달
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    public static final class Builder {
+        private Consumer<List<Document>> store;
+        private MeterRegistry meterRegistry;
+        private int initialBatchSize = 32;
+        private int minBatchSize = 4;
+        private int maxBatchSize = 512;
+        private int maxBatchChars = 200_000;
+        private Duration targetLatency = Duration.ofSeconds(2);
+        private int maxInFlight = 4;
+        private int maxAttempts = 3;
+        private Duration retryBackoff = Duration.ofMillis(500);
+
+        private Builder() {
+        }
+
+        /** 배치 저장 (vectorStore::add) */
+        public Builder store(Consumer<List<Document>> store) {
+            this.store = store;
+            return this;
+        }
+
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        public Builder initialBatchSize(int initialBatchSize) {
+            this.initialBatchSize = initialBatchSize;
+            return this;
+        }
+
+        public Builder minBatchSize(int minBatchSize) {
+            this.minBatchSize = minBatchSize;
+            return this;
+        }
+
+        public Builder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /** 배치당 최대 본문 글자 수 (한 청크가 넘으면 그 청크만으로 배치) */
+        public Builder maxBatchChars(int maxBatchChars) {
+            this.maxBatchChars = maxBatchChars;
+            return this;
+        }
+
+        /** 배치 지연 목표 */
+        public Builder targetLatency(Duration targetLatency) {
+            this.targetLatency = targetLatency;
+            return this;
+        }
+
+        /** JVM 전체 동시 진행 배치 수 */
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /** 배치당 최대 시도 횟수 */
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /** 첫 재시도 대기 시간 (재시도마다 두 배) */
+        public Builder retryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+            return this;
+        }
+
+        public AdaptiveEmbeddingWriter build() {
+            Assert.notNull(meterRegistry, "meterRegistry must not be null");
+            return new AdaptiveEmbeddingWriter(this);
+        }
+    }
+}
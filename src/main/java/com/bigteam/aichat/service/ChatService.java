@@ -2,6 +2,7 @@ package com.bigteam.aichat.service;
 
 import com.bigteam.aichat.dto.ClientChatRequest;
 import com.bigteam.aichat.rag.EnhancedDocumentRagService;
+import com.bigteam.aichat.rag.module.TokenBudgetQueryAugmenter;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +11,7 @@ import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.rag.retrieval.search.VectorStoreDocumentRetriever;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
@@ -21,7 +23,6 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -71,16 +72,18 @@ public class ChatService {
 					.advisors(advisor -> advisor.param(ChatMemory.CONVERSATION_ID, chatId))
 					.stream().chatResponse();
 		}
+		FilterExpressionBuilder filter = new FilterExpressionBuilder();
 		return chatClient.prompt()
 				.options(chatOptions)
 				.user(request.getPrompt())
 				.advisors(enhancedDocumentRagService.getRagAdvisor())
 				.advisors(advisor -> advisor
 						.param(ChatMemory.CONVERSATION_ID, chatId)
-						.param(VectorStoreDocumentRetriever.FILTER_EXPRESSION,
-								"document_id in [" + activeDocIds.stream()
-								.map(String::valueOf).collect(Collectors.joining(",")) + "]"
-						)
+						.param(TokenBudgetQueryAugmenter.CHAT_MODEL_PARAM, model)
+						// user_id 조건으로 사용자 파티션만 검색 (IndexedPgVectorStore)
+						.param(VectorStoreDocumentRetriever.FILTER_EXPRESSION, filter
+								.and(filter.eq("user_id", chatId), filter.in("document_id", activeDocIds.toArray()))
+								.build())
 				)
 				.stream()
 				.chatResponse()
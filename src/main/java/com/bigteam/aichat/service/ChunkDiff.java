@@ -0,0 +1,119 @@
+package com.bigteam.aichat.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.ai.document.Document;
+
+/**
+ * 문서 재적재 시 새 버전 청크와 저장된 청크의 지문(chunk_hash) 비교
+ * 본문이 같은 청크는 저장된 청크(임베딩, 요약)를 그대로 재사용하고, 바뀐 메타데이터(페이지 번호, 파일명 등)만 갱신 대상으로 모읍니다.
+ * 같은 본문의 청크가 여러 번 나오면 저장된 청크와 하나씩 짝지으며, 끝까지 짝이 없는 저장된 청크는 삭제 대상입니다.
+ * 적재 워커 한 스레드에서만 사용합니다.
+ */
+public final class ChunkDiff {
+
+    /** 청크 본문 지문 메타데이터 키 */
+    public static final String CHUNK_HASH_METADATA_KEY = "chunk_hash";
+
+    private final Map<String, Deque<StoredChunk>> unmatched = new HashMap<>();
+    private final List<String> unhashedIds = new ArrayList<>();
+    private final Map<String, Map<String, Object>> metadataUpdates = new LinkedHashMap<>();
+    private int retainedCount;
+
+    /**
+     * @param storedChunks 같은 문서로 저장된 청크
+     */
+    public ChunkDiff(List<StoredChunk> storedChunks) {
+        for (StoredChunk chunk : storedChunks) {
+            if (chunk.hash() == null) {
+                // 지문 도입 이전에 저장된 청크는 비교할 수 없으므로 교체
+                unhashedIds.add(chunk.id());
+            } else {
+                unmatched.computeIfAbsent(chunk.hash(), hash -> new ArrayDeque<>()).add(chunk);
+            }
+        }
+    }
+
+    /**
+     * 새 청크와 본문이 같은 저장된 청크가 있으면 짝짓고 재사용합니다.
+     *
+     * @param chunk 지문이 기록된 새 청크
+     * @return 재사용하면 true (새로 저장하지 않음)
+     */
+    public boolean retain(Document chunk) {
+        Object hash = chunk.getMetadata().get(CHUNK_HASH_METADATA_KEY);
+        Deque<StoredChunk> candidates = hash == null ? null : unmatched.get(hash.toString());
+        if (candidates == null || candidates.isEmpty()) {
+            return false;
+        }
+        StoredChunk stored = candidates.poll();
+        Map<String, Object> changed = new HashMap<>();
+        chunk.getMetadata().forEach((key, value) -> {
+            // JSON 왕복으로 숫자 타입이 바뀔 수 있으므로 문자열로 비교
+            if (!Objects.equals(String.valueOf(value), String.valueOf(stored.metadata().get(key)))) {
+                changed.put(key, value);
+            }
+        });
+        if (!changed.isEmpty()) {
+            metadataUpdates.put(stored.id(), changed);
+        }
+        retainedCount++;
+        return true;
+    }
+
+    /**
+     * @return 새 버전에 없는 저장된 청크 ID
+     */
+    public List<String> removedIds() {
+        List<String> removed = new ArrayList<>(unhashedIds);
+        unmatched.values().forEach(chunks -> chunks.forEach(chunk -> removed.add(chunk.id())));
+        return removed;
+    }
+
+    /**
+     * @return 재사용하는 청크 ID -> 바뀐 메타데이터
+     */
+    public Map<String, Map<String, Object>> metadataUpdates() {
+        return metadataUpdates;
+    }
+
+    public int retainedCount() {
+        return retainedCount;
+    }
+
+    /**
+     * 청크 본문의 지문을 계산합니다. (SHA-256)
+     *
+     * @param text 청크 본문
+     * @return 16진수 지문
+     */
+    public static String chunkHash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 저장된 청크
+     *
+     * @param id       청크 ID (vector_store.id)
+     * @param hash     본문 지문, 지문 도입 이전 청크는 null
+     * @param metadata 저장된 메타데이터
+     */
+    public record StoredChunk(String id, String hash, Map<String, Object> metadata) {
+    }
+}
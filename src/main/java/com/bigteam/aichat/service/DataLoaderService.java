@@ -1,37 +1,49 @@
 package com.bigteam.aichat.service;
 
 import com.bigteam.aichat.entity.DocumentInfo;
+import com.bigteam.aichat.entity.IngestionJob;
+import com.bigteam.aichat.rag.processor.ChunkSummaryEnricher;
 import com.bigteam.aichat.rag.processor.DocumentProcessingStrategy;
 import com.bigteam.aichat.rag.processor.DocumentProcessingStrategyFactory;
+import com.bigteam.aichat.rag.processor.TextNormalizer;
 import com.bigteam.aichat.repository.DocumentInfoRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
-import org.springframework.ai.model.transformer.SummaryMetadataEnricher;
-import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 /**
  * RAG 파이프라인을 위한 데이터 로딩 서비스
  * 다양한 문서 형식을 처리하고 벡터 저장소에 저장합니다.
+ * 하이브리드 검색의 키워드 인덱스(vector_store.content_tsv)는 청크 저장 시 생성 컬럼으로 함께 계산됩니다.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DataLoaderService {
-    private final VectorStore vectorStore;
+    private static final TextNormalizer WHITESPACE_NORMALIZER = TextNormalizer.builder()
+            .sentenceBreaks(false)
+            .commaSpacing(false)
+            .build();
+
     private final DocumentInfoRepository documentInfoRepository;
     private final DocumentProcessingStrategyFactory strategyFactory;
-    private final SummaryMetadataEnricher enricher;
+    private final ChunkSummaryEnricher summaryEnricher;
+    private final VectorStoreService vectorStoreService;
+    private final AdaptiveEmbeddingWriter embeddingWriter;
     
     @Value("${rag.document.chunk-size:800}")
     private int chunkSize;
@@ -39,63 +51,101 @@ public class DataLoaderService {
     @Value("${rag.document.chunk-overlap:200}")
     private int chunkOverlap;
 
+    @Value("${rag.ingestion.window-size:20}")
+    private int windowSize;
+
+    @Value("${rag.ingestion.bulk.batch-size:256}")
+    private int bulkBatchSize;
+
+    @Value("${rag.ingestion.bulk.queue-capacity:8}")
+    private int bulkQueueCapacity;
+
+    @Value("${rag.ingestion.bulk.linger:200ms}")
+    private Duration bulkLinger;
+
     /**
-     * 파일을 업로드하고 RAG 파이프라인을 위한 처리를 수행합니다.
+     * 문서를 파싱하여 RAG 파이프라인을 위한 처리를 수행하고 벡터 저장소에 저장합니다.
+     * 적재 작업 워커 스레드에서 호출되며, 단계별 진행 상황을 리스너로 전달합니다.
+     * 문서는 윈도우 단위로 파싱 -> 정제 -> 청킹 -> 요약 -> 저장되므로 전체 문서를 힙에 올리지 않습니다.
      * 
-     * @param file   업로드된 파일
-     * @param userId 사용자 ID
-     * @param chatId 채팅 ID
-     * @return 생성된 문서 정보
+     * @param docInfo  저장된 문서 정보
+     * @param resource 처리할 리소스
+     * @param listener 진행 상황 리스너
      * @throws IOException 파일 처리 중 발생한 예외
      */
-    @Transactional
-    public DocumentInfo processAndStoreDocument(MultipartFile file, String userId) throws IOException {
-        log.info("문서 처리 시작: {}, 사용자: {}, 채팅 ID: {}", file.getOriginalFilename(), userId);
-        
-        // 1. 문서 정보 데이터베이스에 저장
-        DocumentInfo docInfo = saveDocumentInfo(file, userId);
-        log.info("문서 정보 저장 완료, 문서 ID: {}", docInfo.getId());
-        
-        // 2. 파일을 Document 객체로 변환
-        Resource resource = file.getResource();
-        List<Document> documents = processFileToDocuments(resource, docInfo);
-        log.info("문서 변환 완료, 생성된 문서 조각 수: {}", documents.size());
-        
-        // 3. 벡터 저장소에 문서 추가
-        vectorStore.add(documents);
-        log.info("벡터 저장소에 문서 저장 완료");
-        
-        return docInfo;
+    public void processAndStoreDocument(DocumentInfo docInfo, Resource resource,
+                                        IngestionProgressListener listener) throws IOException {
+        processDocument(docInfo, resource, listener, chunks -> {
+            embeddingWriter.add(chunks);
+            listener.onStored(chunks.size());
+            return CompletableFuture.completedFuture(null);
+        }).join();
     }
 
     /**
-     * 문서 정보를 저장합니다.
-     * 
-     * @param file   업로드된 파일
-     * @param userId 사용자 ID
-     * @param chatId 채팅 ID
-     * @return 저장된 문서 정보
+     * 문서를 윈도우 단위로 처리하고, 저장은 전달받은 sink 에 맡깁니다. (일괄 적재 파이프라인용)
+     * 처리 중 예외가 발생하면 이미 sink 에 제출한 청크의 저장이 끝날 때까지 기다린 뒤 예외를 전달하므로,
+     * 호출자는 예외 이후 부분 저장된 청크를 안전하게 정리할 수 있습니다.
+     *
+     * @param docInfo  저장된 문서 정보
+     * @param resource 처리할 리소스
+     * @param listener 진행 상황 리스너 (저장 완료 통지는 sink 가 담당)
+     * @param sink     청크 저장소
+     * @return 모든 윈도우의 저장 완료 future
+     * @throws IOException 파일 처리 중 발생한 예외
      */
-    private DocumentInfo saveDocumentInfo(MultipartFile file, String userId) {
-        return documentInfoRepository.save(DocumentInfo.builder()
-                .userId(userId)
-                .filename(file.getOriginalFilename())
-                .contentType(file.getContentType())
-                .fileSize(file.getSize())
-                .onChat(true)
-                .build());
+    public CompletableFuture<Void> processDocument(DocumentInfo docInfo, Resource resource,
+                                                   IngestionProgressListener listener, ChunkSink sink) throws IOException {
+        return processDocument(docInfo, resource, listener, sink, null);
     }
 
     /**
-     * 파일을 Document 객체로 처리합니다.
-     * 
-     * @param resource 처리할 리소스
-     * @param docInfo  문서 정보
-     * @return 처리된 Document 목록
+     * 새 버전의 문서를 저장된 청크와 비교하여 바뀐 부분만 반영합니다.
+     * 새 버전을 다시 청킹한 뒤 청크 지문(chunk_hash)을 저장된 청크와 비교하여,
+     * 추가/변경된 청크만 요약, 임베딩 후 저장하고 새 버전에 없는 청크는 삭제합니다.
+     * 본문이 같은 청크는 임베딩과 요약을 재사용하며, 바뀐 메타데이터(페이지 번호, 파일명 등)만 갱신합니다.
+     * 새 청크는 윈도우마다 바로 저장하고 새 버전에 없는 청크는 마지막에 삭제하므로, 처리 중에는 두 버전의 청크가 함께 검색됩니다.
+     * 처리 중 실패하면 이번에 저장한 청크만 제거하므로 이전 버전은 그대로 유지됩니다.
+     *
+     * @param docInfo  문서 정보 (새 버전 파일명 반영)
+     * @param resource 새 버전 리소스
+     * @param listener 진행 상황 리스너
+     * @return 청크 비교 결과
      * @throws IOException 파일 처리 중 발생한 예외
      */
-    private List<Document> processFileToDocuments(Resource resource, DocumentInfo docInfo) throws IOException {
-        log.info("파일 처리 시작: {}", resource.getFilename());
+    public UpdateResult updateDocument(DocumentInfo docInfo, Resource resource,
+                                       IngestionProgressListener listener) throws IOException {
+        ChunkDiff diff = new ChunkDiff(vectorStoreService.findChunks(docInfo.getId()));
+        List<String> addedIds = new ArrayList<>();
+        try {
+            processDocument(docInfo, resource, listener, chunks -> {
+                // 배치 일부만 저장된 채 실패해도 정리되도록 저장 전에 기록
+                chunks.forEach(chunk -> addedIds.add(chunk.getId()));
+                embeddingWriter.add(chunks);
+                listener.onStored(chunks.size());
+                return CompletableFuture.completedFuture(null);
+            }, diff).join();
+        } catch (IOException | RuntimeException e) {
+            vectorStoreService.removeChunks(addedIds);
+            throw e;
+        }
+
+        vectorStoreService.mergeMetadata(diff.metadataUpdates());
+        List<String> removedIds = diff.removedIds();
+        vectorStoreService.removeChunks(removedIds);
+        UpdateResult result = new UpdateResult(addedIds.size(), diff.retainedCount(), removedIds.size());
+        log.info("문서 갱신 완료, 문서 ID: {}, 추가: {}, 재사용: {}, 삭제: {}",
+                docInfo.getId(), result.added(), result.retained(), result.removed());
+        return result;
+    }
+
+    /**
+     * @param diff 재적재 시 저장된 청크와의 비교, 신규 적재면 null
+     */
+    private CompletableFuture<Void> processDocument(DocumentInfo docInfo, Resource resource,
+                                                    IngestionProgressListener listener, ChunkSink sink,
+                                                    ChunkDiff diff) throws IOException {
+        log.info("문서 처리 시작: {}, 문서 ID: {}, 사용자: {}", resource.getFilename(), docInfo.getId(), docInfo.getUserId());
 
         // 파일 형식에 적합한 처리 전략 선택
         DocumentProcessingStrategy strategy = strategyFactory.getStrategy(resource);
@@ -103,29 +153,205 @@ public class DataLoaderService {
         // 메타데이터 준비
         Map<String, Object> metadata = prepareMetadata(docInfo);
 
-        // 처리 파이프라인: 파싱 -> 정제 -> 청킹 -> 메타데이터 보강
-        List<Document> parsedDocs = strategy.parse(resource);
-        log.info("문서 파싱 완료, 파싱된 문서 수: {}", parsedDocs.size());
+        // 문서 단위 요약 시간 예산
+        ChunkSummaryEnricher.Budget summaryBudget = summaryEnricher.startBudget();
 
-        List<Document> cleanedDocs = strategy.clean(parsedDocs);
-        log.info("문서 정제 완료");
+        List<CompletableFuture<Void>> stored = new ArrayList<>();
+        int windowCount = 0;
+        int chunkCount = 0;
+        listener.onStage(IngestionJob.Stage.PARSING);
+        try (Stream<List<Document>> windows = strategy.parseInWindows(resource, windowSize)) {
+            Iterator<List<Document>> iterator = windows.iterator();
+            while (iterator.hasNext()) {
+                List<Document> window = iterator.next();
+                listener.onParsed(window.size());
 
-        List<Document> chunkedDocs = strategy.chunk(cleanedDocs, chunkSize, chunkOverlap);
-        log.info("문서 분할 완료, 최종 청크 수: {}", chunkedDocs.size());
+                // 윈도우 처리 파이프라인: 정제 -> 청킹 -> 메타데이터 보강 -> 요약 -> 저장
+                ChunkSummaryEnricher.Result result = processWindow(strategy, window, metadata, summaryBudget, diff, listener);
+                List<Document> documents = result.documents();
+                if (!documents.isEmpty()) {
+                    listener.onStage(IngestionJob.Stage.STORING);
+                    // 예산 안에 끝나지 않은 요약은 저장 이후 완료되는 대로 반영
+                    stored.add(sink.store(documents)
+                            .thenRun(() -> backfillDeferredSummaries(result.deferred())));
+                }
+                chunkCount += documents.size();
+                windowCount++;
+                log.debug("윈도우 {} 처리 완료, 파싱 문서 수: {}, 청크 수: {}", windowCount, window.size(), documents.size());
+                listener.onStage(IngestionJob.Stage.PARSING);
+            }
+        } catch (IOException | RuntimeException e) {
+            awaitQuietly(stored);
+            throw e;
+        }
+        log.info("문서 처리 완료, 윈도우 수: {}, 청크 수: {}", windowCount, chunkCount);
+        return CompletableFuture.allOf(stored.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * 일괄 적재용 파이프라인 writer 를 생성합니다.
+     *
+     * @return 여러 문서의 청크를 모아 저장하는 writer (사용 후 close 필요)
+     */
+    public PipelinedChunkWriter openBatchWriter() {
+        return new PipelinedChunkWriter(embeddingWriter::add, bulkBatchSize, bulkQueueCapacity, bulkLinger);
+    }
+
+    /**
+     * 리소스를 처리할 수 있는 전략이 있는지 확인합니다.
+     *
+     * @param resource 확인할 리소스
+     * @return 처리 가능 여부
+     */
+    public boolean isSupported(Resource resource) {
+        try {
+            strategyFactory.getStrategy(resource);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void awaitQuietly(List<CompletableFuture<Void>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (RuntimeException ignored) {
+            // 저장 실패는 호출자가 문서 단위로 정리
+        }
+    }
+
+    /**
+     * 문서 갱신 결과
+     *
+     * @param added    새로 저장한 청크 수
+     * @param retained 재사용한 청크 수
+     * @param removed  삭제한 청크 수
+     */
+    public record UpdateResult(int added, int retained, int removed) {
+    }
+
+    /**
+     * 윈도우 청크 저장소
+     */
+    @FunctionalInterface
+    public interface ChunkSink {
+        /**
+         * @param chunks 저장할 청크
+         * @return 저장 완료 future
+         */
+        CompletableFuture<Void> store(List<Document> chunks);
+    }
+
+    /**
+     * 문서 정보를 저장합니다.
+     * 적재가 완료되기 전까지는 RAG 대상에서 제외되도록 비활성 상태로 저장합니다.
+     * 
+     * @param file   업로드된 파일
+     * @param userId 사용자 ID
+     * @return 저장된 문서 정보
+     */
+    public DocumentInfo saveDocumentInfo(MultipartFile file, String userId) {
+        return saveDocumentInfo(file.getOriginalFilename(), file.getContentType(), file.getSize(), userId);
+    }
+
+    /**
+     * 문서 정보를 저장합니다. (압축 파일 내부 파일 등 MultipartFile 이 아닌 업로드용)
+     *
+     * @param filename    파일명
+     * @param contentType 콘텐츠 타입
+     * @param fileSize    파일 크기
+     * @param userId      사용자 ID
+     * @return 저장된 문서 정보
+     */
+    public DocumentInfo saveDocumentInfo(String filename, String contentType, long fileSize, String userId) {
+        return documentInfoRepository.save(DocumentInfo.builder()
+                .userId(userId)
+                .filename(filename)
+                .contentType(contentType)
+                .fileSize(fileSize)
+                .onChat(false)
+                .build());
+    }
+
+    /**
+     * 파싱된 윈도우를 저장 가능한 청크로 처리합니다.
+     * 
+     * @param strategy 문서 처리 전략
+     * @param window   파싱된 도큐먼트 윈도우
+     * @param metadata 추가할 메타데이터
+     * @param summaryBudget 문서 요약 시간 예산
+     * @param diff     저장된 청크와의 비교 (재적재 시), 재사용하는 청크는 요약/저장에서 제외
+     * @param listener 진행 상황 리스너
+     * @return 처리된 청크 및 지연된 요약
+     */
+    private ChunkSummaryEnricher.Result processWindow(DocumentProcessingStrategy strategy, List<Document> window,
+                                                      Map<String, Object> metadata,
+                                                      ChunkSummaryEnricher.Budget summaryBudget,
+                                                      ChunkDiff diff,
+                                                      IngestionProgressListener listener) {
+        listener.onStage(IngestionJob.Stage.CLEANING);
+        List<Document> cleanedDocs = strategy.clean(window);
+
+        listener.onStage(IngestionJob.Stage.CHUNKING);
+        List<Document> chunkedDocs = normalizeWhitespace(strategy.chunk(cleanedDocs, chunkSize, chunkOverlap));
+        listener.onChunked(chunkedDocs.size());
 
         List<Document> preparedDocs = strategy.enrichMetadata(chunkedDocs, metadata);
+        if (diff != null) {
+            preparedDocs = preparedDocs.stream().filter(doc -> !diff.retain(doc)).toList();
+        }
+        if (preparedDocs.isEmpty()) {
+            return new ChunkSummaryEnricher.Result(preparedDocs, 0, Map.of());
+        }
 
-        return enrichDocuments(preparedDocs);
+        listener.onStage(IngestionJob.Stage.ENRICHING);
+        ChunkSummaryEnricher.Result result = summaryEnricher.enrich(preparedDocs, summaryBudget);
+        listener.onEnriched(result.summarizedCount());
+        return result;
+    }
+
+    /**
+     * 청크 본문의 공백을 저장 전에 한 번만 정규화하고, 정규화된 본문의 지문(chunk_hash)을 기록합니다.
+     * 검색 시 컨텍스트 구성 단계에서는 저장된 본문을 그대로 사용하며, 지문은 재적재 시 청크 비교에 사용합니다.
+     *
+     * @param chunks 청크 목록
+     * @return 공백이 정규화된 청크 목록
+     */
+    private List<Document> normalizeWhitespace(List<Document> chunks) {
+        return chunks.stream()
+                .map(chunk -> {
+                    if (chunk.getText() == null) {
+                        return chunk;
+                    }
+                    String text = WHITESPACE_NORMALIZER.normalize(chunk.getText());
+                    return chunk.mutate()
+                            .text(text)
+                            .metadata(ChunkDiff.CHUNK_HASH_METADATA_KEY, ChunkDiff.chunkHash(text))
+                            .build();
+                })
+                .toList();
     }
     
     /**
-     * 문서에 메타데이터를 추가합니다.
+     * 저장 이후 완료된 요약을 벡터 저장소의 청크 메타데이터에 반영합니다.
      *
-     * @param documents 메타데이터를 추가할 문서 목록
-     * @return 메타데이터가 추가된 문서 목록
+     * @param deferred 청크 ID -> 요약
      */
-    public List<Document> enrichDocuments(List<Document> documents) {
-        return enricher.apply(documents);
+    private void backfillDeferredSummaries(Map<String, CompletableFuture<String>> deferred) {
+        deferred.forEach((chunkId, summary) -> summary.whenComplete((text, e) -> {
+            Map<String, Object> update = new HashMap<>();
+            if (e == null && text != null) {
+                update.put(ChunkSummaryEnricher.SUMMARY_METADATA_KEY, text);
+                update.put(ChunkSummaryEnricher.SUMMARY_STATUS_METADATA_KEY, ChunkSummaryEnricher.STATUS_DONE);
+            } else {
+                update.put(ChunkSummaryEnricher.SUMMARY_STATUS_METADATA_KEY, ChunkSummaryEnricher.STATUS_FAILED);
+            }
+            try {
+                vectorStoreService.mergeMetadata(chunkId, update);
+            } catch (Exception ex) {
+                log.warn("지연된 요약 반영 실패, 청크 ID: {}", chunkId, ex);
+            }
+        }));
     }
     
     /**
@@ -142,4 +368,4 @@ public class DataLoaderService {
         return metadata;
     }
     
-}
\ No newline at end of file
+}
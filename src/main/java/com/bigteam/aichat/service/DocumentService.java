@@ -6,7 +6,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.bigteam.aichat.entity.DocumentInfo;
+import com.bigteam.aichat.rag.vectorstore.ActiveDocumentVectorCache;
 import com.bigteam.aichat.repository.DocumentInfoRepository;
+import com.bigteam.aichat.repository.IngestionJobRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +19,8 @@ import lombok.extern.slf4j.Slf4j;
 public class DocumentService {
 
     private final DocumentInfoRepository documentInfoRepository;
+    private final IngestionJobRepository ingestionJobRepository;
+    private final ActiveDocumentVectorCache activeDocumentVectorCache;
     
     
     /**
@@ -43,6 +47,9 @@ public class DocumentService {
 
         log.info("문서 삭제 시작, 문서 ID: {}", documentIds);
 
+        // 1. 적재 작업 이력 삭제
+        ingestionJobRepository.deleteAllByDocumentIds(documentIds);
+
         // 2. 데이터베이스에서 문서 정보 삭제
         documentInfoRepository.deleteAllByIds(documentIds);
 
@@ -71,6 +78,8 @@ public class DocumentService {
             doc.setOnChat(isActive);
         });
         
-        return documentInfoRepository.saveAll(documents);
+        List<DocumentInfo> saved = documentInfoRepository.saveAll(documents);
+        activeDocumentVectorCache.invalidateUser(userId);
+        return saved;
     }
 }
@@ -0,0 +1,826 @@
+package com.bigteam.aichat.service;
+
+import com.bigteam.aichat.config.IngestionConfig;
+import com.bigteam.aichat.dto.BulkUploadResponse;
+import com.bigteam.aichat.entity.DocumentInfo;
+import com.bigteam.aichat.entity.IngestionJob;
+import com.bigteam.aichat.rag.vectorstore.ActiveDocumentVectorCache;
+import com.bigteam.aichat.repository.DocumentInfoRepository;
+import com.bigteam.aichat.repository.IngestionJobRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 문서 적재 작업 서비스
+ * 업로드 요청 스레드를 즉시 반환하고, 제한된 워커 풀에서 적재 파이프라인을 실행합니다.
+ * 작업 상태와 단계별 진행 상황은 ingestion_job 테이블에 기록되며,
+ * 애플리케이션 재시작 시 미완료 작업은 재개하거나 실패 처리합니다.
+ * 작업 중 문서가 삭제되면 완료/실패 처리 시 작업과 문서를 다시 저장하지 않고 그동안 저장한 청크를 제거합니다.
+ */
+@Slf4j
+@Service
+public class IngestionJobService {
+
+    private final IngestionJobRepository ingestionJobRepository;
+    private final DocumentInfoRepository documentInfoRepository;
+    private final DataLoaderService dataLoaderService;
+    private final VectorStoreService vectorStoreService;
+    private final ActiveDocumentVectorCache activeDocumentVectorCache;
+    private final TaskExecutor ingestionExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${rag.ingestion.storage-dir:${java.io.tmpdir}/aichat-ingestion}")
+    private String storageDir;
+
+    @Value("${rag.ingestion.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${rag.ingestion.bulk.max-zip-entries:1000}")
+    private int maxZipEntries;
+
+    @Value("${rag.ingestion.bulk.max-zip-bytes:1GB}")
+    private DataSize maxZipBytesSize;
+
+    @Value("${rag.ingestion.stale-upload-age:PT24H}")
+    private Duration staleUploadAge;
+
+    @Value("${rag.ingestion.progress-interval:2s}")
+    private Duration progressInterval;
+
+    public IngestionJobService(IngestionJobRepository ingestionJobRepository,
+                               DocumentInfoRepository documentInfoRepository,
+                               DataLoaderService dataLoaderService,
+                               VectorStoreService vectorStoreService,
+                               ActiveDocumentVectorCache activeDocumentVectorCache,
+                               @Qualifier("ingestionExecutor") TaskExecutor ingestionExecutor,
+                               PlatformTransactionManager transactionManager) {
+        this.ingestionJobRepository = ingestionJobRepository;
+        this.documentInfoRepository = documentInfoRepository;
+        this.dataLoaderService = dataLoaderService;
+        this.vectorStoreService = vectorStoreService;
+        this.activeDocumentVectorCache = activeDocumentVectorCache;
+        this.ingestionExecutor = ingestionExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 업로드 파일을 작업 디렉토리에 보관하고 적재 작업을 큐에 등록합니다.
+     *
+     * @param file   업로드된 파일
+     * @param userId 사용자 ID
+     * @return 등록된 적재 작업
+     * @throws IOException 파일 보관 중 발생한 예외
+     * @throws IllegalArgumentException 지원되지 않는 파일 형식인 경우
+     * @throws TaskRejectedException 작업 큐가 가득 찬 경우 (등록한 문서와 작업은 삭제)
+     */
+    public IngestionJob submit(MultipartFile file, String userId) throws IOException {
+        Path uploadPath = storeUpload(file);
+        if (!dataLoaderService.isSupported(new FileSystemResource(uploadPath))) {
+            FileSystemUtils.deleteRecursively(uploadPath.getParent());
+            throw new IllegalArgumentException("지원되지 않는 파일 형식입니다: " + uploadPath.getFileName());
+        }
+
+        DocumentInfo docInfo = dataLoaderService.saveDocumentInfo(file, userId);
+        IngestionJob job = ingestionJobRepository.save(IngestionJob.builder()
+                .documentId(docInfo.getId())
+                .userId(userId)
+                .type(IngestionJob.Type.INGEST)
+                .status(IngestionJob.Status.QUEUED)
+                .stage(IngestionJob.Stage.QUEUED)
+                .filePath(uploadPath.toString())
+                .build());
+        log.info("적재 작업 등록, 작업 ID: {}, 문서 ID: {}", job.getId(), docInfo.getId());
+
+        enqueue(job, this::discardRejected);
+        return job;
+    }
+
+    /**
+     * 기존 문서의 새 버전 파일을 보관하고 갱신 작업을 큐에 등록합니다.
+     * 갱신 작업은 새 버전을 다시 청킹하여 저장된 청크와 비교한 뒤 바뀐 청크만 요약/임베딩하여 저장합니다.
+     * 새 청크는 윈도우마다 바로 저장되고 이전 버전에만 있는 청크는 완료 시점에 삭제되므로,
+     * 작업이 진행되는 동안에는 이전 버전과 새 버전의 청크가 함께 검색됩니다. (바뀐 문단은 두 버전이 모두 나올 수 있음)
+     *
+     * @param documentId 갱신할 문서 ID
+     * @param file       새 버전 파일
+     * @param userId     사용자 ID
+     * @return 등록된 갱신 작업
+     * @throws IOException 파일 보관 중 발생한 예외
+     * @throws NoSuchElementException 문서가 없거나 사용자의 문서가 아닌 경우
+     * @throws IllegalArgumentException 지원되지 않는 파일 형식인 경우
+     * @throws IllegalStateException 문서에 진행 중인 적재 작업이 있는 경우
+     * @throws TaskRejectedException 작업 큐가 가득 찬 경우
+     */
+    public IngestionJob submitUpdate(Long documentId, MultipartFile file, String userId) throws IOException {
+        documentInfoRepository.findById(documentId)
+                .filter(doc -> Objects.equals(doc.getUserId(), userId))
+                .orElseThrow(() -> new NoSuchElementException("문서를 찾을 수 없습니다: " + documentId));
+
+        Path uploadPath = storeUpload(file);
+        if (!dataLoaderService.isSupported(new FileSystemResource(uploadPath))) {
+            FileSystemUtils.deleteRecursively(uploadPath.getParent());
+            throw new IllegalArgumentException("지원되지 않는 파일 형식입니다: " + uploadPath.getFileName());
+        }
+
+        IngestionJob job;
+        synchronized (this) {
+            // 같은 문서에 대한 적재/갱신이 동시에 진행되지 않도록 등록 시점에 확인
+            if (ingestionJobRepository.existsByDocumentIdAndStatusIn(documentId,
+                    EnumSet.of(IngestionJob.Status.QUEUED, IngestionJob.Status.RUNNING))) {
+                FileSystemUtils.deleteRecursively(uploadPath.getParent());
+                throw new IllegalStateException("진행 중인 적재 작업이 있습니다: " + documentId);
+            }
+            job = ingestionJobRepository.save(IngestionJob.builder()
+                    .documentId(documentId)
+                    .userId(userId)
+                    .type(IngestionJob.Type.UPDATE)
+                    .status(IngestionJob.Status.QUEUED)
+                    .stage(IngestionJob.Stage.QUEUED)
+                    .filePath(uploadPath.toString())
+                    .build());
+        }
+        log.info("문서 갱신 작업 등록, 작업 ID: {}, 문서 ID: {}", job.getId(), documentId);
+
+        enqueue(job);
+        return job;
+    }
+
+    /**
+     * 여러 파일(ZIP 포함)을 보관하고 하나의 일괄 적재 작업 묶음으로 큐에 등록합니다.
+     * ZIP 은 포함된 파일별로 풀어 각각 문서/적재 작업으로 등록하며, 지원하지 않는 형식은 거절합니다.
+     * 파일별 적재 진행 상황은 반환된 작업 ID 로 조회할 수 있습니다.
+     *
+     * @param files  업로드된 파일 목록
+     * @param userId 사용자 ID
+     * @return 파일별 등록 결과
+     * @throws IOException 파일 보관 중 발생한 예외
+     * @throws TaskRejectedException 작업 큐가 가득 찬 경우 (등록한 문서와 작업은 삭제)
+     */
+    public BulkUploadResponse submitBulk(List<MultipartFile> files, String userId) throws IOException {
+        List<BulkUploadResponse.FileResult> results = new ArrayList<>();
+        List<IngestionJob> jobs = new ArrayList<>();
+        for (MultipartFile file : files) {
+            String filename = Optional.ofNullable(file.getOriginalFilename()).orElse("upload");
+            if (filename.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                Path zipPath = storeUpload(file);
+                try {
+                    for (ExtractedEntry entry : extractZip(zipPath, filename, results)) {
+                        registerBulkFile(entry.displayName(), entry.path(), userId, results, jobs);
+                    }
+                } finally {
+                    FileSystemUtils.deleteRecursively(zipPath.getParent());
+                }
+            } else if (file.isEmpty()) {
+                results.add(BulkUploadResponse.FileResult.rejected(filename, "빈 파일입니다."));
+            } else {
+                registerBulkFile(filename, storeUpload(file), userId, results, jobs);
+            }
+        }
+
+        if (!jobs.isEmpty()) {
+            List<Long> jobIds = jobs.stream().map(IngestionJob::getId).toList();
+            try {
+                ingestionExecutor.execute(() -> runBulk(jobIds));
+            } catch (TaskRejectedException e) {
+                log.warn("적재 작업 큐가 가득 찼습니다. 일괄 작업 수: {}", jobIds.size());
+                jobs.forEach(this::discardRejected);
+                throw e;
+            }
+            log.info("일괄 적재 작업 등록, 작업 수: {}", jobIds.size());
+        }
+        return BulkUploadResponse.of(results);
+    }
+
+    private void registerBulkFile(String displayName, Path path, String userId,
+                                  List<BulkUploadResponse.FileResult> results, List<IngestionJob> jobs) throws IOException {
+        if (!dataLoaderService.isSupported(new FileSystemResource(path))) {
+            FileSystemUtils.deleteRecursively(path.getParent());
+            results.add(BulkUploadResponse.FileResult.rejected(displayName, "지원되지 않는 파일 형식입니다."));
+            return;
+        }
+        String filename = path.getFileName().toString();
+        DocumentInfo docInfo = dataLoaderService.saveDocumentInfo(filename, contentType(filename),
+                Files.size(path), userId);
+        IngestionJob job = ingestionJobRepository.save(IngestionJob.builder()
+                .documentId(docInfo.getId())
+                .userId(userId)
+                .type(IngestionJob.Type.INGEST)
+                .status(IngestionJob.Status.QUEUED)
+                .stage(IngestionJob.Stage.QUEUED)
+                .filePath(path.toString())
+                .build());
+        jobs.add(job);
+        results.add(BulkUploadResponse.FileResult.accepted(displayName, job.getId(), docInfo.getId()));
+    }
+
+    /**
+     * ZIP 을 파일별 작업 디렉토리로 풉니다.
+     * 디렉토리, 숨김/메타데이터 파일은 건너뛰고, 경로 조작(zip slip) 항목과 개수/크기 제한을 넘는 항목은 거절합니다.
+     */
+    private List<ExtractedEntry> extractZip(Path zipPath, String zipName,
+                                            List<BulkUploadResponse.FileResult> results) throws IOException {
+        List<ExtractedEntry> extracted = new ArrayList<>();
+        long totalBytes = 0;
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(zipPath))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String entryName = entry.getName();
+                String displayName = zipName + "!" + entryName;
+                String filename = StringUtils.getFilename(StringUtils.cleanPath(entryName));
+                if (entry.isDirectory() || !StringUtils.hasText(filename)
+                        || filename.startsWith(".") || entryName.startsWith("__MACOSX/")) {
+                    continue;
+                }
+                if (Paths.get(entryName).isAbsolute() || StringUtils.cleanPath(entryName).startsWith("..")) {
+                    results.add(BulkUploadResponse.FileResult.rejected(displayName, "허용되지 않는 경로입니다."));
+                    continue;
+                }
+                if (extracted.size() >= maxZipEntries) {
+                    results.add(BulkUploadResponse.FileResult.rejected(displayName, "압축 파일당 최대 파일 수를 초과했습니다."));
+                    continue;
+                }
+
+                Path jobDir = Paths.get(storageDir, UUID.randomUUID().toString());
+                Files.createDirectories(jobDir);
+                Path target = jobDir.resolve(filename).normalize();
+                if (!target.startsWith(jobDir)) {
+                    FileSystemUtils.deleteRecursively(jobDir);
+                    results.add(BulkUploadResponse.FileResult.rejected(displayName, "허용되지 않는 경로입니다."));
+                    continue;
+                }
+                long written = copyLimited(zip, target, maxZipBytesSize.toBytes() - totalBytes);
+                if (written < 0) {
+                    FileSystemUtils.deleteRecursively(jobDir);
+                    results.add(BulkUploadResponse.FileResult.rejected(displayName, "압축 해제 크기 제한을 초과했습니다."));
+                    break;
+                }
+                totalBytes += written;
+                if (written == 0) {
+                    FileSystemUtils.deleteRecursively(jobDir);
+                    results.add(BulkUploadResponse.FileResult.rejected(displayName, "빈 파일입니다."));
+                    continue;
+                }
+                extracted.add(new ExtractedEntry(displayName, target));
+            }
+        }
+        return extracted;
+    }
+
+    /**
+     * 최대 limit 바이트까지 복사합니다. (압축 폭탄 방지)
+     *
+     * @return 복사한 바이트 수, 제한을 넘으면 -1
+     */
+    private static long copyLimited(InputStream in, Path target, long limit) throws IOException {
+        byte[] buffer = new byte[8192];
+        long written = 0;
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                written += read;
+                if (written > limit) {
+                    return -1;
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * 적재 작업을 조회합니다.
+     *
+     * @param jobId 작업 ID
+     * @return 적재 작업
+     */
+    public Optional<IngestionJob> getJob(Long jobId) {
+        return ingestionJobRepository.findById(jobId);
+    }
+
+    /**
+     * 사용자의 적재 작업 목록을 조회합니다.
+     *
+     * @param userId 사용자 ID
+     * @return 적재 작업 목록
+     */
+    public List<IngestionJob> getUserJobs(String userId) {
+        return ingestionJobRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    /**
+     * 재시작 시 미완료(QUEUED, RUNNING) 작업을 복구합니다.
+     * 보관 파일이 남아있고 재시도 횟수가 남은 작업은 부분 저장된 청크를 정리한 뒤 재개하고,
+     * 그렇지 않은 작업은 실패 처리합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverUnfinishedJobs() {
+        List<IngestionJob> unfinished = ingestionJobRepository.findByStatusIn(
+                EnumSet.of(IngestionJob.Status.QUEUED, IngestionJob.Status.RUNNING));
+        if (unfinished.isEmpty()) {
+            return;
+        }
+        log.info("미완료 적재 작업 복구 시작, 작업 수: {}", unfinished.size());
+
+        for (IngestionJob job : unfinished) {
+            boolean fileExists = job.getFilePath() != null && Files.exists(Paths.get(job.getFilePath()));
+            if (!fileExists || job.getAttempts() >= maxAttempts) {
+                fail(job, fileExists ? "재시도 횟수 초과" : "재시작 후 업로드 파일을 찾을 수 없습니다.");
+                continue;
+            }
+            if (job.getStatus() == IngestionJob.Status.RUNNING && !job.isUpdate()) {
+                // 중단된 작업이 남긴 부분 청크 제거 후 처음부터 재실행
+                // (갱신 작업은 이전 버전을 유지해야 하며, 재실행 시 부분 저장된 청크도 비교 대상이 되므로 정리하지 않음)
+                vectorStoreService.removeDocumentsFromVectorStore(List.of(job.getDocumentId()));
+            }
+            resetProgress(job);
+            try {
+                enqueue(ingestionJobRepository.save(job));
+            } catch (TaskRejectedException e) {
+                fail(job, "작업 큐가 가득 차 재개하지 못했습니다.");
+            }
+        }
+    }
+
+    private void enqueue(IngestionJob job) {
+        enqueue(job, rejected -> fail(rejected, "작업 큐가 가득 찼습니다."));
+    }
+
+    /**
+     * @param onRejected 큐가 가득 차 등록하지 못한 작업 처리
+     */
+    private void enqueue(IngestionJob job, Consumer<IngestionJob> onRejected) {
+        Long jobId = job.getId();
+        try {
+            ingestionExecutor.execute(() -> run(jobId));
+        } catch (TaskRejectedException e) {
+            log.warn("적재 작업 큐가 가득 찼습니다. 작업 ID: {}", jobId);
+            onRejected.accept(job);
+            throw e;
+        }
+    }
+
+    /**
+     * 업로드 요청 중 큐에 넣지 못한 신규 적재 작업을 정리합니다.
+     * 적재되지 않은 문서가 사용자 문서 목록에 남지 않도록 작업과 문서 행, 업로드 파일을 삭제합니다.
+     */
+    private void discardRejected(IngestionJob job) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ingestionJobRepository.deleteById(job.getId());
+            documentInfoRepository.deleteById(job.getDocumentId());
+        });
+        deleteUpload(job);
+    }
+
+    /**
+     * 워커 스레드에서 적재 파이프라인을 실행합니다.
+     *
+     * @param jobId 작업 ID
+     */
+    void run(Long jobId) {
+        IngestionJob job = ingestionJobRepository.findById(jobId).orElse(null);
+        DocumentInfo docInfo = start(job);
+        if (docInfo == null) {
+            return;
+        }
+
+        try {
+            FileSystemResource resource = new FileSystemResource(job.getFilePath());
+            if (job.isUpdate()) {
+                update(job, docInfo, resource);
+            } else {
+                dataLoaderService.processAndStoreDocument(docInfo, resource, new JobProgressListener(job));
+            }
+        } catch (Exception e) {
+            failAndCleanup(job, e);
+            return;
+        }
+        complete(job, docInfo);
+    }
+
+    /**
+     * 새 버전 파일을 저장된 청크와 비교하여 반영하고 문서 버전을 올립니다.
+     * 파일 내용과 이름이 현재 버전과 같으면 청크 비교 없이 끝냅니다.
+     */
+    private void update(IngestionJob job, DocumentInfo docInfo, FileSystemResource resource) throws IOException {
+        String contentHash = fileHash(resource);
+        String filename = resource.getFilename();
+        if (contentHash.equals(docInfo.getContentHash()) && filename.equals(docInfo.getFilename())) {
+            log.info("현재 버전과 같은 파일이므로 갱신을 생략합니다. 문서 ID: {}", docInfo.getId());
+            return;
+        }
+
+        // 청크 메타데이터(file_name)에 새 버전 파일명 반영
+        docInfo.setFilename(filename);
+        DataLoaderService.UpdateResult result = dataLoaderService.updateDocument(docInfo, resource,
+                new JobProgressListener(job));
+        job.setRetainedCount(result.retained());
+        job.setRemovedCount(result.removed());
+        activeDocumentVectorCache.invalidateDocuments(List.of(docInfo.getId()));
+        docInfo.nextVersion(filename, contentType(filename), resource.contentLength(), contentHash);
+    }
+
+    /**
+     * 여러 업로드 파일을 하나의 워커에서 파이프라인으로 적재합니다.
+     * 워커는 파일을 차례로 파싱/청킹하고, 청크는 파일 경계와 관계없이 모아서 별도 writer 스레드가 일괄 저장합니다.
+     * 저장이 끝난 파일부터 작업을 완료 처리합니다.
+     *
+     * @param jobIds 작업 ID 목록
+     */
+    void runBulk(List<Long> jobIds) {
+        List<BulkEntry> inFlight = new ArrayList<>();
+        try (PipelinedChunkWriter writer = dataLoaderService.openBatchWriter()) {
+            for (Long jobId : jobIds) {
+                IngestionJob job = ingestionJobRepository.findById(jobId).orElse(null);
+                DocumentInfo docInfo = start(job);
+                if (docInfo == null) {
+                    continue;
+                }
+                JobProgressListener listener = new JobProgressListener(job);
+                AtomicInteger stored = new AtomicInteger();
+                try {
+                    CompletableFuture<Void> done = dataLoaderService.processDocument(docInfo,
+                            new FileSystemResource(job.getFilePath()), listener,
+                            chunks -> writer.submit(chunks).thenRun(() -> stored.addAndGet(chunks.size())));
+                    inFlight.add(new BulkEntry(job, docInfo, stored, done));
+                } catch (Exception e) {
+                    failAndCleanup(job, e);
+                }
+                finishStored(inFlight, false);
+            }
+        }
+        finishStored(inFlight, true);
+    }
+
+    /**
+     * 저장이 끝난 일괄 적재 파일의 작업을 완료(또는 실패) 처리합니다.
+     *
+     * @param inFlight 저장 대기 중인 파일
+     * @param await    저장 완료까지 대기 여부
+     */
+    private void finishStored(List<BulkEntry> inFlight, boolean await) {
+        Iterator<BulkEntry> iterator = inFlight.iterator();
+        while (iterator.hasNext()) {
+            BulkEntry entry = iterator.next();
+            if (!await && !entry.done().isDone()) {
+                continue;
+            }
+            iterator.remove();
+            try {
+                entry.done().join();
+            } catch (CompletionException | CancellationException e) {
+                failAndCleanup(entry.job(), e.getCause() instanceof Exception cause ? cause : e);
+                continue;
+            }
+            // 최종 건수는 완료 처리에서 함께 기록
+            entry.job().setStoredCount(entry.job().getStoredCount() + entry.stored().get());
+            complete(entry.job(), entry.docInfo());
+        }
+    }
+
+    /**
+     * 작업을 실행 상태로 전환합니다.
+     *
+     * @return 문서 정보, 실행할 수 없는 작업이면 null
+     */
+    private DocumentInfo start(IngestionJob job) {
+        if (job == null || job.isFinished()) {
+            return null;
+        }
+        DocumentInfo docInfo = documentInfoRepository.findById(job.getDocumentId()).orElse(null);
+        if (docInfo == null) {
+            fail(job, "문서 정보가 삭제되었습니다.");
+            return null;
+        }
+
+        job.setStatus(IngestionJob.Status.RUNNING);
+        job.setAttempts(job.getAttempts() + 1);
+        ingestionJobRepository.save(job);
+        log.info("적재 작업 시작, 작업 ID: {}, 문서 ID: {}", job.getId(), docInfo.getId());
+        return docInfo;
+    }
+
+    /**
+     * 작업을 완료 처리합니다.
+     * 작업 도중 문서가 삭제되었을 수 있으므로 작업/문서 행을 잠금 조회하여 남아 있을 때만 반영하고,
+     * 문서는 워커가 가진 사본이 아닌 현재 행에 바뀐 항목만 반영합니다. (작업 중 사용자가 바꾼 활성화 상태 유지)
+     */
+    private void complete(IngestionJob job, DocumentInfo docInfo) {
+        String contentHash = null;
+        if (!job.isUpdate()) {
+            // 이후 같은 파일로 갱신 요청 시 비교 생략용
+            try {
+                contentHash = fileHash(new FileSystemResource(job.getFilePath()));
+            } catch (IOException e) {
+                log.warn("업로드 파일 해시 계산 실패, 작업 ID: {}", job.getId(), e);
+            }
+        }
+        String uploadHash = contentHash;
+
+        job.setStatus(IngestionJob.Status.COMPLETED);
+        job.setStage(IngestionJob.Stage.DONE);
+        job.setFinishedAt(LocalDateTime.now());
+        boolean completed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            DocumentInfo current = lockExisting(job);
+            if (current == null) {
+                return false;
+            }
+            ingestionJobRepository.save(job);
+            if (job.isUpdate()) {
+                current.setFilename(docInfo.getFilename());
+                current.setContentType(docInfo.getContentType());
+                current.setFileSize(docInfo.getFileSize());
+                current.setContentHash(docInfo.getContentHash());
+                current.setVersion(docInfo.getVersion());
+                current.setUpdatedAt(docInfo.getUpdatedAt());
+            } else {
+                current.setContentHash(uploadHash);
+                // 신규 적재만 RAG 대상으로 활성화, 갱신은 사용자가 지정한 활성화 상태 유지
+                current.setOnChat(true);
+            }
+            documentInfoRepository.save(current);
+            return true;
+        }));
+        if (completed) {
+            log.info("적재 작업 완료, 작업 ID: {}, 청크 수: {}", job.getId(), job.getStoredCount());
+        } else {
+            discardDeleted(job);
+        }
+        deleteUpload(job);
+    }
+
+    private void failAndCleanup(IngestionJob job, Exception e) {
+        log.error("적재 작업 실패, 작업 ID: {}", job.getId(), e);
+        if (!job.isUpdate()) {
+            // 갱신 작업은 새로 저장한 청크만 정리되고 이전 버전이 유지됨
+            vectorStoreService.removeDocumentsFromVectorStore(List.of(job.getDocumentId()));
+        }
+        fail(job, e.getMessage());
+    }
+
+    private void fail(IngestionJob job, String message) {
+        job.setStatus(IngestionJob.Status.FAILED);
+        job.setErrorMessage(message);
+        job.setFinishedAt(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            // 삭제된 작업을 다시 저장하지 않음
+            if (ingestionJobRepository.findByIdForUpdate(job.getId()).isPresent()) {
+                ingestionJobRepository.save(job);
+            }
+        });
+        deleteUpload(job);
+    }
+
+    /**
+     * 작업과 문서 행을 잠급니다. 잠금은 트랜잭션이 끝날 때까지 유지되어 그동안 문서 삭제가 대기합니다.
+     *
+     * @return 현재 문서 정보, 작업이나 문서가 삭제되었으면 null
+     */
+    private DocumentInfo lockExisting(IngestionJob job) {
+        if (ingestionJobRepository.findByIdForUpdate(job.getId()).isEmpty()) {
+            return null;
+        }
+        return documentInfoRepository.findByIdForUpdate(job.getDocumentId()).orElse(null);
+    }
+
+    /**
+     * 작업 중 삭제된 문서에 대해 저장한 청크를 제거합니다. (삭제 요청 시점 이후 저장된 청크)
+     */
+    private void discardDeleted(IngestionJob job) {
+        log.info("작업 중 문서가 삭제되어 저장한 청크를 제거합니다. 작업 ID: {}, 문서 ID: {}", job.getId(), job.getDocumentId());
+        try {
+            vectorStoreService.removeDocumentsFromVectorStore(List.of(job.getDocumentId()));
+        } catch (Exception e) {
+            log.warn("삭제된 문서의 청크 제거 실패, 문서 ID: {}", job.getDocumentId(), e);
+        }
+    }
+
+    private void resetProgress(IngestionJob job) {
+        job.setStatus(IngestionJob.Status.QUEUED);
+        job.setStage(IngestionJob.Stage.QUEUED);
+        job.setParsedCount(0);
+        job.setChunkCount(0);
+        job.setEnrichedCount(0);
+        job.setStoredCount(0);
+        job.setRetainedCount(0);
+        job.setRemovedCount(0);
+    }
+
+    private static String contentType(String filename) {
+        return MediaTypeFactory.getMediaType(filename)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString();
+    }
+
+    /**
+     * 파일 내용의 SHA-256 을 계산합니다.
+     */
+    private static String fileHash(Resource resource) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+        try (InputStream in = new DigestInputStream(resource.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 업로드 파일을 작업 디렉토리에 보관합니다.
+     * 처리 전략이 파일명 확장자로 선택되므로 원본 파일명을 유지합니다.
+     * 멀티파트 임시 파일이 같은 파일 시스템에 있으면 복사 없이 이동되며, 이후 단계는 이 파일을 직접 읽습니다.
+     */
+    private Path storeUpload(MultipartFile file) throws IOException {
+        String filename = StringUtils.getFilename(StringUtils.cleanPath(
+                Optional.ofNullable(file.getOriginalFilename()).orElse("upload")));
+        Path jobDir = Paths.get(storageDir, UUID.randomUUID().toString());
+        Files.createDirectories(jobDir);
+        Path target = jobDir.resolve(filename);
+        file.transferTo(target);
+        return target;
+    }
+
+    /**
+     * 남겨진 임시 파일을 주기적으로 정리합니다.
+     * - 미완료 작업이 참조하지 않는 작업 디렉토리 (비정상 종료, 작업 등록 전 실패 등)
+     * - 멀티파트 임시 파일 (요청 중단 등으로 컨테이너가 지우지 못한 파일)
+     * 진행 중인 업로드와 겹치지 않도록 stale-upload-age 보다 오래된 항목만 삭제합니다.
+     */
+    @Scheduled(fixedDelayString = "${rag.ingestion.stale-upload-sweep-interval:PT1H}",
+            initialDelayString = "${rag.ingestion.stale-upload-sweep-interval:PT1H}")
+    public void sweepStaleUploads() {
+        Path root = Paths.get(storageDir);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        Set<Path> activeDirs = ingestionJobRepository.findByStatusIn(
+                        EnumSet.of(IngestionJob.Status.QUEUED, IngestionJob.Status.RUNNING)).stream()
+                .map(IngestionJob::getFilePath)
+                .filter(Objects::nonNull)
+                .map(filePath -> Paths.get(filePath).getParent().toAbsolutePath().normalize())
+                .collect(Collectors.toSet());
+        Instant cutoff = Instant.now().minus(staleUploadAge);
+
+        int deleted = 0;
+        try (Stream<Path> entries = Files.list(root)) {
+            for (Path entry : entries.toList()) {
+                if (entry.getFileName().toString().equals(IngestionConfig.MULTIPART_DIR)) {
+                    deleted += deleteOlderThan(entry, cutoff);
+                } else if (!activeDirs.contains(entry.toAbsolutePath().normalize()) && isOlderThan(entry, cutoff)) {
+                    FileSystemUtils.deleteRecursively(entry);
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("임시 업로드 파일 정리 실패: {}", root, e);
+        }
+        if (deleted > 0) {
+            log.info("오래된 임시 업로드 정리, 삭제 수: {}", deleted);
+        }
+    }
+
+    private static int deleteOlderThan(Path dir, Instant cutoff) throws IOException {
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                if (isOlderThan(file, cutoff) && FileSystemUtils.deleteRecursively(file)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private static boolean isOlderThan(Path path, Instant cutoff) throws IOException {
+        return Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+    }
+
+    private void deleteUpload(IngestionJob job) {
+        if (job.getFilePath() == null) {
+            return;
+        }
+        try {
+            FileSystemUtils.deleteRecursively(Paths.get(job.getFilePath()).getParent());
+        } catch (IOException e) {
+            log.warn("업로드 파일 삭제 실패: {}", job.getFilePath(), e);
+        }
+    }
+
+    private record ExtractedEntry(String displayName, Path path) {
+    }
+
+    private record BulkEntry(IngestionJob job, DocumentInfo docInfo, AtomicInteger stored,
+                             CompletableFuture<Void> done) {
+    }
+
+    /**
+     * 파이프라인 진행 상황을 작업 엔티티에 반영하는 리스너
+     * 단계/건수 변경마다 기록하면 윈도우마다 여러 번 DB 에 쓰게 되므로, progress-interval 간격으로 모아서 기록합니다.
+     * 기록 시 작업이 삭제된 것을 확인하면 적재를 중단합니다. (CancellationException, 저장한 청크는 실패 처리에서 정리)
+     */
+    private class JobProgressListener implements IngestionProgressListener {
+
+        private final IngestionJob job;
+        private long lastFlush = System.nanoTime();
+
+        JobProgressListener(IngestionJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public synchronized void onStage(IngestionJob.Stage stage) {
+            job.setStage(stage);
+            flush();
+        }
+
+        @Override
+        public synchronized void onParsed(int count) {
+            job.setParsedCount(job.getParsedCount() + count);
+            flush();
+        }
+
+        @Override
+        public synchronized void onChunked(int count) {
+            job.setChunkCount(job.getChunkCount() + count);
+            flush();
+        }
+
+        @Override
+        public synchronized void onEnriched(int count) {
+            job.setEnrichedCount(job.getEnrichedCount() + count);
+            flush();
+        }
+
+        @Override
+        public synchronized void onStored(int count) {
+            job.setStoredCount(job.getStoredCount() + count);
+            flush();
+        }
+
+        private void flush() {
+            long now = System.nanoTime();
+            if (now - lastFlush < progressInterval.toNanos()) {
+                return;
+            }
+            lastFlush = now;
+            int updated = ingestionJobRepository.updateProgress(job.getId(), job.getStage(), job.getParsedCount(),
+                    job.getChunkCount(), job.getEnrichedCount(), job.getStoredCount(), LocalDateTime.now());
+            if (updated == 0) {
+                throw new CancellationException("적재 작업이 삭제되었습니다: " + job.getId());
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.bigteam.aichat.service;
+
+import com.bigteam.aichat.entity.IngestionJob;
+
+/**
+ * 문서 적재 파이프라인의 단계별 진행 상황을 전달받는 리스너
+ */
+public interface IngestionProgressListener {
+
+    IngestionProgressListener NOOP = new IngestionProgressListener() {};
+
+    /**
+     * 파이프라인 단계가 시작될 때 호출됩니다.
+     * @param stage 시작된 단계
+     */
+    default void onStage(IngestionJob.Stage stage) {}
+
+    /**
+     * 문서가 파싱되었을 때 호출됩니다.
+     * @param count 새로 파싱된 문서(페이지/문단) 수
+     */
+    default void onParsed(int count) {}
+
+    /**
+     * 청크가 생성되었을 때 호출됩니다.
+     * @param count 새로 생성된 청크 수
+     */
+    default void onChunked(int count) {}
+
+    /**
+     * 청크 요약이 완료되었을 때 호출됩니다.
+     * @param count 새로 요약된 청크 수
+     */
+    default void onEnriched(int count) {}
+
+    /**
+     * 청크가 벡터 저장소에 저장되었을 때 호출됩니다.
+     * @param count 새로 저장된 청크 수
+     */
+    default void onStored(int count) {}
+}
@@ -0,0 +1,167 @@
+package com.bigteam.aichat.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.springframework.ai.document.Document;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 여러 파일의 청크를 모아 벡터 저장소에 일괄 저장하는 파이프라인 writer
+ * 적재 워커가 다음 파일(윈도우)을 파싱/청킹하는 동안 전용 스레드가 이전 청크의 임베딩 및 저장을 수행합니다.
+ * - 파일 경계와 관계없이 청크가 batchSize 개 이상 모이면 저장을 한 번 호출 (임베딩 요청, INSERT 왕복 횟수 감소)
+ * - batchSize 에 못 미쳐도 linger 동안 새 청크가 없으면 저장
+ * - 큐가 가득 차면 submit 이 대기하여 파싱이 저장보다 앞서 나가지 않음 (메모리 상한)
+ * 제출한 청크의 저장 결과는 submit 이 반환한 future 로 전달되며, 저장 실패는 해당 배치의 future 에만 전파됩니다.
+ * writer 스레드가 중단되면(인터럽트, Error 등) 처리 중인 배치와 대기열의 모든 future 를 실패 처리하므로 제출자가 무한 대기하지 않습니다.
+ */
+@Slf4j
+public class PipelinedChunkWriter implements AutoCloseable {
+
+    private static final Pending END = new Pending(List.of(), null);
+
+    private final Consumer<List<Document>> store;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<Pending> queue;
+    private final Thread writerThread;
+    private final CompletableFuture<Void> finished = new CompletableFuture<>();
+    private final AtomicBoolean closing = new AtomicBoolean();
+
+    /**
+     * @param store         청크 저장 (vectorStore::add 등)
+     * @param batchSize     한 번에 모아 저장할 청크 수
+     * @param queueCapacity 저장 대기 가능한 제출 건수
+     * @param linger        배치가 차지 않았을 때 추가 청크를 기다리는 시간
+     */
+    public PipelinedChunkWriter(Consumer<List<Document>> store, int batchSize, int queueCapacity, Duration linger) {
+        this.store = store;
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerNanos = linger.toNanos();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.writerThread = new Thread(this::writeLoop, "bulk-chunk-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 청크를 저장 대기열에 추가합니다. 대기열이 가득 차면 자리가 날 때까지 대기합니다.
+     * close 가 시작된 뒤의 제출은 실패한 future 를 반환합니다.
+     *
+     * @param chunks 저장할 청크
+     * @return 저장 완료 future
+     */
+    public CompletableFuture<Void> submit(List<Document> chunks) {
+        CompletableFuture<Void> stored = new CompletableFuture<>();
+        if (chunks.isEmpty()) {
+            stored.complete(null);
+            return stored;
+        }
+        if (closing.get() || finished.isDone()) {
+            stored.completeExceptionally(closed());
+            return stored;
+        }
+        try {
+            queue.put(new Pending(chunks, stored));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stored.completeExceptionally(e);
+            return stored;
+        }
+        // close 와 경합하여 END 뒤에 들어갔거나 writer 가 이미 종료된 경우, 남은 제출을 직접 실패 처리
+        if (finished.isDone()) {
+            failQueued(closed());
+        }
+        return stored;
+    }
+
+    /**
+     * 대기 중인 청크를 모두 저장한 뒤 writer 스레드를 종료합니다.
+     */
+    @Override
+    public void close() {
+        try {
+            if (closing.compareAndSet(false, true) && !finished.isDone()) {
+                queue.put(END);
+            }
+            finished.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writerThread.interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>();
+        int batchChunks = 0;
+        boolean ended = false;
+        Throwable failure = null;
+        try {
+            while (!ended) {
+                Pending next = batch.isEmpty() ? queue.take() : queue.poll(lingerNanos, TimeUnit.NANOSECONDS);
+                if (next == END) {
+                    ended = true;
+                } else if (next != null) {
+                    batch.add(next);
+                    batchChunks += next.chunks().size();
+                }
+                if (!batch.isEmpty() && (next == null || ended || batchChunks >= batchSize)) {
+                    flush(batch, batchChunks);
+                    batch = new ArrayList<>();
+                    batchChunks = 0;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        } catch (Throwable e) {
+            log.error("청크 writer 스레드 비정상 종료, 대기 중인 제출을 실패 처리합니다.", e);
+            failure = e;
+        } finally {
+            // 종료 표시를 먼저 해야 이후 submit 이 대기열에 넣은 제출도 스스로 실패 처리됨
+            finished.complete(null);
+            Throwable cause = failure != null ? failure : closed();
+            for (Pending pending : batch) {
+                pending.stored().completeExceptionally(cause);
+            }
+            failQueued(cause);
+        }
+    }
+
+    private void failQueued(Throwable cause) {
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            if (pending != END) {
+                pending.stored().completeExceptionally(cause);
+            }
+        }
+    }
+
+    private static IllegalStateException closed() {
+        return new IllegalStateException("writer 가 종료되었습니다.");
+    }
+
+    private void flush(List<Pending> batch, int batchChunks) {
+        List<Document> documents = new ArrayList<>(batchChunks);
+        batch.forEach(pending -> documents.addAll(pending.chunks()));
+        try {
+            store.accept(documents);
+            log.debug("청크 일괄 저장 완료, 제출 건수: {}, 청크 수: {}", batch.size(), documents.size());
+            batch.forEach(pending -> pending.stored().complete(null));
+        } catch (Exception e) {
+            log.warn("청크 일괄 저장 실패, 제출 건수: {}, 청크 수: {}", batch.size(), documents.size(), e);
+            batch.forEach(pending -> pending.stored().completeExceptionally(e));
+        }
+    }
+
+    private record Pending(List<Document> chunks, CompletableFuture<Void> stored) {
+    }
+}
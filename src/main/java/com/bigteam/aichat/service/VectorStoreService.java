@@ -1,12 +1,21 @@
 package com.bigteam.aichat.service;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.UUID;
 
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.bigteam.aichat.rag.vectorstore.ActiveDocumentVectorCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -16,6 +25,9 @@ import lombok.extern.slf4j.Slf4j;
 public class VectorStoreService {
 
     private final VectorStore vectorStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ActiveDocumentVectorCache activeDocumentVectorCache;
 
      /**
      * 벡터 저장소에서 문서를 삭제합니다.
@@ -31,18 +43,95 @@ public class VectorStoreService {
         
         log.info("벡터 저장소에서 문서 삭제 시작, 문서 ID: {}", docIds);
         
-        String filterExpression = "document_id in [" + 
-                docIds.stream()
-                      .map(id -> "'" + id + "'")
-                      .collect(Collectors.joining(", ")) + 
-                "]";
+        // document_id 인덱스 컬럼 조건으로 변환됨 (IndexedPgVectorStore)
+        Filter.Expression filterExpression = new FilterExpressionBuilder()
+                .in("document_id", docIds.toArray())
+                .build();
         
         try {
             vectorStore.delete(filterExpression);
+            activeDocumentVectorCache.invalidateDocuments(docIds);
             log.info("벡터 저장소에서 문서 삭제 완료");
         } catch (Exception e) {
             log.error("벡터 저장소에서 문서 삭제 중 오류 발생", e);
             throw new RuntimeException("벡터 저장소에서 문서 삭제 실패", e);
         }
     }
+
+    /**
+     * 이미 저장된 청크의 메타데이터에 항목을 추가합니다. (지연된 요약 반영 등)
+     * 
+     * @param chunkId  청크 ID (vector_store.id)
+     * @param metadata 추가할 메타데이터
+     * @return 갱신 여부
+     */
+    public boolean mergeMetadata(String chunkId, Map<String, Object> metadata) {
+        int updated = jdbcTemplate.update(
+                "UPDATE vector_store SET metadata = metadata || ?::jsonb WHERE id = ?",
+                writeMetadata(metadata), UUID.fromString(chunkId));
+        return updated > 0;
+    }
+
+    /**
+     * 문서의 저장된 청크를 지문과 함께 조회합니다. (재적재 시 청크 비교용)
+     *
+     * @param documentId 문서 ID
+     * @return 저장된 청크 목록
+     */
+    public List<ChunkDiff.StoredChunk> findChunks(Long documentId) {
+        return jdbcTemplate.query(
+                "SELECT id, metadata FROM vector_store WHERE document_id = ?",
+                (rs, rowNum) -> {
+                    Map<String, Object> metadata = readMetadata(rs.getString("metadata"));
+                    Object hash = metadata.get(ChunkDiff.CHUNK_HASH_METADATA_KEY);
+                    return new ChunkDiff.StoredChunk(rs.getString("id"), hash == null ? null : hash.toString(), metadata);
+                },
+                documentId);
+    }
+
+    /**
+     * 여러 청크의 메타데이터에 항목을 한 번의 배치로 추가합니다.
+     *
+     * @param updates 청크 ID -> 추가할 메타데이터
+     */
+    public void mergeMetadata(Map<String, Map<String, Object>> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = updates.entrySet().stream()
+                .map(entry -> new Object[]{writeMetadata(entry.getValue()), UUID.fromString(entry.getKey())})
+                .toList();
+        jdbcTemplate.batchUpdate(
+                "UPDATE vector_store SET metadata = metadata || ?::jsonb WHERE id = ?", batch);
+    }
+
+    /**
+     * 청크 ID 로 청크를 삭제합니다.
+     *
+     * @param chunkIds 삭제할 청크 ID 목록
+     */
+    public void removeChunks(List<String> chunkIds) {
+        if (!chunkIds.isEmpty()) {
+            vectorStore.delete(chunkIds);
+        }
+    }
+
+    private Map<String, Object> readMetadata(String json) {
+        if (json == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("메타데이터 역직렬화 실패", e);
+        }
+    }
+
+    private String writeMetadata(Map<String, Object> metadata) {
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("메타데이터 직렬화 실패", e);
+        }
+    }
 }
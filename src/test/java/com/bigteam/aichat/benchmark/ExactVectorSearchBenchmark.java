@@ -0,0 +1,76 @@
+package com.bigteam.aichat.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.bigteam.aichat.rag.vectorstore.OffHeapVectorMatrix;
+
+/**
+ * 활성 문서 정확 검색(힙 밖 행렬 코사인 top-k) 지연
+ * rows 건의 dimensions 차원 임베딩에서 top-5 를 찾는 데 걸리는 시간입니다. (벡터 저장소 왕복/HNSW 검색과 비교용)
+ *
+ * 실행: mvn test-compile 후 IDE 에서 main 실행 또는
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" com.bigteam.aichat.benchmark.ExactVectorSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExactVectorSearchBenchmark {
+
+    @Param({"1000", "5000"})
+    public int rows;
+
+    @Param({"768", "1536"})
+    public int dimensions;
+
+    private OffHeapVectorMatrix matrix;
+    private float[] query;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        matrix = new OffHeapVectorMatrix(dimensions, rows);
+        for (int r = 0; r < rows; r++) {
+            matrix.add(randomVector(random));
+        }
+        query = randomVector(random);
+    }
+
+    private float[] randomVector(SplittableRandom random) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) (random.nextDouble() - 0.5);
+        }
+        return vector;
+    }
+
+    @Benchmark
+    public List<OffHeapVectorMatrix.ScoredRow> topK() {
+        return matrix.topK(query, 5, 0.0);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ExactVectorSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
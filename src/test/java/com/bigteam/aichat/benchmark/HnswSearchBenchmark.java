@@ -0,0 +1,212 @@
+package com.bigteam.aichat.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.bigteam.aichat.rag.vectorstore.HnswSearchPlanner;
+import com.bigteam.aichat.rag.vectorstore.HnswSearchPlanner.SearchPlan;
+import com.bigteam.aichat.rag.vectorstore.VectorStoreProperties;
+import com.bigteam.aichat.rag.vectorstore.VectorStoreProperties.IterativeScan;
+import com.pgvector.PGvector;
+
+/**
+ * HNSW ef_search 별 재현율/지연 비교
+ * rows 건의 합성 청크를 m, efConstruction 으로 만든 HNSW 인덱스로 검색합니다.
+ * selectivity 비율의 행만 맞는 user_id 필터를 걸고, 고정 ef_search 와 HnswSearchPlanner 가 고른 방식(planned)을 비교합니다.
+ * 재현율(정확 검색 top-k 대비 일치 비율)은 Setup 에서 recallQueries 개 질의로 계산해 출력하고, 벤치마크 점수는 질의당 지연입니다.
+ * 로컬 pgvector 컨테이너: docker compose up -d pgvector-db
+ *
+ * 실행: mvn test-compile 후
+ * java -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/postgres -Dbench.jdbc.user=postgres -Dbench.jdbc.password=postgres \
+ *   -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" com.bigteam.aichat.benchmark.HnswSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HnswSearchBenchmark {
+
+    private static final int TOP_K = 5;
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"128"})
+    public int dimensions;
+
+    @Param({"16"})
+    public int m;
+
+    @Param({"64"})
+    public int efConstruction;
+
+    /** 필터에 맞는 행 비율 (1.0: 필터 없음) */
+    @Param({"1.0", "0.05", "0.002"})
+    public double selectivity;
+
+    /** 고정 ef_search, 0 이면 HnswSearchPlanner 가 선택 */
+    @Param({"40", "200", "400", "0"})
+    public int efSearch;
+
+    @Param({"50"})
+    public int recallQueries;
+
+    private Connection connection;
+    private SplittableRandom random;
+    private String table;
+    private SearchPlan plan;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/postgres"),
+                System.getProperty("bench.jdbc.user", "postgres"),
+                System.getProperty("bench.jdbc.password", "postgres"));
+        random = new SplittableRandom(42);
+        table = "bench_hnsw_" + rows + "_" + dimensions + "_" + m + "_" + efConstruction;
+        createTable();
+
+        String versionSql = "SELECT extversion FROM pg_extension WHERE extname = 'vector'";
+        boolean iterativeScanSupported;
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(versionSql)) {
+            rs.next();
+            String[] version = rs.getString(1).split("\\.");
+            iterativeScanSupported = Integer.parseInt(version[0]) > 0 || Integer.parseInt(version[1]) >= 8;
+        }
+        HnswSearchPlanner planner = new HnswSearchPlanner(new VectorStoreProperties.Hnsw(), iterativeScanSupported);
+        long matches = Math.round(rows * selectivity);
+        if (efSearch > 0) {
+            plan = planner.fixed(efSearch, TOP_K);
+        } else {
+            plan = selectivity >= 1.0 ? planner.unfiltered(TOP_K) : planner.filtered(TOP_K, matches, rows);
+        }
+        printRecall();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * user_id 는 0 ~ 999 로 나뉘므로 user_id < selectivity * 1000 조건이 selectivity 비율의 행과 맞습니다.
+     */
+    private void createTable() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS vector");
+            try (ResultSet exists = statement.executeQuery("SELECT to_regclass('" + table + "') IS NOT NULL")) {
+                exists.next();
+                if (exists.getBoolean(1)) {
+                    return;
+                }
+            }
+            statement.execute("CREATE TABLE " + table + " (id bigint PRIMARY KEY, user_id int, embedding vector(" + dimensions + "))");
+            statement.execute("INSERT INTO " + table + " SELECT g, g % 1000, (SELECT array_agg(random())::real[] "
+                    + "FROM generate_series(1, " + dimensions + ") WHERE g > 0)::vector FROM generate_series(0, " + (rows - 1) + ") g");
+            statement.execute("CREATE INDEX ON " + table + " (user_id)");
+            statement.execute("SET maintenance_work_mem = '1GB'");
+            statement.execute("CREATE INDEX ON " + table + " USING hnsw (embedding vector_cosine_ops) WITH (m = " + m
+                    + ", ef_construction = " + efConstruction + ")");
+            statement.execute("ANALYZE " + table);
+        }
+    }
+
+    private void printRecall() throws SQLException {
+        SplittableRandom queries = new SplittableRandom(7);
+        double hits = 0;
+        for (int i = 0; i < recallQueries; i++) {
+            PGvector vector = randomVector(queries);
+            Set<String> expected = new HashSet<>(search(vector, new SearchPlan(HnswSearchPlanner.Strategy.EXACT, 0, IterativeScan.OFF)));
+            List<String> actual = search(vector, plan);
+            hits += actual.stream().filter(expected::contains).count() / (double) Math.max(1, expected.size());
+        }
+        System.out.printf("%n[recall] selectivity=%s efSearch=%s plan=%s recall@%d=%.3f%n",
+                selectivity, efSearch, plan, TOP_K, hits / recallQueries);
+    }
+
+    @Benchmark
+    public List<String> search() throws SQLException {
+        return search(randomVector(random), plan);
+    }
+
+    private List<String> search(PGvector vector, SearchPlan searchPlan) throws SQLException {
+        String filter = selectivity >= 1.0 ? "TRUE" : "user_id < " + Math.round(selectivity * 1000);
+        String sql;
+        if (searchPlan.strategy() == HnswSearchPlanner.Strategy.EXACT) {
+            sql = "WITH candidates AS MATERIALIZED (SELECT id, embedding FROM " + table + " WHERE " + filter + ") "
+                    + "SELECT id, embedding <=> ? AS distance FROM candidates ORDER BY distance LIMIT " + TOP_K;
+        } else {
+            sql = "SELECT id, embedding <=> ? AS distance FROM " + table + " WHERE " + filter
+                    + " ORDER BY distance LIMIT " + TOP_K;
+            if (searchPlan.iterativeScan() == IterativeScan.RELAXED_ORDER) {
+                sql = "WITH results AS MATERIALIZED (" + sql + ") SELECT * FROM results ORDER BY distance";
+            }
+        }
+        connection.setAutoCommit(false);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                if (searchPlan.strategy() == HnswSearchPlanner.Strategy.INDEX) {
+                    statement.execute("SET LOCAL hnsw.ef_search = " + searchPlan.efSearch());
+                    if (searchPlan.iterativeScan() != IterativeScan.OFF) {
+                        statement.execute("SET LOCAL hnsw.iterative_scan = " + searchPlan.iterativeScan().settingValue());
+                    }
+                }
+            }
+            List<String> ids = new ArrayList<>(TOP_K);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setObject(1, vector);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getString(1));
+                    }
+                }
+            }
+            return ids;
+        } finally {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private PGvector randomVector(SplittableRandom source) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) source.nextDouble();
+        }
+        return new PGvector(vector);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HnswSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
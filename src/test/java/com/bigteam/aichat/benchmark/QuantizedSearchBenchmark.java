@@ -0,0 +1,208 @@
+package com.bigteam.aichat.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgDistanceType;
+
+import com.bigteam.aichat.rag.vectorstore.QuantizedIndex;
+import com.bigteam.aichat.rag.vectorstore.VectorStoreProperties.QuantizationMode;
+import com.pgvector.PGvector;
+
+/**
+ * 양자화 방식별 HNSW 인덱스 크기/재현율/지연 비교
+ * rows 건의 합성 청크(평균 0 근처)에 방식별 표현식 인덱스({@link QuantizedIndex})를 만들고,
+ * 양자화 인덱스로 topK * rerankMultiplier 개 후보를 찾은 뒤 float32 원본으로 재정렬합니다. (IndexedPgVectorStore 와 같은 쿼리)
+ * 인덱스 크기와 재현율(정확 검색 top-k 대비 일치 비율)은 Setup 에서 출력하고, 벤치마크 점수는 질의당 지연입니다.
+ * 로컬 pgvector 컨테이너: docker compose up -d pgvector-db (pgvector 0.7.0 이상)
+ *
+ * 실행: mvn test-compile 후
+ * java -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/postgres -Dbench.jdbc.user=postgres -Dbench.jdbc.password=postgres \
+ *   -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" com.bigteam.aichat.benchmark.QuantizedSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class QuantizedSearchBenchmark {
+
+    private static final int TOP_K = 5;
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"768"})
+    public int dimensions;
+
+    @Param({"NONE", "HALFVEC", "BINARY"})
+    public QuantizationMode mode;
+
+    @Param({"4"})
+    public int rerankMultiplier;
+
+    @Param({"40"})
+    public int efSearch;
+
+    @Param({"50"})
+    public int recallQueries;
+
+    private Connection connection;
+    private SplittableRandom random;
+    private String table;
+    private QuantizedIndex index;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/postgres"),
+                System.getProperty("bench.jdbc.user", "postgres"),
+                System.getProperty("bench.jdbc.password", "postgres"));
+        random = new SplittableRandom(42);
+        table = "bench_quantized_" + rows + "_" + dimensions;
+        index = new QuantizedIndex(mode, dimensions, PgDistanceType.COSINE_DISTANCE);
+        createTable();
+        printIndexSize();
+        printRecall();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * 테이블은 방식 간에 공유하고 인덱스만 방식별로 만듭니다. 정렬식이 각자의 인덱스 표현식과만 맞으므로 서로 간섭하지 않습니다.
+     */
+    private void createTable() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS vector");
+            try (ResultSet exists = statement.executeQuery("SELECT to_regclass('" + table + "') IS NOT NULL")) {
+                exists.next();
+                if (!exists.getBoolean(1)) {
+                    statement.execute("CREATE TABLE " + table + " (id bigint PRIMARY KEY, embedding vector(" + dimensions + "))");
+                    statement.execute("INSERT INTO " + table + " SELECT g, (SELECT array_agg(random() - 0.5)::real[] "
+                            + "FROM generate_series(1, " + dimensions + ") WHERE g >= 0)::vector FROM generate_series(0, " + (rows - 1) + ") g");
+                    statement.execute("ANALYZE " + table);
+                }
+            }
+            statement.execute("SET maintenance_work_mem = '2GB'");
+            statement.execute("CREATE INDEX IF NOT EXISTS " + indexName() + " ON " + table
+                    + " USING hnsw (" + index.indexTarget() + ") WITH (m = 16, ef_construction = 64)");
+        }
+    }
+
+    private String indexName() {
+        return table + "_" + mode.name().toLowerCase(Locale.ROOT) + "_idx";
+    }
+
+    private void printIndexSize() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_size_pretty(pg_relation_size('" + indexName() + "')), "
+                     + "pg_size_pretty(pg_relation_size('" + table + "'))")) {
+            rs.next();
+            System.out.printf("%n[size] mode=%s index=%s table=%s%n", mode, rs.getString(1), rs.getString(2));
+        }
+    }
+
+    private void printRecall() throws SQLException {
+        SplittableRandom queries = new SplittableRandom(7);
+        double hits = 0;
+        for (int i = 0; i < recallQueries; i++) {
+            PGvector vector = randomVector(queries);
+            Set<Long> expected = new HashSet<>(exactSearch(vector));
+            List<Long> actual = search(vector);
+            hits += actual.stream().filter(expected::contains).count() / (double) Math.max(1, expected.size());
+        }
+        System.out.printf("%n[recall] mode=%s rerankMultiplier=%d efSearch=%d recall@%d=%.3f%n",
+                mode, rerankMultiplier, efSearch, TOP_K, hits / recallQueries);
+    }
+
+    @Benchmark
+    public List<Long> search() throws SQLException {
+        return search(randomVector(random));
+    }
+
+    private List<Long> search(PGvector vector) throws SQLException {
+        if (!index.reranks()) {
+            return query("SELECT id FROM " + table + " ORDER BY " + index.orderBy() + " LIMIT " + TOP_K,
+                    efSearch, vector);
+        }
+        int candidates = TOP_K * rerankMultiplier;
+        return query("WITH candidates AS MATERIALIZED (SELECT id, embedding FROM " + table + " ORDER BY " + index.orderBy()
+                        + " LIMIT " + candidates + ") SELECT id FROM candidates ORDER BY embedding <=> ? LIMIT " + TOP_K,
+                Math.max(efSearch, candidates), vector, vector);
+    }
+
+    private List<Long> exactSearch(PGvector vector) throws SQLException {
+        return query("WITH candidates AS MATERIALIZED (SELECT id, embedding FROM " + table + ") "
+                + "SELECT id FROM candidates ORDER BY embedding <=> ? LIMIT " + TOP_K, 0, vector);
+    }
+
+    private List<Long> query(String sql, int scanEfSearch, PGvector... params) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            if (scanEfSearch > 0) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET LOCAL hnsw.ef_search = " + scanEfSearch);
+                }
+            }
+            List<Long> ids = new ArrayList<>(TOP_K);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getLong(1));
+                    }
+                }
+            }
+            return ids;
+        } finally {
+            connection.rollback();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private PGvector randomVector(SplittableRandom source) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) (source.nextDouble() - 0.5);
+        }
+        return new PGvector(vector);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QuantizedSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
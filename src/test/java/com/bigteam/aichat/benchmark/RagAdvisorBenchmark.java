@@ -0,0 +1,131 @@
+package com.bigteam.aichat.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.advisor.RetrievalAugmentationAdvisor;
+import org.springframework.ai.rag.generation.augmentation.ContextualQueryAugmenter;
+import org.springframework.ai.rag.generation.augmentation.QueryAugmenter;
+import org.springframework.ai.rag.preretrieval.query.expansion.QueryExpander;
+import org.springframework.ai.rag.retrieval.search.VectorStoreDocumentRetriever;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.bigteam.aichat.rag.module.CustomDocumentProcessor;
+
+/**
+ * RAG Advisor 요청당 생성 vs 재사용 비교
+ * GC 프로파일러의 gc.alloc.rate.norm (B/op) 이 요청당 절감되는 할당량입니다.
+ * 
+ * 실행: mvn test-compile 후 IDE 에서 main 실행 또는
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" com.bigteam.aichat.benchmark.RagAdvisorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RagAdvisorBenchmark {
+
+    private VectorStore vectorStore;
+    private QueryExpander queryExpander;
+    private QueryAugmenter queryAugmenter;
+    private CustomDocumentProcessor documentProcessor;
+    private ThreadPoolTaskExecutor sharedExecutor;
+    private Advisor cachedAdvisor;
+
+    @Setup
+    public void setUp() {
+        vectorStore = new NoOpVectorStore();
+        queryExpander = query -> List.of(query);
+        queryAugmenter = ContextualQueryAugmenter.builder().allowEmptyContext(true).build();
+        documentProcessor = new CustomDocumentProcessor();
+        sharedExecutor = new ThreadPoolTaskExecutor();
+        sharedExecutor.initialize();
+        cachedAdvisor = buildAdvisor(sharedExecutor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        sharedExecutor.shutdown();
+    }
+
+    /**
+     * 기존 방식: 요청마다 Advisor, DocumentRetriever, 기본 TaskExecutor 생성
+     */
+    @Benchmark
+    public Advisor rebuildPerRequest() {
+        return buildAdvisor(null);
+    }
+
+    /**
+     * 변경 방식: 공유 Advisor 반환
+     */
+    @Benchmark
+    public Advisor reuseCached() {
+        return cachedAdvisor;
+    }
+
+    private Advisor buildAdvisor(ThreadPoolTaskExecutor executor) {
+        RetrievalAugmentationAdvisor.Builder builder = RetrievalAugmentationAdvisor.builder()
+                .documentRetriever(VectorStoreDocumentRetriever.builder()
+                        .similarityThreshold(0.5)
+                        .topK(5)
+                        .vectorStore(vectorStore)
+                        .build())
+                .queryExpander(queryExpander)
+                .documentPostProcessors(documentProcessor)
+                .queryAugmenter(queryAugmenter);
+        if (executor != null) {
+            builder.taskExecutor(executor);
+        }
+        return builder.build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RagAdvisorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    private static class NoOpVectorStore implements VectorStore {
+
+        @Override
+        public void add(List<Document> documents) {
+        }
+
+        @Override
+        public void delete(List<String> idList) {
+        }
+
+        @Override
+        public void delete(Filter.Expression filterExpression) {
+        }
+
+        @Override
+        public List<Document> similaritySearch(SearchRequest request) {
+            return List.of();
+        }
+    }
+}
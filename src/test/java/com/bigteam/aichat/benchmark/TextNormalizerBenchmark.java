@@ -0,0 +1,93 @@
+package com.bigteam.aichat.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.bigteam.aichat.rag.processor.TextNormalizer;
+
+/**
+ * 문서 정제: 기존 정규식 체인 vs 단일 패스 정규화기 비교
+ * 한국어/영어 대용량 텍스트(약 1MB)에 대해 처리 시간과 gc.alloc.rate.norm (B/op) 을 비교합니다.
+ *
+ * 실행: mvn test-compile 후 IDE 에서 main 실행 또는
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" com.bigteam.aichat.benchmark.TextNormalizerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextNormalizerBenchmark {
+
+    private static final String[] KOREAN_WORDS = {
+            "문서", "검색", "임베딩", "벡터", "저장소", "질의", "응답을", "생성합니다.", "그리고,", "있습니다.",
+            "가능합니다.", "처리", "단계", "결과", "모델은"
+    };
+    private static final String[] ENGLISH_WORDS = {
+            "document", "retrieval", "embedding", "vector", "store", "query", "returns.", "and,", "the", "model.",
+            "version 1.2", "chunk", "pipeline", "results,", "is"
+    };
+    private static final String[] SEPARATORS = {" ", " ", " ", "  ", "\n", "\t ", " \r\n"};
+
+    @Param({"korean", "english"})
+    private String language;
+
+    private String text;
+    private TextNormalizer normalizer;
+
+    @Setup
+    public void setUp() {
+        String[] words = "korean".equals(language) ? KOREAN_WORDS : ENGLISH_WORDS;
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 1_000_000) {
+            builder.append(words[random.nextInt(words.length)])
+                    .append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+        }
+        text = builder.toString();
+        normalizer = TextNormalizer.builder().build();
+    }
+
+    /**
+     * 기존 방식: replaceAll 체인 (호출마다 정규식 컴파일 + 단계별 전체 복사)
+     */
+    @Benchmark
+    public String regexChain() {
+        return text.replaceAll("\\s+", " ")
+                .replaceAll("(?<=[a-zA-Z가-힣])\\.\\s*", ".\n")
+                .replaceAll(",\\s*", ", ")
+                .trim();
+    }
+
+    /**
+     * 개선 방식: 단일 패스, 스레드별 재사용 버퍼
+     */
+    @Benchmark
+    public String singlePass() {
+        return normalizer.normalize(text);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TextNormalizerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,134 @@
+package com.bigteam.aichat.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+
+import com.bigteam.aichat.rag.processor.TokenChunker;
+
+/**
+ * 청킹: 호출마다 TokenTextSplitter 생성(기존) vs 공유 인코딩 TokenChunker 비교
+ * 약 50MB(UTF-8) 한국어/영어 혼합 코퍼스를 적재 윈도우 크기(약 50KB)의 도큐먼트로 나누어 순환하며 청킹합니다.
+ * 결과의 chunks 보조 카운터(ops/s)가 초당 생성 청크 수입니다.
+ *
+ * 실행: mvn test-compile 후 IDE 에서 main 실행 또는
+ * java -Xmx2g -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" com.bigteam.aichat.benchmark.TokenChunkerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TokenChunkerBenchmark {
+
+    private static final String[] WORDS = {
+            "문서를", "검색하고", "임베딩", "벡터", "저장소에", "질의", "응답을", "생성합니다", "모델은", "단계",
+            "retrieval", "embedding", "vector", "store", "query", "pipeline", "chunk", "the", "model", "results"
+    };
+
+    @Param({"50"})
+    private int corpusMb;
+
+    @Param({"800"})
+    private int chunkSize;
+
+    @Param({"200"})
+    private int chunkOverlap;
+
+    private List<Document> corpus;
+    private int next;
+
+    /**
+     * 초당 생성 청크 수
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ChunkCounter {
+        public long chunks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            chunks = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        corpus = new ArrayList<>();
+        long bytes = 0;
+        long target = corpusMb * 1024L * 1024L;
+        while (bytes < target) {
+            StringBuilder page = new StringBuilder();
+            while (page.length() < 20_000) {
+                int words = 6 + random.nextInt(12);
+                for (int i = 0; i < words; i++) {
+                    page.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                }
+                page.setLength(page.length() - 1);
+                page.append(".\n");
+            }
+            String text = page.toString();
+            bytes += text.getBytes(StandardCharsets.UTF_8).length;
+            corpus.add(new Document(text));
+        }
+    }
+
+    private Document nextDocument() {
+        Document document = corpus.get(next);
+        next = (next + 1) % corpus.size();
+        return document;
+    }
+
+    /**
+     * 기존 방식: 호출마다 TokenTextSplitter 생성 (인코딩 레지스트리 로드, overlap 미적용)
+     */
+    @Benchmark
+    public List<Document> tokenTextSplitterPerCall(ChunkCounter counter) {
+        List<Document> chunks = new TokenTextSplitter(chunkSize, 350, 5, 10000, true).apply(List.of(nextDocument()));
+        counter.chunks += chunks.size();
+        return chunks;
+    }
+
+    /**
+     * 개선 방식: 공유 인코딩, 토큰 overlap 및 문단/문장 경계 적용
+     */
+    @Benchmark
+    public List<Document> tokenChunker(ChunkCounter counter) {
+        List<Document> chunks = TokenChunker.builder()
+                .chunkSize(chunkSize)
+                .overlap(chunkOverlap)
+                .build()
+                .split(List.of(nextDocument()));
+        counter.chunks += chunks.size();
+        return chunks;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenChunkerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
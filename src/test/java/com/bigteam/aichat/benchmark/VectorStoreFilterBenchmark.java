@@ -0,0 +1,171 @@
+package com.bigteam.aichat.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.ai.vectorstore.pgvector.PgVectorFilterExpressionConverter;
+
+import com.bigteam.aichat.rag.vectorstore.MetadataColumnFilterConverter;
+import com.pgvector.PGvector;
+
+/**
+ * 필터 유사도 검색 비교: json 메타데이터 jsonpath 필터 vs 인덱스 컬럼(document_id) 필터
+ * rows 건의 합성 청크(문서당 docChunks 건)를 bench_vector_store_json / bench_vector_store_indexed 두 테이블에 만들고,
+ * 한 사용자의 문서 몇 개로 거른 top-k 검색 지연을 측정합니다. 테이블은 rows 별로 한 번만 만들고 재사용합니다.
+ * PostgreSQL(pgvector) 접속 정보가 필요합니다.
+ *
+ * 실행: mvn test-compile 후
+ * java -Dbench.jdbc.url=jdbc:postgresql://localhost:5432/bench -Dbench.jdbc.user=postgres -Dbench.jdbc.password=postgres \
+ *   -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" com.bigteam.aichat.benchmark.VectorStoreFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VectorStoreFilterBenchmark {
+
+    private static final int TOP_K = 5;
+
+    @Param({"1000000", "5000000", "10000000"})
+    public int rows;
+
+    /** 임베딩 차원 (실제 1536 차원은 10M 건에서 60GB 가 넘으므로 기본값은 축소) */
+    @Param({"128"})
+    public int dimensions;
+
+    @Param({"200"})
+    public int docChunks;
+
+    private Connection connection;
+    private SplittableRandom random;
+    private String jsonPathFilter;
+    private MetadataColumnFilterConverter.SqlFilter columnFilter;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/bench"),
+                System.getProperty("bench.jdbc.user", "postgres"),
+                System.getProperty("bench.jdbc.password", "postgres"));
+        random = new SplittableRandom(42);
+        createTables();
+
+        // 한 사용자가 가진 문서 3개로 거르는 검색 (ChatService 의 document_id in [...] 필터와 같은 형태)
+        long documents = Math.max(1, rows / docChunks);
+        Object[] documentIds = {documents / 3, documents / 2, documents - 1};
+        Filter.Expression expression = new FilterExpressionBuilder().in("document_id", documentIds).build();
+        jsonPathFilter = new PgVectorFilterExpressionConverter().convertExpression(expression);
+        columnFilter = new MetadataColumnFilterConverter().convert(expression);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private void createTables() throws SQLException {
+        String suffix = "_" + rows + "_" + dimensions;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS vector");
+            ResultSet exists = statement.executeQuery("SELECT to_regclass('bench_vector_store_indexed" + suffix + "') IS NOT NULL");
+            exists.next();
+            if (exists.getBoolean(1)) {
+                return;
+            }
+            statement.execute("CREATE TABLE bench_vector_store_json" + suffix
+                    + " (id bigserial PRIMARY KEY, content text, metadata json, embedding vector(" + dimensions + "))");
+            statement.execute("INSERT INTO bench_vector_store_json" + suffix + " (content, metadata, embedding) "
+                    + "SELECT 'chunk ' || g, json_build_object('document_id', g / " + docChunks + ", 'user_id', 'user' || (g / "
+                    + docChunks + ") % 1000), (SELECT array_agg(random())::real[] FROM generate_series(1, " + dimensions
+                    + ") WHERE g > 0)::vector FROM generate_series(0, " + (rows - 1) + ") g");
+            statement.execute("CREATE INDEX ON bench_vector_store_json" + suffix + " USING hnsw (embedding vector_cosine_ops)");
+
+            statement.execute("CREATE TABLE bench_vector_store_indexed" + suffix
+                    + " (id bigint PRIMARY KEY, content text, metadata jsonb, embedding vector(" + dimensions + "), "
+                    + "document_id bigint GENERATED ALWAYS AS ((metadata->>'document_id')::bigint) STORED, "
+                    + "user_id text GENERATED ALWAYS AS (metadata->>'user_id') STORED)");
+            statement.execute("INSERT INTO bench_vector_store_indexed" + suffix + " (id, content, metadata, embedding) "
+                    + "SELECT id, content, metadata::jsonb, embedding FROM bench_vector_store_json" + suffix);
+            statement.execute("CREATE INDEX ON bench_vector_store_indexed" + suffix + " USING hnsw (embedding vector_cosine_ops)");
+            statement.execute("CREATE INDEX ON bench_vector_store_indexed" + suffix + " (document_id)");
+            statement.execute("CREATE INDEX ON bench_vector_store_indexed" + suffix + " (user_id)");
+            statement.execute("ANALYZE bench_vector_store_json" + suffix);
+            statement.execute("ANALYZE bench_vector_store_indexed" + suffix);
+        }
+    }
+
+    @Benchmark
+    public List<String> jsonPathFilter() throws SQLException {
+        String sql = "SELECT id, embedding <=> ? AS distance FROM bench_vector_store_json_" + rows + "_" + dimensions
+                + " WHERE metadata::jsonb @@ ?::jsonpath ORDER BY distance LIMIT " + TOP_K;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, randomVector());
+            statement.setString(2, jsonPathFilter);
+            return readIds(statement);
+        }
+    }
+
+    @Benchmark
+    public List<String> indexedColumnFilter() throws SQLException {
+        String sql = "SELECT id, embedding <=> ? AS distance FROM bench_vector_store_indexed_" + rows + "_" + dimensions
+                + " WHERE " + columnFilter.sql() + " ORDER BY distance LIMIT " + TOP_K;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, randomVector());
+            for (int i = 0; i < columnFilter.params().size(); i++) {
+                statement.setObject(i + 2, columnFilter.params().get(i));
+            }
+            return readIds(statement);
+        }
+    }
+
+    private PGvector randomVector() {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextDouble();
+        }
+        return new PGvector(vector);
+    }
+
+    private static List<String> readIds(PreparedStatement statement) throws SQLException {
+        List<String> ids = new ArrayList<>(TOP_K);
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getString(1));
+            }
+        }
+        return ids;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VectorStoreFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,75 @@
+package com.bigteam.aichat.rag.embedding;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 영속 임베딩 캐시 보관 정책(마지막 사용 기준 삭제, 적중 시 사용 시각 갱신) 테스트
+ */
+class PersistentEmbeddingCacheTest {
+
+	@Test
+	void purgeDeletesEntriesUnusedForRetention() {
+		RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+		PersistentEmbeddingCache cache = new PersistentEmbeddingCache(jdbcTemplate, false, Duration.ofDays(30));
+
+		assertThat(cache.purgeExpired()).isEqualTo(3);
+		assertThat(jdbcTemplate.statements).singleElement().asString()
+				.startsWith("DELETE FROM embedding_cache WHERE last_used_at <");
+		assertThat(jdbcTemplate.args).containsExactly(Duration.ofDays(30).toSeconds());
+	}
+
+	@Test
+	void zeroRetentionKeepsEntries() {
+		RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+		PersistentEmbeddingCache cache = new PersistentEmbeddingCache(jdbcTemplate, false, Duration.ZERO);
+
+		assertThat(cache.purgeExpired()).isZero();
+		assertThat(jdbcTemplate.statements).isEmpty();
+	}
+
+	@Test
+	void missesDoNotTouchLastUsedAt() {
+		RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+		PersistentEmbeddingCache cache = new PersistentEmbeddingCache(jdbcTemplate, false, Duration.ofDays(30));
+
+		assertThat(cache.findAll(Set.of("missing"))).isEmpty();
+		assertThat(jdbcTemplate.statements).containsExactly("SELECT");
+	}
+
+	/**
+	 * 실행한 문장을 기록하는 JdbcTemplate (DB 없이 조회 결과 없음, 삭제 3 건 반환)
+	 */
+	private static class RecordingJdbcTemplate extends JdbcTemplate {
+
+		private final List<String> statements = new ArrayList<>();
+		private final List<Object> args = new ArrayList<>();
+
+		@Override
+		public void query(PreparedStatementCreator psc, RowCallbackHandler rch) {
+			statements.add("SELECT");
+		}
+
+		@Override
+		public int update(PreparedStatementCreator psc) {
+			statements.add("UPDATE");
+			return 0;
+		}
+
+		@Override
+		public int update(String sql, Object... args) {
+			statements.add(sql);
+			this.args.addAll(List.of(args));
+			return 3;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.bigteam.aichat.rag.module;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 1차 검색이 설정된 검색기를 사용하고, 요청과 함께 전달되어 원본 질의 검색에 재사용되는지 테스트
+ */
+class AdaptiveQueryExpanderTest {
+
+	private static final Query QUERY = new Query("how does the quarterly report describe revenue growth?");
+	private static final Query VARIANT = new Query("revenue growth in the quarterly report");
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger searches = new AtomicInteger();
+
+	@Test
+	void confidentFirstPassIsReusedForOriginalQuery() {
+		AdaptiveQueryExpander adaptive = adaptive(0.9, true);
+
+		List<Query> queries = adaptive.expand(QUERY);
+		List<Document> results = adaptive.documentRetriever().retrieve(queries.get(0));
+
+		assertThat(queries).extracting(Query::text).containsExactly(QUERY.text());
+		assertThat(results).extracting(Document::getId).containsExactly("hit");
+		assertThat(searches.get()).isEqualTo(1);
+	}
+
+	@Test
+	void firstPassTravelsWithTheRequestOnly() {
+		AdaptiveQueryExpander adaptive = adaptive(0.9, true);
+
+		adaptive.expand(QUERY);
+		// 같은 내용의 다른 요청(1차 검색 결과 없는 질의)은 다시 검색
+		adaptive.documentRetriever().retrieve(QUERY);
+
+		assertThat(searches.get()).isEqualTo(2);
+	}
+
+	@Test
+	void expandedQueriesAreSearchedAndOriginalIsReused() {
+		AdaptiveQueryExpander adaptive = adaptive(0.6, true);
+
+		List<Query> queries = adaptive.expand(QUERY);
+		DocumentRetriever retriever = adaptive.documentRetriever();
+		queries.forEach(retriever::retrieve);
+
+		assertThat(queries).extracting(Query::text).containsExactly(QUERY.text(), VARIANT.text());
+		assertThat(searches.get()).isEqualTo(2);
+	}
+
+	@Test
+	void expandedQueriesWithoutOriginalAreAllSearched() {
+		AdaptiveQueryExpander adaptive = adaptive(0.6, false);
+
+		List<Query> queries = adaptive.expand(QUERY);
+		queries.forEach(adaptive.documentRetriever()::retrieve);
+
+		assertThat(queries).containsExactly(VARIANT);
+		assertThat(searches.get()).isEqualTo(2);
+	}
+
+	private AdaptiveQueryExpander adaptive(double score, boolean includeOriginal) {
+		DocumentRetriever retriever = query -> {
+			searches.incrementAndGet();
+			return List.of(Document.builder().id("hit").text(query.text()).score(score).build());
+		};
+		return new AdaptiveQueryExpander(
+				query -> includeOriginal ? List.of(query, VARIANT) : List.of(VARIANT),
+				retriever, new RagRetrievalProperties(), meterRegistry);
+	}
+}
@@ -0,0 +1,65 @@
+package com.bigteam.aichat.rag.module;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 검색 문서 후처리기 중복 제거 테스트
+ */
+class CustomDocumentProcessorTest {
+
+	private static final String PASSAGE = "연차 휴가는 입사일 기준으로 매년 15일이 부여되며, 3년 이상 근속한 직원은 "
+			+ "2년마다 1일씩 가산된 휴가를 받는다. 미사용 연차는 다음 해 3월까지 이월할 수 있으며 "
+			+ "이월된 휴가는 우선적으로 소진된다. 휴가 신청은 최소 3일 전에 팀장 승인을 받아야 한다. "
+			+ "긴급한 사유가 있는 경우 사후 신청이 가능하나 복귀 후 2일 이내에 증빙 서류를 제출해야 한다. "
+			+ "반차는 오전 또는 오후 4시간 단위로 사용할 수 있으며 연차 0.5일로 차감된다. "
+			+ "연속 5일 이상의 장기 휴가는 부서장 승인이 추가로 필요하며 분기당 1회로 제한된다.";
+
+	private final CustomDocumentProcessor processor = new CustomDocumentProcessor(8, 8, 3);
+
+	@Test
+	void exactDuplicatesIgnoringMetadataAndWhitespaceKeepHigherScore() {
+		List<Document> result = processor.process(new Query("q"), List.of(
+				doc("a", PASSAGE, 0.70, Map.of("page_number", 1)),
+				doc("b", "  " + PASSAGE.replace(" ", "\n "), 0.80, Map.of("page_number", 7))));
+
+		assertThat(result).extracting(Document::getId).containsExactly("b");
+	}
+
+	@Test
+	void overlappingChunksAreNearDuplicates() {
+		// 앞 청크와 대부분 겹치는 청크 (청크 오버랩)
+		String overlapping = PASSAGE.substring(PASSAGE.indexOf("매년")) + " 병가는 별도 규정을 따른다.";
+
+		List<Document> result = processor.process(new Query("q"), List.of(
+				doc("a", PASSAGE, 0.90, Map.of()),
+				doc("b", overlapping, 0.85, Map.of()),
+				doc("c", "출장비 정산은 출장 종료 후 7일 이내에 영수증을 첨부하여 경비 시스템에 등록한다.", 0.60, Map.of())));
+
+		assertThat(result).extracting(Document::getId).containsExactly("a", "c");
+	}
+
+	@Test
+	void selectsTopDocumentsByScore() {
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			documents.add(doc("doc-" + i, "서로 다른 주제의 문서 " + i + " 번: " + "내용".repeat(i + 1) + " 키워드" + i * 31, i / 20.0, Map.of()));
+		}
+
+		List<Document> result = new CustomDocumentProcessor(5, -1, 3).process(new Query("q"), documents);
+
+		assertThat(result).extracting(Document::getId)
+				.containsExactly("doc-19", "doc-18", "doc-17", "doc-16", "doc-15");
+	}
+
+	private static Document doc(String id, String text, double score, Map<String, Object> metadata) {
+		return Document.builder().id(id).text(text).metadata(metadata).score(score).build();
+	}
+}
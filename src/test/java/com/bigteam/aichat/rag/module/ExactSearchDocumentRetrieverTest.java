@@ -0,0 +1,45 @@
+package com.bigteam.aichat.rag.module;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 정확 검색 대상 필터 판별 테스트
+ */
+class ExactSearchDocumentRetrieverTest {
+
+	private final FilterExpressionTextParser parser = new FilterExpressionTextParser();
+
+	@Test
+	void activeDocumentFilterIsRecognized() {
+		FilterExpressionBuilder b = new FilterExpressionBuilder();
+		var active = ExactSearchDocumentRetriever.activeDocuments(
+				b.and(b.eq("user_id", "alice"), b.in("document_id", 3L, 1L)).build());
+
+		assertThat(active).isPresent();
+		assertThat(active.get().userId()).isEqualTo("alice");
+		assertThat(active.get().documentIds()).containsExactly(3L, 1L);
+	}
+
+	@Test
+	void quotedDocumentIdsFromTextFilterAreAccepted() {
+		var active = ExactSearchDocumentRetriever.activeDocuments(
+				parser.parse("user_id == 'bob' && document_id in ['7']"));
+
+		assertThat(active).isPresent();
+		assertThat(active.get().documentIds()).containsExactly(7L);
+	}
+
+	@Test
+	void otherConditionsFallBackToVectorStore() {
+		assertThat(ExactSearchDocumentRetriever.activeDocuments(parser.parse("document_id in [1, 2]"))).isEmpty();
+		assertThat(ExactSearchDocumentRetriever.activeDocuments(
+				parser.parse("user_id == 'bob' && document_id in [1] && file_name == 'a.pdf'"))).isEmpty();
+		assertThat(ExactSearchDocumentRetriever.activeDocuments(
+				parser.parse("user_id == 'bob' || document_id in [1]"))).isEmpty();
+		assertThat(ExactSearchDocumentRetriever.activeDocuments(null)).isEmpty();
+	}
+}
@@ -0,0 +1,46 @@
+package com.bigteam.aichat.rag.module;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 벡터 + 키워드 결과 결합 테스트
+ */
+class HybridDocumentRetrieverTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final HybridDocumentRetriever retriever =
+			new HybridDocumentRetriever(query -> List.of(), null, 5, 60, Runnable::run, meterRegistry);
+
+	@Test
+	void documentsFoundByBothSearchesRankFirstAndKeepVectorScore() {
+		List<Document> fused = retriever.fuse(
+				List.of(vector("a", 0.9), vector("b", 0.8)),
+				List.of(keyword("b"), keyword("c")));
+
+		assertThat(fused).extracting(Document::getId).containsExactly("b", "a", "c");
+		assertThat(fused.get(0).getScore()).isEqualTo(0.8);
+		assertThat(fused.get(2).getScore()).isNull();
+		assertThat(meterRegistry.counter("rag.retrieval.keyword.only").count()).isEqualTo(1.0);
+	}
+
+	@Test
+	void keywordResultsSurviveEmptyVectorSearch() {
+		assertThat(retriever.fuse(List.of(), List.of(keyword("c"), keyword("d"))))
+				.extracting(Document::getId).containsExactly("c", "d");
+	}
+
+	private static Document vector(String id, double score) {
+		return Document.builder().id(id).text(id).score(score).build();
+	}
+
+	private static Document keyword(String id) {
+		return Document.builder().id(id).text(id).build();
+	}
+}
@@ -0,0 +1,97 @@
+package com.bigteam.aichat.rag.module;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RRF 문서 결합기 순위 테스트
+ */
+class ReciprocalRankFusionDocumentJoinerTest {
+
+	private final ReciprocalRankFusionDocumentJoiner joiner = new ReciprocalRankFusionDocumentJoiner(60, 10);
+
+	@Test
+	void documentsRankedHighByManyQueriesComeFirst() {
+		Map<Query, List<List<Document>>> results = new LinkedHashMap<>();
+		results.put(new Query("q1"), List.of(List.of(doc("a", 0.90), doc("b", 0.80), doc("c", 0.70))));
+		results.put(new Query("q2"), List.of(List.of(doc("b", 0.85), doc("c", 0.75), doc("d", 0.95))));
+		results.put(new Query("q3"), List.of(List.of(doc("c", 0.88), doc("b", 0.60))));
+
+		List<Document> joined = joiner.join(results);
+
+		// b: 1/62 + 1/61 + 1/62, c: 1/63 + 1/62 + 1/61, a: 1/61, d: 1/63
+		assertThat(joined).extracting(Document::getId).containsExactly("b", "c", "a", "d");
+		assertThat(joined.get(0).getScore()).isEqualTo(2.0 / 62 + 1.0 / 61);
+		assertThat(joined.get(0).getMetadata())
+				.containsEntry(ReciprocalRankFusionDocumentJoiner.VECTOR_SCORE_METADATA_KEY, 0.85);
+	}
+
+	@Test
+	void rankingDoesNotDependOnQueryIterationOrder() {
+		List<Query> queries = new ArrayList<>();
+		Map<Query, List<List<Document>>> results = new HashMap<>();
+		Random random = new Random(42);
+		for (int q = 0; q < 4; q++) {
+			Query query = new Query("query-" + q);
+			List<Document> ranked = new ArrayList<>();
+			for (int i = 0; i < 5; i++) {
+				String id = "doc-" + random.nextInt(8);
+				if (ranked.stream().noneMatch(d -> d.getId().equals(id))) {
+					ranked.add(doc(id, 0.5 + random.nextInt(50) / 100.0));
+				}
+			}
+			queries.add(query);
+			results.put(query, List.of(ranked));
+		}
+		List<String> expected = ids(joiner.join(results));
+
+		for (int attempt = 0; attempt < 20; attempt++) {
+			Collections.shuffle(queries, random);
+			Map<Query, List<List<Document>>> reordered = new LinkedHashMap<>();
+			queries.forEach(query -> reordered.put(query, results.get(query)));
+			assertThat(ids(joiner.join(reordered))).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	void tiesAreBrokenByVectorScoreThenId() {
+		Map<Query, List<List<Document>>> results = new LinkedHashMap<>();
+		results.put(new Query("q1"), List.of(List.of(doc("y", 0.70))));
+		results.put(new Query("q2"), List.of(List.of(doc("x", 0.70))));
+		results.put(new Query("q3"), List.of(List.of(doc("z", 0.90))));
+
+		assertThat(ids(joiner.join(results))).containsExactly("z", "x", "y");
+	}
+
+	@Test
+	void resultIsLimitedToTopK() {
+		List<Document> ranked = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			ranked.add(doc(String.format("doc-%02d", i), 0.9 - i * 0.01));
+		}
+
+		List<Document> joined = new ReciprocalRankFusionDocumentJoiner(60, 5)
+				.join(Map.of(new Query("q"), List.of(ranked)));
+
+		assertThat(ids(joined)).containsExactly("doc-00", "doc-01", "doc-02", "doc-03", "doc-04");
+	}
+
+	private static Document doc(String id, double score) {
+		return Document.builder().id(id).text("content " + id).score(score).build();
+	}
+
+	private static List<String> ids(List<Document> documents) {
+		return documents.stream().map(Document::getId).toList();
+	}
+}
@@ -0,0 +1,131 @@
+package com.bigteam.aichat.rag.module;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.preretrieval.query.expansion.QueryExpander;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 확장(LLM 호출)과 원본 질의 검색의 동시 실행, 적응형 판단 시 확장 취소 테스트
+ */
+class SpeculativeDocumentRetrieverTest {
+
+	private static final Query QUERY = new Query("how does the quarterly report describe revenue growth?");
+	private static final Query VARIANT = new Query("revenue growth in the quarterly report");
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final RagRetrievalProperties settings = new RagRetrievalProperties();
+	private final AtomicInteger expansions = new AtomicInteger();
+	private final ExecutorService pool = Executors.newFixedThreadPool(2);
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void rawSearchAndExpansionOverlapWithoutAdaptive() {
+		assertOverlap(false);
+	}
+
+	@Test
+	void rawSearchAndExpansionOverlapWithAdaptive() {
+		assertOverlap(true);
+	}
+
+	@Test
+	void confidentQueryCancelsQueuedExpansion() {
+		List<Runnable> queued = new ArrayList<>();
+		QueryExpander expander = counting(query -> List.of(query, VARIANT));
+		DocumentRetriever retriever = query -> List.of(document("a", 0.9));
+		SpeculativeDocumentRetriever speculative = new SpeculativeDocumentRetriever(retriever, expander,
+				new AdaptiveQueryExpander(expander, retriever, settings, meterRegistry), joiner(), queued::add,
+				Duration.ofSeconds(5), meterRegistry);
+
+		List<Document> results = speculative.retrieve(QUERY);
+		// 풀이 나중에 꺼내 실행해도 취소된 확장은 LLM 을 호출하지 않음
+		queued.forEach(Runnable::run);
+
+		assertThat(results).extracting(Document::getId).containsExactly("a");
+		assertThat(queued).hasSize(1);
+		assertThat(expansions.get()).isZero();
+		assertThat(meterRegistry.counter("rag.retrieval.speculative", "outcome", "raw_only_confident").count())
+				.isEqualTo(1.0);
+	}
+
+	/**
+	 * 원본 검색은 확장이 시작되기를, 확장은 원본 검색이 시작되기를 기다립니다.
+	 * 둘 중 하나라도 다른 쪽이 끝난 뒤에 시작하면 대기 시간이 초과되어 실패합니다.
+	 */
+	private void assertOverlap(boolean adaptive) {
+		CountDownLatch rawStarted = new CountDownLatch(1);
+		CountDownLatch expansionStarted = new CountDownLatch(1);
+		AtomicBoolean rawSawExpansion = new AtomicBoolean();
+		AtomicBoolean expansionSawRaw = new AtomicBoolean();
+
+		QueryExpander expander = counting(query -> {
+			expansionStarted.countDown();
+			expansionSawRaw.set(await(rawStarted));
+			return List.of(query, VARIANT);
+		});
+		DocumentRetriever retriever = query -> {
+			if (!query.text().equals(QUERY.text())) {
+				return List.of(document("b", 0.7));
+			}
+			rawStarted.countDown();
+			rawSawExpansion.set(await(expansionStarted));
+			return List.of(document("a", 0.6));
+		};
+		SpeculativeDocumentRetriever speculative = new SpeculativeDocumentRetriever(retriever, expander,
+				adaptive ? new AdaptiveQueryExpander(expander, retriever, settings, meterRegistry) : null,
+				joiner(), pool, Duration.ofSeconds(5), meterRegistry);
+
+		List<Document> results = speculative.retrieve(QUERY);
+
+		assertThat(rawSawExpansion).isTrue();
+		assertThat(expansionSawRaw).isTrue();
+		assertThat(expansions.get()).isEqualTo(1);
+		assertThat(results).extracting(Document::getId).containsExactlyInAnyOrder("a", "b");
+		assertThat(meterRegistry.counter("rag.retrieval.speculative", "outcome", "merged").count()).isEqualTo(1.0);
+	}
+
+	private QueryExpander counting(QueryExpander expander) {
+		return query -> {
+			expansions.incrementAndGet();
+			return expander.expand(query);
+		};
+	}
+
+	private ReciprocalRankFusionDocumentJoiner joiner() {
+		return new ReciprocalRankFusionDocumentJoiner(settings.getRrfK(), settings.getFusedTopK());
+	}
+
+	private static boolean await(CountDownLatch latch) {
+		try {
+			return latch.await(2, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private static Document document(String id, double score) {
+		return Document.builder().id(id).text(id).score(score).build();
+	}
+}
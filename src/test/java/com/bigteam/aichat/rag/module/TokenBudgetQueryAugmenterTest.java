@@ -0,0 +1,88 @@
+package com.bigteam.aichat.rag.module;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 토큰 예산 컨텍스트 패킹 테스트
+ */
+class TokenBudgetQueryAugmenterTest {
+
+	private final TokenCountEstimator estimator = new JTokkitTokenCountEstimator();
+	private final Function<List<Document>, String> formatter = docs -> docs.stream()
+			.map(doc -> "[content]: " + doc.getText() + "\n\n")
+			.collect(Collectors.joining());
+
+	@Test
+	void documentsArePackedInScoreOrderWithinBudget() {
+		List<Document> captured = new ArrayList<>();
+		ContextPackingProperties properties = new ContextPackingProperties();
+		properties.setDefaultTokenBudget(10_000);
+		TokenBudgetQueryAugmenter augmenter = augmenter(captured, properties);
+
+		augmenter.augment(new Query("q"), List.of(doc("low", 0.5, "낮은 점수 문서."), doc("high", 0.9, "높은 점수 문서.")));
+
+		assertThat(captured).extracting(Document::getId).containsExactly("high", "low");
+	}
+
+	@Test
+	void lastDocumentIsTruncatedAtSentenceBoundary() {
+		List<Document> captured = new ArrayList<>();
+		ContextPackingProperties properties = new ContextPackingProperties();
+		properties.setMinTruncatedTokens(5);
+		String first = "첫 번째 문서는 예산 안에 들어갑니다.";
+		String second = "첫 문장은 들어갑니다. " + "두 번째 문장은 아주 길어서 예산을 넘습니다. ".repeat(20);
+		int budget = estimator.estimate(formatter.apply(List.of(doc("a", 0.9, first))))
+				+ estimator.estimate(formatter.apply(List.of(doc("b", 0.8, "첫 문장은 들어갑니다."))));
+		properties.setDefaultTokenBudget(budget);
+		TokenBudgetQueryAugmenter augmenter = augmenter(captured, properties);
+
+		augmenter.augment(new Query("q"),
+				List.of(doc("a", 0.9, first), doc("b", 0.8, second), doc("c", 0.7, "버려지는 문서.")));
+
+		assertThat(captured).extracting(Document::getId).containsExactly("a", "b");
+		assertThat(captured.get(1).getText()).isEqualTo("첫 문장은 들어갑니다.");
+		assertThat(estimator.estimate(formatter.apply(captured))).isLessThanOrEqualTo(budget);
+	}
+
+	@Test
+	void budgetIsSelectedByChatModel() {
+		List<Document> captured = new ArrayList<>();
+		ContextPackingProperties properties = new ContextPackingProperties();
+		properties.setDefaultTokenBudget(10_000);
+		properties.setModelTokenBudgets(Map.of("small", 1));
+		TokenBudgetQueryAugmenter augmenter = augmenter(captured, properties);
+		List<Document> documents = List.of(doc("a", 0.9, "문서 내용."));
+
+		augmenter.augment(Query.builder().text("q")
+				.context(Map.of(TokenBudgetQueryAugmenter.CHAT_MODEL_PARAM, "small")).build(), documents);
+		assertThat(captured).isEmpty();
+
+		augmenter.augment(Query.builder().text("q")
+				.context(Map.of(TokenBudgetQueryAugmenter.CHAT_MODEL_PARAM, "large")).build(), documents);
+		assertThat(captured).extracting(Document::getId).containsExactly("a");
+	}
+
+	private TokenBudgetQueryAugmenter augmenter(List<Document> captured, ContextPackingProperties properties) {
+		return new TokenBudgetQueryAugmenter((query, documents) -> {
+			captured.clear();
+			captured.addAll(documents);
+			return query;
+		}, formatter, estimator, properties);
+	}
+
+	private static Document doc(String id, double score, String text) {
+		return Document.builder().id(id).text(text).score(score).build();
+	}
+}
@@ -0,0 +1,131 @@
+package com.bigteam.aichat.rag.processor;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.destination.PDPageFitDestination;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDDocumentOutline;
+import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PDF 목차(outline) 사전 확인에 따른 리더 선택 테스트
+ */
+class PdfLayoutProbeTest {
+
+	@TempDir
+	Path tempDir;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		Metrics.addRegistry(meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		Metrics.removeRegistry(meterRegistry);
+	}
+
+	@Test
+	void pdfWithoutOutlineIsExtractedByPageOnce() throws IOException {
+		Path pdf = createPdf("no-outline.pdf", 3, false);
+		PdfDocumentProcessingStrategy strategy = new PdfDocumentProcessingStrategy();
+
+		List<Document> first = strategy.parse(new FileSystemResource(pdf));
+		List<Document> second = strategy.parse(new FileSystemResource(pdf));
+
+		assertThat(first).extracting(doc -> doc.getMetadata().get("page_number")).containsExactly(1, 2, 3);
+		assertThat(second).extracting(Document::getText)
+				.containsExactlyElementsOf(first.stream().map(Document::getText).toList());
+		assertThat(meterRegistry.counter("rag.pdf.layout.fallbacks", "reason", "no_outline").count()).isEqualTo(2);
+		assertThat(meterRegistry.counter("rag.pdf.layout.fallbacks", "reason", "paragraph_failed").count()).isZero();
+	}
+
+	@Test
+	void pdfWithOutlineUsesParagraphReader() throws IOException {
+		Path pdf = createPdf("outline.pdf", 3, true);
+		PdfDocumentProcessingStrategy strategy = new PdfDocumentProcessingStrategy();
+
+		try (PDDocument document = Loader.loadPDF(pdf.toFile())) {
+			assertThat(PdfDocumentProcessingStrategy.hasOutline(document)).isTrue();
+		}
+		List<Document> documents = strategy.parse(new FileSystemResource(pdf));
+
+		assertThat(documents).isNotEmpty();
+		assertThat(documents.get(0).getMetadata()).containsKey("title");
+		// 전역 레지스트리에 이미 만들어진 카운터는 새 레지스트리에도 0 으로 등록되므로 횟수로 확인
+		assertThat(meterRegistry.find("rag.pdf.layout.fallbacks").counters())
+				.allSatisfy(counter -> assertThat(counter.count()).isZero());
+	}
+
+	@Test
+	void pdfWithOutlineIsStreamedBySectionWindows() throws IOException {
+		Path pdf = createPdf("outline-windows.pdf", 3, true);
+		PdfDocumentProcessingStrategy strategy = new PdfDocumentProcessingStrategy();
+
+		List<List<Document>> windows;
+		try (Stream<List<Document>> stream = strategy.parseInWindows(new FileSystemResource(pdf), 2)) {
+			windows = stream.toList();
+		}
+
+		assertThat(windows).hasSize(2);
+		List<Document> sections = windows.stream().flatMap(List::stream).toList();
+		assertThat(sections).extracting(doc -> doc.getMetadata().get("title"))
+				.containsExactly("Chapter 1", "Chapter 2", "Chapter 3");
+		assertThat(sections).extracting(doc -> doc.getMetadata().get("page_number")).containsExactly(1, 2, 3);
+		// 마지막 섹션도 문서 끝까지 포함
+		assertThat(sections.get(2).getText().replaceAll("\\s+", " ")).contains("Body text of page 3");
+		assertThat(sections.get(0).getText().replaceAll("\\s+", " ")).contains("Body text of page 1")
+				.doesNotContain("page 2");
+	}
+
+	private Path createPdf(String name, int pages, boolean withOutline) throws IOException {
+		Path path = tempDir.resolve(name);
+		PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+		try (PDDocument document = new PDDocument()) {
+			PDDocumentOutline outline = new PDDocumentOutline();
+			for (int pageNo = 1; pageNo <= pages; pageNo++) {
+				PDPage page = new PDPage();
+				document.addPage(page);
+				try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+					content.beginText();
+					content.setFont(font, 12);
+					content.newLineAtOffset(40, 700);
+					content.showText("Chapter " + pageNo + ". Body text of page " + pageNo + ".");
+					content.endText();
+				}
+				PDPageFitDestination destination = new PDPageFitDestination();
+				destination.setPage(page);
+				PDOutlineItem item = new PDOutlineItem();
+				item.setTitle("Chapter " + pageNo);
+				item.setDestination(destination);
+				outline.addLast(item);
+			}
+			if (withOutline) {
+				document.getDocumentCatalog().setDocumentOutline(outline);
+			}
+			document.save(path.toFile());
+		}
+		return path;
+	}
+}
@@ -0,0 +1,120 @@
+package com.bigteam.aichat.rag.processor;
+
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PDF 페이지 범위 병렬 추출 결과가 순차 추출과 같은지 확인합니다.
+ */
+class PdfParallelParsingTest {
+
+	private static final int PAGE_COUNT = 150;
+
+	@TempDir
+	static Path tempDir;
+
+	static Path pdfPath;
+
+	static ExecutorService executor;
+
+	@BeforeAll
+	static void createSyntheticPdf() throws IOException {
+		executor = Executors.newFixedThreadPool(4);
+		pdfPath = tempDir.resolve("synthetic-150.pdf");
+		PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+		try (PDDocument document = new PDDocument(IOUtils.createTempFileOnlyStreamCache())) {
+			for (int pageNo = 1; pageNo <= PAGE_COUNT; pageNo++) {
+				PDPage page = new PDPage();
+				document.addPage(page);
+				// 빈 페이지가 섞여도 순서와 page_number 가 유지되어야 함
+				if (pageNo % 17 == 0) {
+					continue;
+				}
+				try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+					content.beginText();
+					content.setFont(font, 10);
+					content.setLeading(12f);
+					content.newLineAtOffset(40, 750);
+					for (int line = 0; line < 1 + pageNo % 7; line++) {
+						content.showText("Page " + pageNo + " line " + line + ". Parallel extraction keeps page order.");
+						content.newLine();
+					}
+					content.endText();
+				}
+			}
+			document.save(pdfPath.toFile());
+		}
+	}
+
+	@AfterAll
+	static void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void parallelExtractionMatchesSequential() throws IOException {
+		PdfDocumentProcessingStrategy sequential = new PdfDocumentProcessingStrategy();
+		TextNormalizer normalizer = TextNormalizer.builder().sentenceBreaks(false).build();
+
+		for (int parallelism : new int[] {2, 4, 8}) {
+			for (int windowSize : new int[] {1, 7, 20, 200}) {
+				PdfDocumentProcessingStrategy parallel = new PdfDocumentProcessingStrategy(normalizer, executor, parallelism);
+
+				List<List<Document>> expected = windows(sequential, windowSize);
+				List<List<Document>> actual = windows(parallel, windowSize);
+
+				assertThat(actual).hasSameSizeAs(expected);
+				for (int i = 0; i < expected.size(); i++) {
+					assertThat(actual.get(i)).extracting(Document::getText)
+							.as("parallelism %d, window %d, #%d", parallelism, windowSize, i)
+							.containsExactlyElementsOf(expected.get(i).stream().map(Document::getText).toList());
+					assertThat(actual.get(i)).extracting(doc -> doc.getMetadata())
+							.containsExactlyElementsOf(expected.get(i).stream().map(Document::getMetadata).toList());
+				}
+			}
+		}
+	}
+
+	@Test
+	void pageNumbersAreInOrder() throws IOException {
+		PdfDocumentProcessingStrategy parallel = new PdfDocumentProcessingStrategy(
+				TextNormalizer.builder().build(), executor, 4);
+
+		List<Integer> pageNumbers = windows(parallel, 20).stream()
+				.flatMap(List::stream)
+				.map(doc -> (Integer) doc.getMetadata().get("page_number"))
+				.toList();
+
+		assertThat(pageNumbers).isSorted().doesNotHaveDuplicates()
+				.hasSize(PAGE_COUNT - PAGE_COUNT / 17)
+				.doesNotContain(17, 34);
+	}
+
+	private static List<List<Document>> windows(PdfDocumentProcessingStrategy strategy, int windowSize) throws IOException {
+		List<List<Document>> windows = new ArrayList<>();
+		try (Stream<List<Document>> stream = strategy.parseInWindows(new FileSystemResource(pdfPath), windowSize)) {
+			stream.forEach(windows::add);
+		}
+		return windows;
+	}
+}
@@ -0,0 +1,93 @@
+package com.bigteam.aichat.rag.processor;
+
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 대용량 PDF 스트리밍 적재 테스트
+ * 작은 힙(-Xmx, pom.xml 의 low-memory-test 실행 참고)에서 2,000 페이지 PDF 를 윈도우 단위로
+ * 파싱 -> 정제 -> 청킹 -> 메타데이터 보강까지 처리할 수 있는지 확인합니다.
+ */
+class PdfStreamingIngestionLowMemoryTest {
+
+	private static final int PAGE_COUNT = 2_000;
+	private static final int LINES_PER_PAGE = 40;
+	private static final int WINDOW_SIZE = 20;
+
+	@TempDir
+	static Path tempDir;
+
+	static Path pdfPath;
+
+	@BeforeAll
+	static void createSyntheticPdf() throws IOException {
+		pdfPath = tempDir.resolve("synthetic-2000.pdf");
+		PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+		try (PDDocument document = new PDDocument(IOUtils.createTempFileOnlyStreamCache())) {
+			for (int pageNo = 1; pageNo <= PAGE_COUNT; pageNo++) {
+				PDPage page = new PDPage();
+				document.addPage(page);
+				try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+					content.beginText();
+					content.setFont(font, 8);
+					content.setLeading(10f);
+					content.newLineAtOffset(40, 750);
+					for (int line = 0; line < LINES_PER_PAGE; line++) {
+						content.showText("Page " + pageNo + " line " + line
+								+ ". Streaming ingestion keeps memory bounded by the window size, not the document size.");
+						content.newLine();
+					}
+					content.endText();
+				}
+			}
+			document.save(pdfPath.toFile());
+		}
+	}
+
+	@Test
+	void streamsLargePdfInBoundedWindows() throws IOException {
+		PdfDocumentProcessingStrategy strategy = new PdfDocumentProcessingStrategy();
+		BitSet seenPages = new BitSet(PAGE_COUNT + 1);
+		int maxWindow = 0;
+		long chunkCount = 0;
+
+		try (Stream<List<Document>> windows = strategy.parseInWindows(new FileSystemResource(pdfPath), WINDOW_SIZE)) {
+			Iterator<List<Document>> iterator = windows.iterator();
+			while (iterator.hasNext()) {
+				List<Document> window = iterator.next();
+				maxWindow = Math.max(maxWindow, window.size());
+				window.forEach(doc -> seenPages.set((Integer) doc.getMetadata().get("page_number")));
+
+				List<Document> chunks = strategy.enrichMetadata(
+						strategy.chunk(strategy.clean(window), 800, 200),
+						Map.of("document_id", 1L));
+				// 벡터 저장소 대신 개수만 집계하고 윈도우는 버린다
+				chunkCount += chunks.size();
+			}
+		}
+
+		assertThat(maxWindow).isLessThanOrEqualTo(WINDOW_SIZE);
+		assertThat(seenPages.cardinality()).isEqualTo(PAGE_COUNT);
+		assertThat(seenPages.nextSetBit(0)).isEqualTo(1);
+		assertThat(chunkCount).isGreaterThanOrEqualTo(PAGE_COUNT / 2);
+	}
+}
@@ -0,0 +1,81 @@
+package com.bigteam.aichat.rag.processor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 단일 패스 정규화기와 기존 정규식 체인 동등성 테스트
+ */
+class TextNormalizerTest {
+
+	private static final char[] ALPHABET = {
+			' ', ' ', '\t', '\n', '\r', '\f', '\u000B', '\u0001', ' ',
+			'.', '.', ',', ',', '!', '?',
+			'a', 'Z', 'k', '1', '9', '가', '힣', '한', 'ㄱ', '漢', 'é', '\uD83D', '\uDE00'
+	};
+
+	private final TextNormalizer full = TextNormalizer.builder().build();
+	private final TextNormalizer noSentenceBreaks = TextNormalizer.builder().sentenceBreaks(false).build();
+	private final TextNormalizer whitespaceOnly = TextNormalizer.builder()
+			.sentenceBreaks(false).commaSpacing(false).build();
+	private final TextNormalizer noCollapse = TextNormalizer.builder().collapseWhitespace(false).build();
+
+	@Test
+	void examplesMatchRegexChain() {
+		assertThat(full.normalize("  안녕하세요.  반갑습니다 ,그리고\n\t끝.  ")).isEqualTo("안녕하세요.\n반갑습니다 , 그리고 끝.");
+		assertThat(full.normalize("Version 1.2. Done.. ok")).isEqualTo("Version 1.2. Done.\n. ok");
+		assertThat(noSentenceBreaks.normalize("a.  b,c")).isEqualTo("a. b, c");
+	}
+
+	@Test
+	void randomTextMatchesRegexChain() {
+		Random random = new Random(20240601);
+		for (int i = 0; i < 20_000; i++) {
+			String text = randomText(random, random.nextInt(40));
+
+			assertThat(full.normalize(text)).as("full: %s", escape(text))
+					.isEqualTo(text.replaceAll("\\s+", " ")
+							.replaceAll("(?<=[a-zA-Z가-힣])\\.\\s*", ".\n")
+							.replaceAll(",\\s*", ", ")
+							.trim());
+			assertThat(noSentenceBreaks.normalize(text)).as("noSentenceBreaks: %s", escape(text))
+					.isEqualTo(text.replaceAll("\\s+", " ")
+							.replaceAll(",\\s*", ", ")
+							.trim());
+			assertThat(whitespaceOnly.normalize(text)).as("whitespaceOnly: %s", escape(text))
+					.isEqualTo(text.replaceAll("\\s+", " ").trim());
+			assertThat(noCollapse.normalize(text)).as("noCollapse: %s", escape(text))
+					.isEqualTo(text.replaceAll("(?<=[a-zA-Z가-힣])\\.\\s*", ".\n")
+							.replaceAll(",\\s*", ", ")
+							.trim());
+		}
+	}
+
+	@Test
+	void largeTextGrowsBufferAndStaysEquivalent() {
+		Random random = new Random(7);
+		String text = randomText(random, 3_000_000);
+
+		assertThat(full.normalize(text)).isEqualTo(text.replaceAll("\\s+", " ")
+				.replaceAll("(?<=[a-zA-Z가-힣])\\.\\s*", ".\n")
+				.replaceAll(",\\s*", ", ")
+				.trim());
+	}
+
+	private static String randomText(Random random, int length) {
+		StringBuilder text = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			text.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+		}
+		return text.toString();
+	}
+
+	private static String escape(String text) {
+		StringBuilder escaped = new StringBuilder();
+		text.chars().forEach(c -> escaped.append(c < ' ' || c > '~' ? String.format("\\u%04X", c) : String.valueOf((char) c)));
+		return escaped.toString();
+	}
+}
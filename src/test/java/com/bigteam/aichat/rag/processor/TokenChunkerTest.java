@@ -0,0 +1,94 @@
+package com.bigteam.aichat.rag.processor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 토큰 청킹 엔진 테스트
+ */
+class TokenChunkerTest {
+
+	private static final String[] WORDS = {"문서를", "검색하고", "임베딩", "벡터", "저장소에", "질의", "응답", "retrieval", "chunk", "모델은"};
+
+	private final TokenCountEstimator estimator = new JTokkitTokenCountEstimator();
+
+	@Test
+	void chunksRespectSizeAndEndAtSentenceBoundary() {
+		String text = sentences(400, new Random(1));
+		TokenChunker chunker = TokenChunker.builder().chunkSize(200).overlap(0).minChunkSizeChars(100).build();
+
+		List<String> chunks = chunker.split(text);
+
+		assertThat(chunks).hasSizeGreaterThan(5);
+		for (String chunk : chunks) {
+			assertThat(estimator.estimate(chunk)).isLessThanOrEqualTo(200);
+			assertThat(chunk).doesNotContain("�");
+		}
+		chunks.subList(0, chunks.size() - 1).forEach(chunk -> assertThat(chunk).endsWith("."));
+	}
+
+	@Test
+	void consecutiveChunksOverlap() {
+		String text = sentences(400, new Random(2));
+		TokenChunker chunker = TokenChunker.builder().chunkSize(200).overlap(50).minChunkSizeChars(100).build();
+
+		List<String> chunks = chunker.split(text);
+
+		for (int i = 1; i < chunks.size(); i++) {
+			String previous = chunks.get(i - 1);
+			String head = chunks.get(i).substring(0, 20);
+			assertThat(previous).as("chunk %d starts inside chunk %d", i, i - 1).contains(head.strip());
+			assertThat(chunks.get(i)).doesNotContain("�");
+		}
+		// 중복이 있어도 모든 문장이 어느 청크에는 포함
+		for (String sentence : text.split("(?<=\\.) ")) {
+			assertThat(chunks.stream().anyMatch(chunk -> chunk.contains(sentence.strip()))).as(sentence).isTrue();
+		}
+	}
+
+	@Test
+	void paragraphBoundaryIsPreferred() {
+		Random random = new Random(3);
+		String text = sentences(30, random) + "\n\n" + sentences(30, random) + "\n\n" + sentences(30, random);
+		TokenChunker chunker = TokenChunker.builder().chunkSize(400).minChunkSizeChars(50).build();
+
+		List<String> chunks = chunker.split(text);
+
+		assertThat(chunks.get(0)).doesNotContain("\n\n");
+		assertThat(text).startsWith(chunks.get(0));
+	}
+
+	@Test
+	void documentMetadataIsCopiedToEachChunk() {
+		Document document = new Document(sentences(200, new Random(4)), Map.of("file_name", "a.txt", "page_number", 1));
+
+		List<Document> chunks = TokenChunker.builder().chunkSize(100).overlap(20).build().split(List.of(document));
+
+		assertThat(chunks).hasSizeGreaterThan(1);
+		assertThat(chunks).allSatisfy(chunk -> assertThat(chunk.getMetadata())
+				.containsEntry("file_name", "a.txt")
+				.containsEntry("page_number", 1));
+		assertThat(chunks.get(0).getMetadata()).isNotSameAs(chunks.get(1).getMetadata());
+	}
+
+	private static String sentences(int count, Random random) {
+		List<String> sentences = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			StringBuilder sentence = new StringBuilder("문장" + i);
+			for (int w = 0; w < 4 + random.nextInt(8); w++) {
+				sentence.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+			}
+			sentences.add(sentence.append('.').toString());
+		}
+		return String.join(" ", sentences);
+	}
+}
@@ -0,0 +1,65 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import org.junit.jupiter.api.Test;
+
+import com.bigteam.aichat.rag.vectorstore.HnswSearchPlanner.SearchPlan;
+import com.bigteam.aichat.rag.vectorstore.HnswSearchPlanner.Strategy;
+import com.bigteam.aichat.rag.vectorstore.VectorStoreProperties.IterativeScan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 필터 선택도별 검색 방식 선택 테스트
+ */
+class HnswSearchPlannerTest {
+
+	private final VectorStoreProperties.Hnsw hnsw = new VectorStoreProperties.Hnsw();
+
+	@Test
+	void unfilteredSearchUsesBaseEfSearch() {
+		SearchPlan plan = new HnswSearchPlanner(hnsw, true).unfiltered(5);
+
+		assertThat(plan.strategy()).isEqualTo(Strategy.INDEX);
+		assertThat(plan.efSearch()).isEqualTo(40);
+		assertThat(plan.iterativeScan()).isEqualTo(IterativeScan.OFF);
+	}
+
+	@Test
+	void smallCandidateSetIsSearchedExactly() {
+		SearchPlan plan = new HnswSearchPlanner(hnsw, true).filtered(5, 800, 10_000_000);
+
+		assertThat(plan.strategy()).isEqualTo(Strategy.EXACT);
+	}
+
+	@Test
+	void efSearchGrowsWithLowerSelectivity() {
+		HnswSearchPlanner planner = new HnswSearchPlanner(hnsw, true);
+
+		// 선택도 50% -> 5 * 2 / 0.5 = 20, 기본값 40 유지
+		assertThat(planner.filtered(5, 5_000_000, 10_000_000).efSearch()).isEqualTo(40);
+		// 선택도 5% -> 5 * 2 / 0.05 = 200
+		SearchPlan plan = planner.filtered(5, 500_000, 10_000_000);
+		assertThat(plan.efSearch()).isEqualTo(200);
+		assertThat(plan.iterativeScan()).isEqualTo(IterativeScan.OFF);
+	}
+
+	@Test
+	void iterativeScanWhenEfSearchCapIsNotEnough() {
+		// 선택도 0.5% -> 필요 2000, 상한 400
+		SearchPlan plan = new HnswSearchPlanner(hnsw, true).filtered(5, 50_000, 10_000_000);
+
+		assertThat(plan.efSearch()).isEqualTo(400);
+		assertThat(plan.iterativeScan()).isEqualTo(IterativeScan.RELAXED_ORDER);
+
+		SearchPlan unsupported = new HnswSearchPlanner(hnsw, false).filtered(5, 50_000, 10_000_000);
+		assertThat(unsupported.iterativeScan()).isEqualTo(IterativeScan.OFF);
+	}
+
+	@Test
+	void fixedEfSearchIsNotBelowTopK() {
+		HnswSearchPlanner planner = new HnswSearchPlanner(hnsw, true);
+
+		assertThat(planner.fixed(10, 20).efSearch()).isEqualTo(20);
+		assertThat(planner.fixed(5000, 5).efSearch()).isEqualTo(HnswSearchPlanner.EF_SEARCH_LIMIT);
+	}
+}
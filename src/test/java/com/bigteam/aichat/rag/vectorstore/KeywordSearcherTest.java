@@ -0,0 +1,34 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import org.junit.jupiter.api.Test;
+
+import com.bigteam.aichat.rag.vectorstore.KeywordSearcher.KeywordQuery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 키워드 검색 질의 변환 테스트
+ */
+class KeywordSearcherTest {
+
+	@Test
+	void termsBecomePrefixOrQueryWithoutOperators() {
+		KeywordQuery query = KeywordQuery.parse("서버 오류가 발생해요! (a & b) | !c:*");
+
+		assertThat(query.tsQuery()).isEqualTo("서버:* | 오류가:* | 발생해요:*");
+		assertThat(query.identifiers()).isEmpty();
+	}
+
+	@Test
+	void codesAreExtractedAsIdentifiers() {
+		KeywordQuery query = KeywordQuery.parse("SKU-12-AB 제품의 E1023 에러 v2.3.1 에서 ABC 는?");
+
+		assertThat(query.identifiers()).containsExactly("SKU-12-AB", "E1023", "v2.3.1");
+		assertThat(query.tsQuery()).contains("e1023:*");
+	}
+
+	@Test
+	void punctuationOnlyQueryIsEmpty() {
+		assertThat(KeywordQuery.parse("?! a").isEmpty()).isTrue();
+	}
+}
@@ -0,0 +1,60 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인덱스 컬럼 필터 변환 테스트
+ */
+class MetadataColumnFilterConverterTest {
+
+	private final FilterExpressionTextParser parser = new FilterExpressionTextParser();
+	private final MetadataColumnFilterConverter converter = new MetadataColumnFilterConverter();
+
+	@Test
+	void documentIdInUsesIndexedColumnWithBigintArray() {
+		MetadataColumnFilterConverter.SqlFilter filter = converter.convert(parser.parse("document_id in [1,2,3]"));
+
+		assertThat(filter.sql()).isEqualTo("document_id = ANY(?)");
+		assertThat(filter.params()).hasSize(1);
+		assertThat((Object[]) filter.params().get(0)).containsExactly(1L, 2L, 3L);
+	}
+
+	@Test
+	void quotedDocumentIdsAreCoercedToBigint() {
+		MetadataColumnFilterConverter.SqlFilter filter = converter.convert(parser.parse("document_id in ['7', '8']"));
+
+		assertThat((Object[]) filter.params().get(0)).containsExactly(7L, 8L);
+	}
+
+	@Test
+	void userIdAndOtherKeysAreCombined() {
+		MetadataColumnFilterConverter.SqlFilter filter = converter.convert(
+				parser.parse("user_id == 'alice' && (file_name == 'a.pdf' || document_id != 3)"));
+
+		assertThat(filter.sql()).isEqualTo("(user_id = ? AND (metadata @@ ?::jsonpath OR document_id <> ?))");
+		assertThat(filter.params()).hasSize(3);
+		assertThat(filter.params().get(0)).isEqualTo("alice");
+		assertThat(filter.params().get(1).toString()).contains("$.file_name").contains("a.pdf");
+		assertThat(filter.params().get(2)).isEqualTo(3L);
+	}
+
+	@Test
+	void notInKeepsRowsWithoutColumnValue() {
+		MetadataColumnFilterConverter.SqlFilter filter = converter.convert(parser.parse("document_id nin [1]"));
+
+		assertThat(filter.sql()).isEqualTo("(document_id IS NULL OR document_id <> ALL(?))");
+	}
+
+	@Test
+	void requiredEqualityIsFoundOnlyUnderAnd() {
+		assertThat(converter.requiredEquality(parser.parse("user_id == 'alice' && document_id in [1, 2]"), "user_id"))
+				.isEqualTo("alice");
+		assertThat(converter.requiredEquality(parser.parse("document_id == 1 && (file_name == 'a' && user_id == 'bob')"), "user_id"))
+				.isEqualTo("bob");
+		assertThat(converter.requiredEquality(parser.parse("user_id == 'alice' || document_id == 1"), "user_id")).isNull();
+		assertThat(converter.requiredEquality(parser.parse("document_id in [1, 2]"), "user_id")).isNull();
+	}
+}
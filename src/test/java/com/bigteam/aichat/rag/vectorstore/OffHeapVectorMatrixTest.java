@@ -0,0 +1,67 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 힙 밖 행렬 정확 코사인 top-k 테스트
+ */
+class OffHeapVectorMatrixTest {
+
+	@Test
+	void topKMatchesBruteForceCosine() {
+		Random random = new Random(1);
+		int dimensions = 37; // 4 의 배수가 아닌 차원도 확인
+		float[][] vectors = new float[500][dimensions];
+		OffHeapVectorMatrix matrix = new OffHeapVectorMatrix(dimensions, vectors.length);
+		for (float[] vector : vectors) {
+			for (int i = 0; i < dimensions; i++) {
+				vector[i] = (float) random.nextGaussian();
+			}
+			matrix.add(vector);
+		}
+		float[] query = new float[dimensions];
+		for (int i = 0; i < dimensions; i++) {
+			query[i] = (float) random.nextGaussian();
+		}
+
+		List<Integer> expected = IntStream.range(0, vectors.length).boxed()
+				.sorted(Comparator.comparingDouble((Integer r) -> cosine(query, vectors[r])).reversed())
+				.limit(10)
+				.toList();
+		List<OffHeapVectorMatrix.ScoredRow> actual = matrix.topK(query, 10, -1.0);
+
+		assertThat(actual).extracting(OffHeapVectorMatrix.ScoredRow::row).containsExactlyElementsOf(expected);
+		assertThat(actual.get(0).score()).isCloseTo((float) cosine(query, vectors[expected.get(0)]), within(1e-5f));
+	}
+
+	@Test
+	void minScoreFiltersRows() {
+		OffHeapVectorMatrix matrix = new OffHeapVectorMatrix(2, 3);
+		matrix.add(new float[] {1, 0});
+		matrix.add(new float[] {0, 1});
+		matrix.add(new float[] {1, 1});
+
+		List<OffHeapVectorMatrix.ScoredRow> result = matrix.topK(new float[] {2, 0}, 5, 0.5);
+
+		assertThat(result).extracting(OffHeapVectorMatrix.ScoredRow::row).containsExactly(0, 2);
+		assertThat(result.get(0).score()).isCloseTo(1.0f, within(1e-6f));
+	}
+
+	private static double cosine(float[] a, float[] b) {
+		double dot = 0, na = 0, nb = 0;
+		for (int i = 0; i < a.length; i++) {
+			dot += a[i] * b[i];
+			na += a[i] * a[i];
+			nb += b[i] * b[i];
+		}
+		return dot / Math.sqrt(na * nb);
+	}
+}
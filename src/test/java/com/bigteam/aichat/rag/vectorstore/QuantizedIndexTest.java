@@ -0,0 +1,44 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgDistanceType;
+
+import com.bigteam.aichat.rag.vectorstore.VectorStoreProperties.QuantizationMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 양자화 방식별 인덱스 표현식/정렬식 테스트
+ * 정렬식이 인덱스 표현식과 다르면 플래너가 인덱스를 쓰지 않으므로 같은 표현식을 쓰는지 확인합니다.
+ */
+class QuantizedIndexTest {
+
+	@Test
+	void noneKeepsSpringAiIndex() {
+		QuantizedIndex index = new QuantizedIndex(QuantizationMode.NONE, 1536, PgDistanceType.COSINE_DISTANCE);
+
+		assertThat(index.reranks()).isFalse();
+		assertThat(index.indexName()).isEqualTo("spring_ai_vector_index");
+		assertThat(index.indexTarget()).isEqualTo("embedding vector_cosine_ops");
+		assertThat(index.orderBy()).isEqualTo("embedding <=> ?");
+	}
+
+	@Test
+	void halfvecIndexesCastExpressionWithMatchingOperatorClass() {
+		QuantizedIndex index = new QuantizedIndex(QuantizationMode.HALFVEC, 1536, PgDistanceType.EUCLIDEAN_DISTANCE);
+
+		assertThat(index.reranks()).isTrue();
+		assertThat(index.indexTarget()).isEqualTo("(embedding::halfvec(1536)) halfvec_l2_ops");
+		assertThat(index.orderBy()).startsWith("embedding::halfvec(1536) <-> ");
+	}
+
+	@Test
+	void binaryUsesHammingDistanceAndSeparatePartitionIndexes() {
+		QuantizedIndex index = new QuantizedIndex(QuantizationMode.BINARY, 768, PgDistanceType.COSINE_DISTANCE);
+
+		assertThat(index.indexTarget()).isEqualTo("(binary_quantize(embedding)::bit(768)) bit_hamming_ops");
+		assertThat(index.orderBy()).startsWith("binary_quantize(embedding)::bit(768) <~> ");
+		assertThat(index.partitionIndexSuffix()).isNotEqualTo(
+				new QuantizedIndex(QuantizationMode.NONE, 768, PgDistanceType.COSINE_DISTANCE).partitionIndexSuffix());
+	}
+}
@@ -0,0 +1,92 @@
+package com.bigteam.aichat.rag.vectorstore;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore.PgDistanceType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.bigteam.aichat.rag.vectorstore.UserPartitionManager.Partition;
+import com.bigteam.aichat.rag.vectorstore.VectorStoreProperties.QuantizationMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 사용자 파티션 조건/인덱스 이름/판단 캐시 테스트
+ */
+class UserPartitionManagerTest {
+
+	@Test
+	void predicateEscapesQuotes() {
+		assertThat(UserPartitionManager.predicate("o'brien")).isEqualTo("user_id = 'o''brien'");
+	}
+
+	@Test
+	void indexNameIsStableAndIdentifierSafe() {
+		String name = UserPartitionManager.indexName("사용자 \"1\"; DROP TABLE vector_store", "_hnsw");
+
+		assertThat(name).matches("vector_store_user_[0-9a-f]{16}_hnsw");
+		assertThat(UserPartitionManager.indexName("alice", "_hnsw")).isEqualTo(UserPartitionManager.indexName("alice", "_hnsw"))
+				.isNotEqualTo(UserPartitionManager.indexName("bob", "_hnsw"));
+	}
+
+	@Test
+	void exactDecisionIsCachedUntilInvalidated() {
+		CountingJdbcTemplate jdbcTemplate = new CountingJdbcTemplate(5L);
+		QuantizedIndex index = new QuantizedIndex(QuantizationMode.NONE, 1536, PgDistanceType.COSINE_DISTANCE);
+		try (UserPartitionManager manager = new UserPartitionManager(jdbcTemplate, "vector_store",
+				new VectorStoreProperties.Hnsw(), Duration.ofMinutes(5))) {
+			assertThat(manager.resolve("alice", index)).isEqualTo(Partition.EXACT);
+			assertThat(manager.resolve("alice", index)).isEqualTo(Partition.EXACT);
+			assertThat(jdbcTemplate.counts.get()).isEqualTo(1);
+
+			manager.invalidate("alice");
+			assertThat(manager.resolve("alice", index)).isEqualTo(Partition.EXACT);
+			assertThat(jdbcTemplate.counts.get()).isEqualTo(2);
+
+			manager.invalidateAll();
+			manager.resolve("alice", index);
+			assertThat(jdbcTemplate.counts.get()).isEqualTo(3);
+		}
+	}
+
+	@Test
+	void zeroTtlCountsOnEverySearch() {
+		CountingJdbcTemplate jdbcTemplate = new CountingJdbcTemplate(5L);
+		QuantizedIndex index = new QuantizedIndex(QuantizationMode.NONE, 1536, PgDistanceType.COSINE_DISTANCE);
+		try (UserPartitionManager manager = new UserPartitionManager(jdbcTemplate, "vector_store",
+				new VectorStoreProperties.Hnsw(), Duration.ZERO)) {
+			manager.resolve("alice", index);
+			manager.resolve("alice", index);
+
+			assertThat(jdbcTemplate.counts.get()).isEqualTo(2);
+		}
+	}
+
+	/**
+	 * 사용자 행 수 조회 횟수를 세는 JdbcTemplate (DB 없이 고정 행 수 반환)
+	 */
+	private static class CountingJdbcTemplate extends JdbcTemplate {
+
+		private final long rows;
+		private final AtomicInteger counts = new AtomicInteger();
+
+		CountingJdbcTemplate(long rows) {
+			this.rows = rows;
+		}
+
+		@Override
+		public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+			return List.of();
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+			counts.incrementAndGet();
+			return (T) Long.valueOf(rows);
+		}
+	}
+}
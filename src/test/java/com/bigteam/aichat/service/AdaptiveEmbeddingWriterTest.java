@@ -0,0 +1,134 @@
+package com.bigteam.aichat.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 적응형 임베딩 배치 writer 테스트
+ */
+class AdaptiveEmbeddingWriterTest {
+
+	@Test
+	void batchSizeGrowsWhileFastAndShrinksWhenSlow() {
+		List<Integer> sizes = new CopyOnWriteArrayList<>();
+		AtomicInteger delayMillis = new AtomicInteger();
+		try (AdaptiveEmbeddingWriter writer = writer(batch -> {
+			sizes.add(batch.size());
+			sleep(delayMillis.get());
+		}, 1).build()) {
+			writer.add(chunks(2000));
+			int grown = writer.currentBatchSize();
+			assertThat(grown).isGreaterThan(16);
+
+			delayMillis.set(200);
+			writer.add(chunks(grown * 3));
+			assertThat(writer.currentBatchSize()).isLessThan(grown);
+		}
+		assertThat(sizes.stream().mapToInt(Integer::intValue).sum()).isGreaterThan(2000);
+	}
+
+	@Test
+	void payloadSizeCapsBatch() {
+		List<Integer> sizes = new CopyOnWriteArrayList<>();
+		try (AdaptiveEmbeddingWriter writer = writer(batch -> sizes.add(batch.size()), 1)
+				.maxBatchChars(100)
+				.build()) {
+			writer.add(IntStream.range(0, 10).mapToObj(i -> new Document("x".repeat(40))).toList());
+		}
+		assertThat(sizes).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(2));
+	}
+
+	@Test
+	void inFlightBatchesAreCappedAcrossCallers() throws Exception {
+		AtomicInteger current = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		ExecutorService uploads = Executors.newFixedThreadPool(4);
+		try (AdaptiveEmbeddingWriter writer = writer(batch -> {
+			peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+			sleep(5);
+			current.decrementAndGet();
+		}, 2).build()) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				futures.add(uploads.submit(() -> writer.add(chunks(200))));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			uploads.shutdownNow();
+		}
+		assertThat(peak.get()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void onlyFailedBatchIsRetried() {
+		Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+		AtomicInteger failedBatchSize = new AtomicInteger();
+		try (AdaptiveEmbeddingWriter writer = writer(batch -> {
+			batch.forEach(chunk -> attempts.computeIfAbsent(chunk.getText(), key -> new AtomicInteger()).incrementAndGet());
+			boolean containsTarget = batch.stream().anyMatch(chunk -> chunk.getText().equals("chunk 40"));
+			if (containsTarget && failedBatchSize.compareAndSet(0, batch.size())) {
+				throw new IllegalStateException("embedding timeout");
+			}
+		}, 1).initialBatchSize(8).build()) {
+			writer.add(chunks(100));
+		}
+		assertThat(attempts).hasSize(100);
+		assertThat(attempts.get("chunk 40").get()).isEqualTo(2);
+		// 실패한 배치의 청크만 한 번 더 저장 시도
+		long retried = attempts.values().stream().filter(count -> count.get() == 2).count();
+		assertThat(retried).isEqualTo(failedBatchSize.get());
+		assertThat(attempts.values()).allSatisfy(count -> assertThat(count.get()).isLessThanOrEqualTo(2));
+	}
+
+	@Test
+	void batchFailingAllAttemptsFailsTheCall() {
+		try (AdaptiveEmbeddingWriter writer = writer(batch -> {
+			throw new IllegalStateException("ollama down");
+		}, 1).maxAttempts(2).build()) {
+			assertThatThrownBy(() -> writer.add(chunks(10))).hasMessage("ollama down");
+		}
+	}
+
+	private static AdaptiveEmbeddingWriter.Builder writer(Consumer<List<Document>> store, int maxInFlight) {
+		return AdaptiveEmbeddingWriter.builder()
+				.store(store)
+				.meterRegistry(new SimpleMeterRegistry())
+				.initialBatchSize(16)
+				.minBatchSize(1)
+				.maxBatchSize(256)
+				.targetLatency(Duration.ofMillis(50))
+				.maxInFlight(maxInFlight)
+				.retryBackoff(Duration.ofMillis(1));
+	}
+
+	private static List<Document> chunks(int count) {
+		return IntStream.range(0, count).mapToObj(i -> new Document("chunk " + i)).toList();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
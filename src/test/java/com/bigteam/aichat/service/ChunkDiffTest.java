@@ -0,0 +1,77 @@
+package com.bigteam.aichat.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 재적재 청크 비교 테스트
+ */
+class ChunkDiffTest {
+
+	@Test
+	void unchangedChunksAreRetainedAndMissingOnesRemoved() {
+		ChunkDiff diff = new ChunkDiff(List.of(
+				stored("a", "첫 번째 문단입니다.", Map.of("document_id", 1, "page_number", 1)),
+				stored("b", "두 번째 문단입니다.", Map.of("document_id", 1, "page_number", 1)),
+				stored("c", "삭제될 문단입니다.", Map.of("document_id", 1, "page_number", 2))));
+
+		assertThat(diff.retain(chunk("첫 번째 문단입니다.", Map.of("document_id", 1L, "page_number", 1)))).isTrue();
+		assertThat(diff.retain(chunk("두 번째 문단입니다.", Map.of("document_id", 1L, "page_number", 1)))).isTrue();
+		assertThat(diff.retain(chunk("새로 추가된 문단입니다.", Map.of("document_id", 1L, "page_number", 2)))).isFalse();
+
+		assertThat(diff.retainedCount()).isEqualTo(2);
+		assertThat(diff.removedIds()).containsExactly("c");
+		// JSON 왕복으로 Long -> Integer 가 되어도 같은 값이면 갱신하지 않음
+		assertThat(diff.metadataUpdates()).isEmpty();
+	}
+
+	@Test
+	void duplicateChunksArePairedOneToOne() {
+		ChunkDiff diff = new ChunkDiff(List.of(
+				stored("a", "반복되는 머리글", Map.of()),
+				stored("b", "반복되는 머리글", Map.of())));
+
+		assertThat(diff.retain(chunk("반복되는 머리글", Map.of()))).isTrue();
+		assertThat(diff.retain(chunk("반복되는 머리글", Map.of()))).isTrue();
+		assertThat(diff.retain(chunk("반복되는 머리글", Map.of()))).isFalse();
+		assertThat(diff.removedIds()).isEmpty();
+	}
+
+	@Test
+	void shiftedChunksKeepEmbeddingButUpdateMetadata() {
+		ChunkDiff diff = new ChunkDiff(List.of(
+				stored("a", "본문", Map.of("page_number", 3, "file_name", "v1.pdf", "summary", "요약"))));
+
+		assertThat(diff.retain(chunk("본문", Map.of("page_number", 4, "file_name", "v2.pdf")))).isTrue();
+
+		assertThat(diff.metadataUpdates()).containsOnlyKeys("a");
+		assertThat(diff.metadataUpdates().get("a")).containsOnly(
+				Map.entry("page_number", 4), Map.entry("file_name", "v2.pdf"));
+	}
+
+	@Test
+	void chunksWithoutHashAreReplaced() {
+		ChunkDiff diff = new ChunkDiff(List.of(new ChunkDiff.StoredChunk("legacy", null, Map.of())));
+
+		assertThat(diff.retain(chunk("본문", Map.of()))).isFalse();
+		assertThat(diff.removedIds()).containsExactly("legacy");
+	}
+
+	private static ChunkDiff.StoredChunk stored(String id, String text, Map<String, Object> metadata) {
+		Map<String, Object> withHash = new HashMap<>(metadata);
+		withHash.put(ChunkDiff.CHUNK_HASH_METADATA_KEY, ChunkDiff.chunkHash(text));
+		return new ChunkDiff.StoredChunk(id, ChunkDiff.chunkHash(text), withHash);
+	}
+
+	private static Document chunk(String text, Map<String, Object> metadata) {
+		Map<String, Object> withHash = new HashMap<>(metadata);
+		withHash.put(ChunkDiff.CHUNK_HASH_METADATA_KEY, ChunkDiff.chunkHash(text));
+		return new Document(text, withHash);
+	}
+}
@@ -0,0 +1,132 @@
+package com.bigteam.aichat.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 일괄 적재 파이프라인 writer 테스트
+ */
+class PipelinedChunkWriterTest {
+
+	@Test
+	void chunksFromSeveralSubmissionsAreStoredInBatches() {
+		RecordingVectorStore vectorStore = new RecordingVectorStore();
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+		try (PipelinedChunkWriter writer = new PipelinedChunkWriter(vectorStore::add, 10, 64, Duration.ofSeconds(5))) {
+			for (int i = 0; i < 20; i++) {
+				futures.add(writer.submit(chunks("file" + i, 3)));
+			}
+		}
+
+		futures.forEach(future -> assertThat(future).isCompleted());
+		assertThat(vectorStore.batches.stream().mapToInt(List::size).sum()).isEqualTo(60);
+		// 파일 경계와 관계없이 모아서 저장 (제출 20 건 -> 저장 호출 수 감소)
+		assertThat(vectorStore.batches.size()).isLessThanOrEqualTo(6);
+		vectorStore.batches.subList(0, vectorStore.batches.size() - 1)
+				.forEach(batch -> assertThat(batch.size()).isGreaterThanOrEqualTo(10));
+	}
+
+	@Test
+	void partialBatchIsStoredAfterLinger() {
+		RecordingVectorStore vectorStore = new RecordingVectorStore();
+
+		try (PipelinedChunkWriter writer = new PipelinedChunkWriter(vectorStore::add, 100, 8, Duration.ofMillis(20))) {
+			CompletableFuture<Void> stored = writer.submit(chunks("file", 3));
+
+			stored.join();
+			assertThat(vectorStore.batches).hasSize(1);
+		}
+	}
+
+	@Test
+	void storeFailureIsPropagatedToSubmissionsOfThatBatch() {
+		RecordingVectorStore vectorStore = new RecordingVectorStore();
+		vectorStore.failing = true;
+
+		CompletableFuture<Void> failed;
+		try (PipelinedChunkWriter writer = new PipelinedChunkWriter(vectorStore::add, 1, 8, Duration.ofMillis(10))) {
+			failed = writer.submit(chunks("file", 2));
+		}
+
+		assertThatThrownBy(failed::join).hasRootCauseMessage("store down");
+	}
+
+	@Test
+	void storeErrorFailsCurrentBatchAndQueuedSubmissions() {
+		RecordingVectorStore vectorStore = new RecordingVectorStore();
+		vectorStore.error = true;
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		try (PipelinedChunkWriter writer = new PipelinedChunkWriter(vectorStore::add, 1, 8, Duration.ofMillis(10))) {
+			for (int i = 0; i < 5; i++) {
+				futures.add(writer.submit(chunks("file" + i, 2)));
+			}
+		}
+
+		// writer 스레드가 죽어도 제출자는 무한 대기하지 않음
+		futures.forEach(future -> assertThat(future).failsWithin(Duration.ofSeconds(2)));
+	}
+
+	@Test
+	void submitAfterCloseIsRejected() {
+		RecordingVectorStore vectorStore = new RecordingVectorStore();
+		PipelinedChunkWriter writer = new PipelinedChunkWriter(vectorStore::add, 10, 8, Duration.ofMillis(10));
+		writer.close();
+
+		CompletableFuture<Void> rejected = writer.submit(chunks("file", 2));
+
+		assertThat(rejected).isCompletedExceptionally();
+		assertThat(vectorStore.batches).isEmpty();
+	}
+
+	private static List<Document> chunks(String name, int count) {
+		return IntStream.range(0, count)
+				.mapToObj(i -> new Document(name + " chunk " + i))
+				.toList();
+	}
+
+	private static class RecordingVectorStore implements VectorStore {
+
+		private final List<List<Document>> batches = new CopyOnWriteArrayList<>();
+		private volatile boolean failing;
+		private volatile boolean error;
+
+		@Override
+		public void add(List<Document> documents) {
+			if (error) {
+				throw new Error("store crashed");
+			}
+			if (failing) {
+				throw new IllegalStateException("store down");
+			}
+			batches.add(List.copyOf(documents));
+		}
+
+		@Override
+		public void delete(List<String> idList) {
+		}
+
+		@Override
+		public void delete(Filter.Expression filterExpression) {
+		}
+
+		@Override
+		public List<Document> similaritySearch(SearchRequest request) {
+			return List.of();
+		}
+	}
+}